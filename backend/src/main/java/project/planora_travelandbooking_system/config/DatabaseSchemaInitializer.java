@@ -0,0 +1,136 @@
+package project.planora_travelandbooking_system.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Schema objects Hibernate's ddl-auto cannot express (partial indexes and the like).
+ * Every statement is idempotent and runs once while the context starts: after Hibernate has
+ * updated the tables, before the web server accepts requests and before the ready-event warm-ups.
+ * A failing statement is logged and skipped so existing bad data cannot stop the application.
+ */
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory")
+public class DatabaseSchemaInitializer implements InitializingBean {
+
+    public static final String BOOKING_ACTIVE_SEAT_INDEX = "ux_booking_active_seat";
+    public static final String BOOKING_ACCOMMODATION_NIGHTS_CONSTRAINT = "ex_booking_accommodation_nights";
+
+    private static final List<String> STATEMENTS = List.of(
+            // transports carry many bookings now; only a chosen seat is exclusive
+            "drop index if exists ux_booking_active_transport",
+            "create unique index if not exists " + BOOKING_ACTIVE_SEAT_INDEX
+                    + " on booking (transport_id, seat_number) where status <> 'CANCELLED' and seat_number is not null",
+            // seat inventory for transports created before it existed
+            "update transport set seat_map = decode(repeat('00', (coalesce(seat, 1) + 7) / 8), 'hex') where seat_map is null",
+            "update transport t set seats_available = greatest(0, coalesce(t.seat, 1) - (select count(*) from booking b"
+                    + " where b.transport_id = t.id and b.status <> 'CANCELLED')) where t.seats_available is null",
+            // accommodation stays run check-in to check-out at midnight, taken from the trip;
+            // trips without dates are left alone, a null bound would make the stay range unbounded
+            "update booking b set start_date = date_trunc('day', t.start_date),"
+                    + " end_date = date_trunc('day', t.start_date) + greatest(1, t.end_date::date - t.start_date::date) * interval '1 day'"
+                    + " from trip t where b.trip_id = t.id and b.accommodation_id is not null and b.start_date is null"
+                    + " and t.start_date is not null and t.end_date is not null",
+            "update booking b set start_date = tr.departure_time, end_date = tr.arrival_time"
+                    + " from transport tr where b.transport_id = tr.id and b.start_date is null",
+            // an accommodation may carry many bookings as long as their nights do not overlap;
+            // the old one-booking index only goes away once the exclusion constraint is in place
+            "create extension if not exists btree_gist",
+            """
+            do $$
+            begin
+                if not exists (select 1 from pg_constraint where conname = '%1$s') then
+                    alter table booking add constraint %1$s
+                        exclude using gist (accommodation_id with =, tsrange(start_date, end_date) with &&)
+                        where (status <> 'CANCELLED' and accommodation_id is not null
+                               and start_date is not null and end_date is not null);
+                end if;
+                drop index if exists ux_booking_active_accommodation;
+            end $$
+            """.formatted(BOOKING_ACCOMMODATION_NIGHTS_CONSTRAINT),
+            // cursor-mode lists walk (created_at, id) newest first; rows from before created_at
+            // was always set get the epoch so they sort last instead of dropping out of every page
+            "update booking set created_at = timestamp '1970-01-01' where created_at is null",
+            "update trip set created_at = timestamp '1970-01-01' where created_at is null",
+            "update transport set created_at = timestamp '1970-01-01' where created_at is null",
+            "update accommodation set created_at = timestamp '1970-01-01' where created_at is null",
+            "create index if not exists ix_booking_created_id on booking (created_at desc, id desc)",
+            "create index if not exists ix_trip_created_id on trip (created_at desc, id desc)",
+            "create index if not exists ix_trip_user_created_id on trip (user_id, created_at desc, id desc)",
+            "create index if not exists ix_transport_created_id on transport (created_at desc, id desc)",
+            "create index if not exists ix_accommodation_created_id on accommodation (created_at desc, id desc)",
+            // booking form lookups match lowercased prefixes; text_pattern_ops keeps LIKE 'abc%' indexable
+            "create index if not exists ix_trip_title_prefix on trip (lower(title) text_pattern_ops)",
+            "create index if not exists ix_transport_company_prefix on transport (lower(company) text_pattern_ops)",
+            "create index if not exists ix_transport_origin_prefix on transport (lower(origin_address) text_pattern_ops)",
+            "create index if not exists ix_transport_destination_prefix on transport (lower(destination_address) text_pattern_ops)",
+            "create index if not exists ix_accommodation_name_prefix on accommodation (lower(name) text_pattern_ops)",
+            "create index if not exists ix_accommodation_city_prefix on accommodation (lower(city) text_pattern_ops)",
+            // transport search: route equality first, then the departure range or the price order
+            "create index if not exists ix_transport_route_departure on transport (lower(origin_address), lower(destination_address), departure_time)",
+            "create index if not exists ix_transport_route_price on transport (lower(origin_address), lower(destination_address), price)",
+            "create index if not exists ix_transport_destination_departure on transport (lower(destination_address), departure_time)",
+            "create index if not exists ix_transport_type_departure on transport (transport_type, departure_time)",
+            "create index if not exists ix_transport_departure on transport (departure_time)",
+            "create index if not exists ix_transport_price on transport (price)",
+            // refresh-token purge of revoked rows; expired rows go through idx_jwt_refresher_expires_at
+            "create index if not exists ix_jwt_refresher_revoked_last_used on jwt_refresher"
+                    + " ((coalesce(last_used_at, created_at))) where revoked"
+    );
+
+    // tables moved from identity columns to pooled sequences (allocationSize 50)
+    private static final Map<String, String> SEQUENCES = Map.of(
+            "booking", "booking_seq",
+            "trip", "trip_seq",
+            "transport", "transport_seq",
+            "accommodation", "accommodation_seq",
+            "users", "users_seq",
+            "jwt_refresher", "jwt_refresher_seq",
+            "user_email_history", "user_email_history_seq"
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DatabaseSchemaInitializer(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        List<String> statements = new ArrayList<>(sequenceStatements());
+        statements.addAll(STATEMENTS);
+
+        for (String sql : statements) {
+            try {
+                jdbcTemplate.execute(sql);
+            } catch (DataAccessException e) {
+                log.warn("Schema statement failed, continuing without it: {}", sql, e);
+            }
+        }
+    }
+
+    /**
+     * Moves existing rows' tables onto their sequence: the identity default is dropped so inserts
+     * need the sequence, and a sequence that is behind the highest id is pushed past it. Each value
+     * Hibernate fetches covers the 50 ids below it, so "last_value >= max(id)" is enough.
+     */
+    private static List<String> sequenceStatements() {
+        List<String> statements = new ArrayList<>();
+        SEQUENCES.forEach((table, sequence) -> {
+            statements.add("create sequence if not exists " + sequence + " start with 1 increment by 50");
+            statements.add("alter table " + table + " alter column id drop identity if exists");
+            statements.add("select setval('" + sequence + "', m.max_id, true) from (select max(id) as max_id from " + table + ") m"
+                    + " where m.max_id >= (select last_value from " + sequence + ")");
+        });
+        return statements;
+    }
+}
@@ -0,0 +1,28 @@
+package project.planora_travelandbooking_system.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Turns on JDBC batching for inserts and updates. This only works because ids come from pooled
+ * sequences: with identity columns Hibernate has to run every insert on its own to read the id back.
+ */
+@Configuration
+public class JpaBatchingConfig {
+
+    @Value("${planora.jpa.batch-size:50}")
+    private int batchSize;
+
+    @Bean
+    public HibernatePropertiesCustomizer jdbcBatchingCustomizer() {
+        return properties -> {
+            properties.putIfAbsent("hibernate.jdbc.batch_size", batchSize);
+            // group statements per table so batches are not cut short by interleaved entity types
+            properties.putIfAbsent("hibernate.order_inserts", true);
+            properties.putIfAbsent("hibernate.order_updates", true);
+            properties.putIfAbsent("hibernate.jdbc.batch_versioned_data", true);
+        };
+    }
+}
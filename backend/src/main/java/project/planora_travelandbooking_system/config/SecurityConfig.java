@@ -18,7 +18,6 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.AuthenticationSuccessHandler;
@@ -31,7 +30,10 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import project.planora_travelandbooking_system.component.CustomAuthenticationFailureHandler;
 import project.planora_travelandbooking_system.model.User;
 import project.planora_travelandbooking_system.repository.UserRepository;
+import project.planora_travelandbooking_system.security.BoundedPasswordEncoder;
 import project.planora_travelandbooking_system.security.JwtFilter;
+import project.planora_travelandbooking_system.security.PasswordEncoderProfile;
+import project.planora_travelandbooking_system.security.PasswordHashingExecutor;
 
 import java.util.List;
 
@@ -213,8 +215,8 @@ public class SecurityConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(PasswordEncoderProfile profile, PasswordHashingExecutor hashingExecutor) {
+        return new BoundedPasswordEncoder(profile.createEncoder(), hashingExecutor);
     }
 
     @Bean
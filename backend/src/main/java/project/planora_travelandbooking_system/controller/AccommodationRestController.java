@@ -5,9 +5,13 @@ import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import project.planora_travelandbooking_system.dto.AccommodationDTO;
+import project.planora_travelandbooking_system.dto.AccommodationSearchCriteria;
+import project.planora_travelandbooking_system.dto.CursorSlice;
 import project.planora_travelandbooking_system.model.Accommodation;
 import project.planora_travelandbooking_system.service.AccommodationService;
+import project.planora_travelandbooking_system.service.CatalogVersion;
 import project.planora_travelandbooking_system.service.TransportService;
 import java.util.Arrays;
 import java.util.List;
@@ -18,20 +22,44 @@ import java.util.stream.Collectors;
 public class AccommodationRestController {
 
     private final AccommodationService accommodationService;
+    private final CatalogVersion catalogVersion;
 
     @Autowired
-    public AccommodationRestController(AccommodationService accommodationService, TransportService transportService) {
+    public AccommodationRestController(AccommodationService accommodationService, TransportService transportService,
+                                       CatalogVersion catalogVersion) {
         this.accommodationService = accommodationService;
+        this.catalogVersion = catalogVersion;
     }
 
+    // cursor=true (or any "after" token) switches to keyset paging: no page numbers and no totals
+    // answered with 304 before any query while the catalog version matches the client's ETag
     @GetMapping
-    public ResponseEntity<Page<AccommodationDTO>> getAccommodations(
+    public ResponseEntity<?> getAccommodations(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean cursor,
+            @RequestParam(required = false) String after,
+            WebRequest request) {
+        if (catalogVersion.notModified(request, CatalogVersion.Catalog.ACCOMMODATIONS)) {
+            return null;
+        }
+        if (cursor || after != null) {
+            CursorSlice<AccommodationDTO> slice = accommodationService.getAccommodationsAfter(after, size);
+            return ResponseEntity.ok(slice);
+        }
         Page<AccommodationDTO> accommodations = accommodationService.getAllAccommodations(page, size);
         return ResponseEntity.ok(accommodations);
     }
 
+    // city, type, rating, price and stay-date filters, answered from memory
+    @GetMapping("/search")
+    public ResponseEntity<Page<AccommodationDTO>> searchAccommodations(
+            AccommodationSearchCriteria criteria,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.ok(accommodationService.searchAccommodations(criteria, page, size));
+    }
+
     @PostMapping("/save")
     public ResponseEntity<String> saveAccommodation(@RequestBody AccommodationDTO dto) {
         accommodationService.saveAccommodation(dto);
@@ -51,7 +79,10 @@ public class AccommodationRestController {
     }
 
     @GetMapping("/types")
-    public ResponseEntity<List<String>> getAccommodationTypes() {
+    public ResponseEntity<List<String>> getAccommodationTypes(WebRequest request) {
+        if (catalogVersion.notModified(request)) {
+            return null;
+        }
         List<String> types = Arrays.stream(Accommodation.AccommodationType.values())
                 .map(Enum::name)
                 .collect(Collectors.toList());
@@ -59,7 +90,10 @@ public class AccommodationRestController {
     }
 
     @GetMapping("/statuses")
-    public ResponseEntity<List<String>> getAccommodationStatuses() {
+    public ResponseEntity<List<String>> getAccommodationStatuses(WebRequest request) {
+        if (catalogVersion.notModified(request)) {
+            return null;
+        }
         List<String> statuses = Arrays.stream(Accommodation.Status.values())
                 .map(Enum::name)
                 .collect(Collectors.toList());
@@ -0,0 +1,95 @@
+package project.planora_travelandbooking_system.controller;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import project.planora_travelandbooking_system.service.ExportService;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.zip.GZIPOutputStream;
+
+// Streaming exports: rows go straight from the database cursor to the response, nothing is collected first
+@RestController
+@RequestMapping("/api/admin/export")
+public class AdminExportRestController {
+
+    private final ExportService exportService;
+
+    public AdminExportRestController(ExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    // created in [from, to), e.g. from=2026-09-01&to=2026-10-01 for September
+    @GetMapping("/bookings")
+    public void exportBookings(@RequestParam(defaultValue = "csv") String format,
+                               @RequestParam(defaultValue = "false") boolean gzip,
+                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                               HttpServletResponse response) throws IOException {
+        ExportService.Format fmt = ExportService.Format.parse(format);
+        checkRange(from, to);
+        stream(response, "bookings", fmt, gzip,
+                out -> exportService.exportBookings(out, fmt, startOf(from), startOf(to)));
+    }
+
+    @GetMapping("/trips")
+    public void exportTrips(@RequestParam(defaultValue = "csv") String format,
+                            @RequestParam(defaultValue = "false") boolean gzip,
+                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                            HttpServletResponse response) throws IOException {
+        ExportService.Format fmt = ExportService.Format.parse(format);
+        checkRange(from, to);
+        stream(response, "trips", fmt, gzip,
+                out -> exportService.exportTrips(out, fmt, startOf(from), startOf(to)));
+    }
+
+    @GetMapping("/users")
+    public void exportUsers(@RequestParam(defaultValue = "csv") String format,
+                            @RequestParam(defaultValue = "false") boolean gzip,
+                            HttpServletResponse response) throws IOException {
+        ExportService.Format fmt = ExportService.Format.parse(format);
+        stream(response, "users", fmt, gzip, out -> exportService.exportUsers(out, fmt));
+    }
+
+    // everything is validated before this point; once rows are written the status can no longer change
+    private void stream(HttpServletResponse response, String name, ExportService.Format format, boolean gzip,
+                        Export export) throws IOException {
+        String filename = name + "." + format.getExtension() + (gzip ? ".gz" : "");
+        response.setContentType(gzip ? "application/gzip" : format.getContentType() + ";charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+
+        OutputStream out = response.getOutputStream();
+        if (gzip) {
+            GZIPOutputStream compressed = new GZIPOutputStream(out, 64 * 1024);
+            export.writeTo(compressed);
+            compressed.finish();
+        } else {
+            export.writeTo(out);
+        }
+        out.flush();
+    }
+
+    private static void checkRange(LocalDate from, LocalDate to) {
+        if (from != null && to != null && !to.isAfter(from)) {
+            throw new IllegalArgumentException("to must be after from");
+        }
+    }
+
+    private static LocalDateTime startOf(LocalDate date) {
+        return date == null ? null : date.atStartOfDay();
+    }
+
+    @FunctionalInterface
+    private interface Export {
+        long writeTo(OutputStream out) throws IOException;
+    }
+}
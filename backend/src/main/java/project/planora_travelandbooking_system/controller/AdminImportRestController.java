@@ -0,0 +1,56 @@
+package project.planora_travelandbooking_system.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import project.planora_travelandbooking_system.dto.ImportJobDTO;
+import project.planora_travelandbooking_system.service.CatalogImportService;
+import project.planora_travelandbooking_system.service.ExportService;
+
+import java.io.IOException;
+import java.util.List;
+
+// Bulk catalog import: the request body is the CSV or NDJSON file itself, the import runs as a background job
+@RestController
+@RequestMapping("/api/admin/import")
+public class AdminImportRestController {
+
+    private final CatalogImportService importService;
+
+    public AdminImportRestController(CatalogImportService importService) {
+        this.importService = importService;
+    }
+
+    // CSV needs a header row with TransportDTO field names; NDJSON is one TransportDTO object per line
+    @PostMapping("/transports")
+    public ResponseEntity<ImportJobDTO> importTransports(@RequestParam(defaultValue = "csv") String format,
+                                                         @RequestParam(required = false) String fileName,
+                                                         HttpServletRequest request) throws IOException {
+        return submit(CatalogImportService.Catalog.TRANSPORTS, format, fileName, request);
+    }
+
+    @PostMapping("/accommodations")
+    public ResponseEntity<ImportJobDTO> importAccommodations(@RequestParam(defaultValue = "csv") String format,
+                                                             @RequestParam(required = false) String fileName,
+                                                             HttpServletRequest request) throws IOException {
+        return submit(CatalogImportService.Catalog.ACCOMMODATIONS, format, fileName, request);
+    }
+
+    // progress, counts and the first row errors
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<ImportJobDTO> getJob(@PathVariable String id) {
+        return ResponseEntity.ok(importService.getJob(id));
+    }
+
+    @GetMapping("/jobs")
+    public ResponseEntity<List<ImportJobDTO>> getJobs() {
+        return ResponseEntity.ok(importService.getJobs());
+    }
+
+    private ResponseEntity<ImportJobDTO> submit(CatalogImportService.Catalog catalog, String format, String fileName,
+                                                HttpServletRequest request) throws IOException {
+        ExportService.Format fmt = ExportService.Format.parse(format);
+        ImportJobDTO job = importService.submit(catalog, fmt, fileName, request.getInputStream());
+        return ResponseEntity.accepted().body(job);
+    }
+}
@@ -6,9 +6,29 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import project.planora_travelandbooking_system.dto.UserDTO;
 import project.planora_travelandbooking_system.repository.UserRepository;
+import project.planora_travelandbooking_system.security.JwtUtil;
+import project.planora_travelandbooking_system.security.PasswordEncoderProfile;
+import project.planora_travelandbooking_system.security.PasswordHashingExecutor;
+import project.planora_travelandbooking_system.security.RefreshTokenBloomFilter;
+import project.planora_travelandbooking_system.service.AccommodationSearchIndex;
+import project.planora_travelandbooking_system.service.BookingAvailabilityIndex;
+import project.planora_travelandbooking_system.service.BookingLocks;
+import project.planora_travelandbooking_system.service.CatalogCache;
+import project.planora_travelandbooking_system.service.CatalogVersion;
+import project.planora_travelandbooking_system.service.DbUserDetailService;
+import project.planora_travelandbooking_system.service.EmailReservationService;
+import project.planora_travelandbooking_system.service.ExportService;
+import project.planora_travelandbooking_system.service.JwtRefreshService;
+import project.planora_travelandbooking_system.service.JwtRefresherCleanupService;
+import project.planora_travelandbooking_system.service.PasswordUpgradeService;
+import project.planora_travelandbooking_system.service.PricingService;
+import project.planora_travelandbooking_system.service.TransportSeatInventory;
+import project.planora_travelandbooking_system.service.TransportService;
 import project.planora_travelandbooking_system.service.UserService;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/admin")
@@ -16,14 +36,169 @@ public class AdminRestController {
 
     private final UserService userService;
     private final UserRepository userRepository;
+    private final JwtUtil jwtUtil;
+    private final DbUserDetailService userDetailService;
+    private final JwtRefreshService refreshService;
+    private final JwtRefresherCleanupService refresherCleanupService;
+    private final RefreshTokenBloomFilter refreshTokenFilter;
+    private final PasswordHashingExecutor hashingExecutor;
+    private final PasswordEncoderProfile passwordProfile;
+    private final PasswordUpgradeService passwordUpgradeService;
+    private final EmailReservationService emailReservations;
+    private final BookingAvailabilityIndex availabilityIndex;
+    private final BookingLocks bookingLocks;
+    private final TransportSeatInventory seatInventory;
+    private final TransportService transportService;
+    private final AccommodationSearchIndex accommodationSearchIndex;
+    private final CatalogCache catalogCache;
+    private final CatalogVersion catalogVersion;
+    private final ExportService exportService;
+    private final PricingService pricingService;
 
-    public AdminRestController(UserService userService, UserRepository userRepository) {
+    public AdminRestController(UserService userService, UserRepository userRepository,
+                               JwtUtil jwtUtil, DbUserDetailService userDetailService,
+                               JwtRefreshService refreshService,
+                               JwtRefresherCleanupService refresherCleanupService,
+                               RefreshTokenBloomFilter refreshTokenFilter,
+                               PasswordHashingExecutor hashingExecutor,
+                               PasswordEncoderProfile passwordProfile,
+                               PasswordUpgradeService passwordUpgradeService,
+                               EmailReservationService emailReservations,
+                               BookingAvailabilityIndex availabilityIndex,
+                               BookingLocks bookingLocks,
+                               TransportSeatInventory seatInventory,
+                               TransportService transportService,
+                               AccommodationSearchIndex accommodationSearchIndex,
+                               CatalogCache catalogCache,
+                               CatalogVersion catalogVersion,
+                               ExportService exportService,
+                               PricingService pricingService) {
         this.userService = userService;
         this.userRepository = userRepository;
+        this.jwtUtil = jwtUtil;
+        this.userDetailService = userDetailService;
+        this.refreshService = refreshService;
+        this.refresherCleanupService = refresherCleanupService;
+        this.refreshTokenFilter = refreshTokenFilter;
+        this.hashingExecutor = hashingExecutor;
+        this.passwordProfile = passwordProfile;
+        this.passwordUpgradeService = passwordUpgradeService;
+        this.emailReservations = emailReservations;
+        this.availabilityIndex = availabilityIndex;
+        this.bookingLocks = bookingLocks;
+        this.seatInventory = seatInventory;
+        this.transportService = transportService;
+        this.accommodationSearchIndex = accommodationSearchIndex;
+        this.catalogCache = catalogCache;
+        this.catalogVersion = catalogVersion;
+        this.exportService = exportService;
+        this.pricingService = pricingService;
     }
 
     @GetMapping
     public ResponseEntity<List<UserDTO>> getUsers() {
         return ResponseEntity.ok(userService.getAllUsers());
     }
-}
\ No newline at end of file
+
+    @GetMapping("/metrics")
+    public ResponseEntity<Map<String, Object>> getMetrics() {
+        Map<String, Object> jwtCache = new LinkedHashMap<>();
+        jwtCache.put("hits", jwtUtil.getCacheHits());
+        jwtCache.put("misses", jwtUtil.getCacheMisses());
+        jwtCache.put("size", jwtUtil.getCacheSize());
+
+        Map<String, Object> userCache = new LinkedHashMap<>();
+        userCache.put("hits", userDetailService.getCacheHits());
+        userCache.put("misses", userDetailService.getCacheMisses());
+        userCache.put("size", userDetailService.getCacheSize());
+
+        Map<String, Object> refreshTokens = new LinkedHashMap<>();
+        refreshTokens.put("pendingLastUsed", refreshService.getPendingLastUsed());
+        refreshTokens.put("lastUsedFlushed", refreshService.getLastUsedFlushed());
+        refreshTokens.put("purgeRuns", refresherCleanupService.getRuns());
+        refreshTokens.put("purgedTotal", refresherCleanupService.getTotalDeleted());
+        refreshTokens.put("purgedLastRun", refresherCleanupService.getLastRunDeleted());
+        refreshTokens.put("purgeLastRunMillis", refresherCleanupService.getLastRunMillis());
+        refreshTokens.put("purgeRunning", refresherCleanupService.isRunning());
+        refreshTokens.put("filterReady", refreshTokenFilter.isReady());
+        refreshTokens.put("filterLastBuildSize", refreshTokenFilter.getLastBuildSize());
+        refreshTokens.put("filterRejected", refreshTokenFilter.getRejected());
+        refreshTokens.put("filterPassed", refreshTokenFilter.getPassed());
+
+        Map<String, Object> passwordHashing = new LinkedHashMap<>();
+        passwordHashing.put("poolSize", hashingExecutor.getPoolSize());
+        passwordHashing.put("active", hashingExecutor.getActiveThreads());
+        passwordHashing.put("queueDepth", hashingExecutor.getQueueDepth());
+        passwordHashing.put("completed", hashingExecutor.getCompleted());
+        passwordHashing.put("rejected", hashingExecutor.getRejected());
+        passwordHashing.put("avgMillis", hashingExecutor.getAverageHashMillis());
+        passwordHashing.put("maxMillis", hashingExecutor.getMaxHashMillis());
+        passwordHashing.put("algorithm", passwordProfile.getAlgorithm());
+        passwordHashing.put("bcryptStrength", passwordProfile.getBcryptStrength());
+        passwordHashing.put("upgraded", passwordUpgradeService.getUpgraded());
+        passwordHashing.put("upgradesSkipped", passwordUpgradeService.getSkipped());
+
+        Map<String, Object> emailReservationStats = new LinkedHashMap<>();
+        emailReservationStats.put("filterReady", emailReservations.isReady());
+        emailReservationStats.put("filterHits", emailReservations.getFilterHits());
+        emailReservationStats.put("dbProbes", emailReservations.getDbProbes());
+
+        Map<String, Object> bookingAvailability = new LinkedHashMap<>();
+        bookingAvailability.put("ready", availabilityIndex.isReady());
+        bookingAvailability.put("activeBookings", availabilityIndex.getActiveBookings());
+        bookingAvailability.put("locksAcquired", bookingLocks.getAcquired());
+        bookingAvailability.put("lockTimeouts", bookingLocks.getTimedOut());
+        bookingAvailability.put("seatsTaken", seatInventory.getTaken());
+        bookingAvailability.put("seatSoldOut", seatInventory.getSoldOut());
+
+        Map<String, Object> transportSearch = new LinkedHashMap<>();
+        transportSearch.put("searches", transportService.getSearches());
+        transportSearch.put("slow", transportService.getSlowSearches());
+        transportSearch.put("avgMillis", transportService.getAverageSearchMillis());
+        transportSearch.put("maxMillis", transportService.getMaxSearchMillis());
+
+        Map<String, Object> accommodationSearch = new LinkedHashMap<>();
+        accommodationSearch.put("ready", accommodationSearchIndex.isReady());
+        accommodationSearch.put("listings", accommodationSearchIndex.getListings());
+        accommodationSearch.put("searches", accommodationSearchIndex.getSearches());
+
+        Map<String, Object> catalogCacheStats = new LinkedHashMap<>();
+        catalogCacheStats.put("hits", catalogCache.getHits());
+        catalogCacheStats.put("misses", catalogCache.getMisses());
+        catalogCacheStats.put("hitRatio", catalogCache.getHitRatio());
+        catalogCacheStats.put("evictions", catalogCache.getEvictions());
+        catalogCacheStats.put("size", catalogCache.getSize());
+
+        Map<String, Object> conditionalGets = new LinkedHashMap<>();
+        conditionalGets.put("notModified", catalogVersion.getNotModified());
+        conditionalGets.put("served", catalogVersion.getServed());
+        conditionalGets.put("transportsVersion", catalogVersion.getVersion(CatalogVersion.Catalog.TRANSPORTS));
+        conditionalGets.put("accommodationsVersion", catalogVersion.getVersion(CatalogVersion.Catalog.ACCOMMODATIONS));
+        conditionalGets.put("staysVersion", catalogVersion.getVersion(CatalogVersion.Catalog.STAYS));
+
+        Map<String, Object> exports = new LinkedHashMap<>();
+        exports.put("exports", exportService.getExports());
+        exports.put("rows", exportService.getRowsExported());
+        exports.put("lastExportMillis", exportService.getLastExportMillis());
+
+        Map<String, Object> quoteCache = new LinkedHashMap<>();
+        quoteCache.put("hits", pricingService.getHits());
+        quoteCache.put("misses", pricingService.getMisses());
+        quoteCache.put("size", pricingService.getSize());
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("jwtCache", jwtCache);
+        response.put("userCache", userCache);
+        response.put("refreshTokens", refreshTokens);
+        response.put("passwordHashing", passwordHashing);
+        response.put("emailReservations", emailReservationStats);
+        response.put("bookingAvailability", bookingAvailability);
+        response.put("transportSearch", transportSearch);
+        response.put("accommodationSearch", accommodationSearch);
+        response.put("catalogCache", catalogCacheStats);
+        response.put("conditionalGets", conditionalGets);
+        response.put("exports", exports);
+        response.put("quoteCache", quoteCache);
+        return ResponseEntity.ok(response);
+    }
+}
@@ -4,7 +4,10 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import project.planora_travelandbooking_system.exception.BookingConflictException;
+import project.planora_travelandbooking_system.exception.ImportBusyException;
 import project.planora_travelandbooking_system.exception.InvalidPasswordException;
+import project.planora_travelandbooking_system.exception.PasswordHashingBusyException;
 import project.planora_travelandbooking_system.exception.UserAlreadyExistsException;
 import project.planora_travelandbooking_system.exception.DuplicateTripBookingTypeException;
 
@@ -35,6 +38,26 @@ public class ApiExceptionHandler {
                 .body(Map.of("message", ex.getMessage()));
     }
 
+    @ExceptionHandler(BookingConflictException.class)
+    public ResponseEntity<Map<String, String>> handleBookingConflict(BookingConflictException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("message", ex.getMessage()));
+    }
+
+    @ExceptionHandler(PasswordHashingBusyException.class)
+    public ResponseEntity<Map<String, String>> handlePasswordHashingBusy(PasswordHashingBusyException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header("Retry-After", "1")
+                .body(Map.of("message", ex.getMessage()));
+    }
+
+    @ExceptionHandler(ImportBusyException.class)
+    public ResponseEntity<Map<String, String>> handleImportBusy(ImportBusyException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header("Retry-After", "30")
+                .body(Map.of("message", ex.getMessage()));
+    }
+
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<Map<String, String>> handleRuntime(RuntimeException ex) {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST)
@@ -11,10 +11,13 @@ import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 import project.planora_travelandbooking_system.model.User;
-import project.planora_travelandbooking_system.repository.UserEmailHistoryRepository;
 import project.planora_travelandbooking_system.security.JwtUtil;
 import project.planora_travelandbooking_system.dto.UserDTO;
+import project.planora_travelandbooking_system.exception.PasswordHashingBusyException;
+import project.planora_travelandbooking_system.service.DbUserDetailService;
+import project.planora_travelandbooking_system.service.EmailReservationService;
 import project.planora_travelandbooking_system.service.JwtRefreshService;
+import project.planora_travelandbooking_system.service.PasswordUpgradeService;
 import project.planora_travelandbooking_system.service.UserService;
 import project.planora_travelandbooking_system.repository.UserRepository;
 import java.time.Duration;
@@ -36,22 +39,28 @@ public class AuthRestController {
     private final UserService userService;
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
-    private final UserEmailHistoryRepository userEmailHistoryRepository;
+    private final EmailReservationService emailReservations;
+    private final DbUserDetailService userDetailService;
+    private final PasswordUpgradeService passwordUpgradeService;
 
     public AuthRestController(AuthenticationManager authenticationManager,
                               JwtUtil jwtUtil,
                               JwtRefreshService refreshService,
                               UserService userService,
                               UserRepository userRepository,
-                              UserEmailHistoryRepository userEmailHistoryRepository,
-                              PasswordEncoder passwordEncoder) {
+                              EmailReservationService emailReservations,
+                              PasswordEncoder passwordEncoder,
+                              DbUserDetailService userDetailService,
+                              PasswordUpgradeService passwordUpgradeService) {
         this.authenticationManager = authenticationManager;
         this.jwtUtil = jwtUtil;
         this.refreshService = refreshService;
         this.userService = userService;
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
-        this.userEmailHistoryRepository = userEmailHistoryRepository;
+        this.emailReservations = emailReservations;
+        this.userDetailService = userDetailService;
+        this.passwordUpgradeService = passwordUpgradeService;
     }
 
     @PostMapping("/login")
@@ -63,11 +72,13 @@ public class AuthRestController {
 
             String email = auth.getName();
 
-            String accessToken = jwtUtil.generateToken(email);
-
             User user = userService.getUserByEmail(email)
                     .orElseThrow(() -> new RuntimeException("User not found"));
 
+            passwordUpgradeService.upgradeIfNeeded(user, userDTO.getPassword());
+
+            String accessToken = jwtUtil.generateToken(user);
+
             String refreshToken = refreshService.createToken(user, refreshDays);
             setRefreshCookie(response, refreshToken, refreshDays);
 
@@ -75,7 +86,13 @@ public class AuthRestController {
                     "token", accessToken,
                     "email", email
             ));
+        } catch (PasswordHashingBusyException ex) {
+            return hashingBusy(ex);
         } catch (AuthenticationException ex) {
+            // the dummy hash for unknown emails runs inside UserDetailsService lookup and gets wrapped
+            if (ex.getCause() instanceof PasswordHashingBusyException busy) {
+                return hashingBusy(busy);
+            }
             return ResponseEntity.status(401).body("Invalid email or password");
         } catch (RuntimeException ex) {
             return ResponseEntity.status(500).body("Login failed");
@@ -102,9 +119,8 @@ public class AuthRestController {
             return ResponseEntity.badRequest().body("Passwords do not match");
         }
 
-        // Check if the email already exists in user repository or user email history
-        if (userRepository.findByEmail(userDTO.getEmail()).isPresent() ||
-                userEmailHistoryRepository.existsByEmail(userDTO.getEmail())) {
+        // Check if the email is already used by a user or kept in email history
+        if (!emailReservations.isAvailable(userDTO.getEmail())) {
             return ResponseEntity.badRequest().body("Email is already registered or in history");
         }
 
@@ -117,7 +133,7 @@ public class AuthRestController {
         user.setDeleted(false);
         user.setCreatedAt(LocalDateTime.now());
 
-        userRepository.save(user);
+        userService.registerUser(user);
 
         return ResponseEntity.status(HttpStatus.CREATED)
                 .header("Location", "/login")
@@ -146,10 +162,17 @@ public class AuthRestController {
         user.setDeleted(false);
         user.setDeletionDate(null);
         userRepository.save(user);
+        userDetailService.evict(user.getEmail());
 
         return ResponseEntity.ok(new SuccessResponse("Account restored successfully", user.getEmail()));
     }
 
+    private ResponseEntity<?> hashingBusy(PasswordHashingBusyException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header("Retry-After", "1")
+                .body(ex.getMessage());
+    }
+
     private void setRefreshCookie(HttpServletResponse response, String token, int days) {
         int maxAge = (int) Duration.ofDays(days).getSeconds();
 
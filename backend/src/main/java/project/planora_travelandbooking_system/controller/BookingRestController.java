@@ -1,18 +1,21 @@
 package project.planora_travelandbooking_system.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import project.planora_travelandbooking_system.dto.BookingDTO;
-import project.planora_travelandbooking_system.model.Accommodation;
-import project.planora_travelandbooking_system.model.Transport;
-import project.planora_travelandbooking_system.model.Trip;
+import project.planora_travelandbooking_system.dto.CursorSlice;
 import project.planora_travelandbooking_system.repository.AccommodationRepository;
 import project.planora_travelandbooking_system.repository.TransportRepository;
 import project.planora_travelandbooking_system.repository.TripRepository;
+import project.planora_travelandbooking_system.service.BookingLookupService;
 import project.planora_travelandbooking_system.service.BookingService;
+import project.planora_travelandbooking_system.service.CatalogVersion;
+import java.time.LocalDate;
 import java.util.List;
 import org.springframework.data.domain.Page;
 import java.util.HashMap;
@@ -23,19 +26,15 @@ import java.util.Map;
 public class BookingRestController {
 
     private final BookingService bookingService;
-    private final TripRepository tripRepository;
-    private final TransportRepository transportRepository;
-    private final AccommodationRepository accommodationRepository;
+    private final BookingLookupService lookupService;
+    private final CatalogVersion catalogVersion;
 
     @Autowired
-    public BookingRestController(BookingService bookingService,
-                                 TripRepository tripRepository,
-                                 TransportRepository transportRepository,
-                                 AccommodationRepository accommodationRepository) {
+    public BookingRestController(BookingService bookingService, BookingLookupService lookupService,
+                                 CatalogVersion catalogVersion) {
         this.bookingService = bookingService;
-        this.tripRepository = tripRepository;
-        this.transportRepository = transportRepository;
-        this.accommodationRepository = accommodationRepository;
+        this.lookupService = lookupService;
+        this.catalogVersion = catalogVersion;
     }
 
     private boolean isAdmin(Authentication auth) {
@@ -67,15 +66,28 @@ public class BookingRestController {
         return bookingService.getAllBookings();
     }*/
 
+    // cursor=true (or any "after" token) switches to keyset paging: no page numbers and no totals
     @GetMapping
     public ResponseEntity<Map<String, Object>> getBookings(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean cursor,
+            @RequestParam(required = false) String after,
             Authentication auth) {
 
         String email = auth.getName();
         boolean admin = isAdmin(auth);
 
+        if (cursor || after != null) {
+            CursorSlice<BookingDTO> slice = bookingService.getBookingsAfter(after, size, email, admin);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("bookings", slice.getContent());
+            response.put("nextCursor", slice.getNextCursor());
+            response.put("hasNext", slice.isHasNext());
+            return ResponseEntity.ok(response);
+        }
+
         Page<BookingDTO> bookingPage =
                 bookingService.getAllBookings(page, size, email, admin);
 
@@ -117,27 +129,44 @@ public class BookingRestController {
         return ResponseEntity.status(HttpStatus.CREATED).build();
     }
 
-    // Get all trips (for creating/editing bookings)
+    // Booking form pickers: bounded prefix search over compact id/label projections
     @GetMapping("/trips")
-    public ResponseEntity<List<Trip>> getTrips(Authentication auth) {
-        String email = auth.getName();
-        boolean admin = isAdmin(auth);
-        List<Trip> trips = admin ? tripRepository.findAll() : tripRepository.findByUserEmail(email);
-        return ResponseEntity.ok(trips);
+    public ResponseEntity<List<TripRepository.TripOption>> getTrips(
+            @RequestParam(required = false) String q,
+            @RequestParam(defaultValue = "20") int limit,
+            Authentication auth) {
+        return ResponseEntity.ok(lookupService.trips(q, limit, auth.getName(), isAdmin(auth)));
     }
 
-    // Get all transports (for creating/editing bookings)
+    // optionally only transports with seats left
     @GetMapping("/transports")
-    public ResponseEntity<List<Transport>> getTransports() {
-        List<Transport> transports = transportRepository.findAll();
-        return ResponseEntity.ok(transports);
+    public ResponseEntity<List<TransportRepository.TransportOption>> getTransports(
+            @RequestParam(required = false) String q,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(defaultValue = "false") boolean availableOnly,
+            WebRequest request) {
+        if (catalogVersion.notModified(request, CatalogVersion.Catalog.TRANSPORTS)) {
+            return null;
+        }
+        return ResponseEntity.ok(lookupService.transports(q, limit, availableOnly));
     }
 
-    // Get all accommodations (for creating/editing bookings)
+    // optionally only the ones free for every night in [from, to)
     @GetMapping("/accommodations")
-    public ResponseEntity<List<Accommodation>> getAccommodations() {
-        List<Accommodation> accommodations = accommodationRepository.findAll();
-        return ResponseEntity.ok(accommodations);
+    public ResponseEntity<List<AccommodationRepository.AccommodationOption>> getAccommodations(
+            @RequestParam(required = false) String q,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(defaultValue = "false") boolean availableOnly,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            WebRequest request) {
+        // without from, availableOnly means "from today", which no catalog version covers
+        boolean conditional = !availableOnly || from != null;
+        if (conditional && catalogVersion.notModified(request,
+                CatalogVersion.Catalog.ACCOMMODATIONS, CatalogVersion.Catalog.STAYS)) {
+            return null;
+        }
+        return ResponseEntity.ok(lookupService.accommodations(q, limit, availableOnly, from, to));
     }
 
 }
\ No newline at end of file
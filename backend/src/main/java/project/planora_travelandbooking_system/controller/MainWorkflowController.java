@@ -14,6 +14,7 @@ import project.planora_travelandbooking_system.model.User;
 import project.planora_travelandbooking_system.service.*;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -45,6 +46,10 @@ public class MainWorkflowController {
     public ResponseEntity<?> saveBookingViaWorkflow(@RequestBody MainCreateBookingRequest req,
                                                     Authentication auth) {
 
+        if (auth == null) {
+            return ResponseEntity.status(401).body(Map.of("message", "Unauthorized"));
+        }
+
         if (req == null || req.getBooking() == null) {
             return ResponseEntity.badRequest().body("booking is required");
         }
@@ -105,6 +110,10 @@ public class MainWorkflowController {
     public ResponseEntity<?> saveTripAndBooking(@RequestBody SaveTripAndBookingRequest req,
                                                 Authentication auth) {
 
+        if (auth == null) {
+            return ResponseEntity.status(401).body(Map.of("message", "Unauthorized"));
+        }
+
         if (req == null || req.getTrip() == null || req.getBooking() == null) {
             return ResponseEntity.badRequest().body(Map.of("message", "trip and booking are required"));
         }
@@ -151,6 +160,46 @@ public class MainWorkflowController {
         ));
     }
 
+    // a trip (new, or existing when trip.id is set) plus all of its bookings, saved together or not at all
+    @PostMapping("/itinerary")
+    public ResponseEntity<?> saveItinerary(@RequestBody ItineraryRequest req, Authentication auth) {
+
+        if (auth == null) {
+            return ResponseEntity.status(401).body(Map.of("message", "Unauthorized"));
+        }
+
+        if (req == null || req.getTrip() == null || req.getBookings() == null || req.getBookings().isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("message", "trip and bookings are required"));
+        }
+
+        for (BookingDTO booking : req.getBookings()) {
+            if ("TRANSPORT".equalsIgnoreCase(booking.getBookingType())) {
+                if (booking.getTransportId() == null) {
+                    return ResponseEntity.badRequest().body(Map.of("message", "transportId required for TRANSPORT"));
+                }
+                booking.setBookingType("TRANSPORT");
+                booking.setAccommodationId(null);
+            } else if ("ACCOMMODATION".equalsIgnoreCase(booking.getBookingType())) {
+                if (booking.getAccommodationId() == null) {
+                    return ResponseEntity.badRequest().body(Map.of("message", "accommodationId required for ACCOMMODATION"));
+                }
+                booking.setBookingType("ACCOMMODATION");
+                booking.setTransportId(null);
+            } else {
+                return ResponseEntity.badRequest().body(Map.of("message", "bookingType must be TRANSPORT or ACCOMMODATION"));
+            }
+        }
+
+        BookingService.ItineraryResult result =
+                bookingService.saveItinerary(req.getTrip(), req.getBookings(), auth.getName(), isAdmin(auth));
+
+        return ResponseEntity.status(HttpStatus.CREATED).body(Map.of(
+                "message", "Itinerary saved",
+                "tripId", result.tripId(),
+                "bookingIds", result.bookingIds()
+        ));
+    }
+
     /** request wrapper */
     public static class SaveTripAndBookingRequest {
         private TripDTO trip;
@@ -171,6 +220,12 @@ public class MainWorkflowController {
         private AccommodationDTO accommodation;   // required if bookingType=ACCOMMODATION
     }
 
+    @Data
+    public static class ItineraryRequest {
+        private TripDTO trip;
+        private List<BookingDTO> bookings;
+    }
+
 
     private boolean isAdmin(Authentication auth) {
         if (auth == null || auth.getAuthorities() == null) return false;
@@ -7,7 +7,6 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import project.planora_travelandbooking_system.model.JwtRefresher;
 import project.planora_travelandbooking_system.model.User;
 import project.planora_travelandbooking_system.security.JwtUtil;
 import project.planora_travelandbooking_system.service.JwtRefreshService;
@@ -42,25 +41,21 @@ public class RefreshRestController {
                     .body(Map.of("message", "Missing refresh token"));
         }
 
-        JwtRefresher stored;
+        // rotating refresh token
+        JwtRefreshService.RotatedToken rotated;
         try {
-            stored = refreshService.validateToken(rawRefresh);
+            rotated = refreshService.rotateToken(rawRefresh, refreshDays);
         } catch (RuntimeException ex) {
-            // invalid / expired / revoked
+            // invalid / expired / revoked / already rotated
             clearRefreshCookie(response);
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("message", ex.getMessage()));
         }
 
-        // rotating refresh token
-        refreshService.revoke(stored);
-        User user = stored.getUser();
-        String newRefresh = refreshService.createToken(user, refreshDays);
-        setRefreshCookie(response, newRefresh, refreshDays);
-
-        String subject = user.getEmail();
+        User user = rotated.user();
+        setRefreshCookie(response, rotated.refreshToken(), refreshDays);
 
-        String newAccessToken = jwtUtil.generateToken(subject);
+        String newAccessToken = jwtUtil.generateToken(user);
 
         log.info("[+]New refresh token issued");
         return ResponseEntity.ok(Map.of("accessToken", newAccessToken));
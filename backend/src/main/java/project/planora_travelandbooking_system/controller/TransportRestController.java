@@ -2,11 +2,16 @@ package project.planora_travelandbooking_system.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import project.planora_travelandbooking_system.dto.CursorSlice;
 import project.planora_travelandbooking_system.dto.TransportDTO;
+import project.planora_travelandbooking_system.dto.TransportSearchCriteria;
 import project.planora_travelandbooking_system.model.Transport;
+import project.planora_travelandbooking_system.service.CatalogVersion;
 import project.planora_travelandbooking_system.service.TransportService;
 import java.util.Arrays;
 import java.util.List;
@@ -17,20 +22,43 @@ import java.util.stream.Collectors;
 public class TransportRestController {
 
     private final TransportService transportService;
+    private final CatalogVersion catalogVersion;
 
     @Autowired
-    public TransportRestController(TransportService transportService) {
+    public TransportRestController(TransportService transportService, CatalogVersion catalogVersion) {
         this.transportService = transportService;
+        this.catalogVersion = catalogVersion;
     }
 
+    // cursor=true (or any "after" token) switches to keyset paging: no page numbers and no totals
+    // answered with 304 before any query while the catalog version matches the client's ETag
     @GetMapping
-    public ResponseEntity<Page<TransportDTO>> getTransports(
+    public ResponseEntity<?> getTransports(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean cursor,
+            @RequestParam(required = false) String after,
+            WebRequest request) {
+        if (catalogVersion.notModified(request, CatalogVersion.Catalog.TRANSPORTS)) {
+            return null;
+        }
+        if (cursor || after != null) {
+            CursorSlice<TransportDTO> slice = transportService.getTransportsAfter(after, size);
+            return ResponseEntity.ok(slice);
+        }
         Page<TransportDTO> transports = transportService.getAllTransports(page, size);
         return ResponseEntity.ok(transports);
     }
 
+    // route search; see TransportService.searchTransports for the filters
+    @GetMapping("/search")
+    public ResponseEntity<Slice<TransportDTO>> searchTransports(
+            TransportSearchCriteria criteria,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.ok(transportService.searchTransports(criteria, page, size));
+    }
+
     @PostMapping("/save")
     public ResponseEntity<String> saveTransport(@RequestBody TransportDTO dto) {
         transportService.saveTransport(dto);
@@ -50,7 +78,10 @@ public class TransportRestController {
     }
 
     @GetMapping("/types")
-    public ResponseEntity<List<String>> getTransportTypes() {
+    public ResponseEntity<List<String>> getTransportTypes(WebRequest request) {
+        if (catalogVersion.notModified(request)) {
+            return null;
+        }
         List<String> types = Arrays.stream(Transport.TransportType.values())
                 .map(Enum::name)
                 .collect(Collectors.toList());
@@ -58,7 +89,10 @@ public class TransportRestController {
     }
 
     @GetMapping("/statuses")
-    public ResponseEntity<List<String>> getStatuses() {
+    public ResponseEntity<List<String>> getStatuses(WebRequest request) {
+        if (catalogVersion.notModified(request)) {
+            return null;
+        }
         List<String> statuses = Arrays.stream(Transport.Status.values())
                 .map(Enum::name)
                 .collect(Collectors.toList());
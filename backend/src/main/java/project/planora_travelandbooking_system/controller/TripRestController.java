@@ -6,6 +6,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import project.planora_travelandbooking_system.dto.CursorSlice;
 import project.planora_travelandbooking_system.dto.TripDTO;
 import project.planora_travelandbooking_system.model.User;
 import project.planora_travelandbooking_system.service.TripService;
@@ -33,13 +34,26 @@ public class TripRestController {
                 .anyMatch(a -> "ROLE_ADMIN".equals(a.getAuthority()) || "ROLE_SUPER_ADMIN".equals(a.getAuthority()));
     }
 
+    // cursor=true (or any "after" token) switches to keyset paging: no page numbers and no totals
     @GetMapping
     public ResponseEntity<Map<String, Object>> getTrips(@RequestParam(defaultValue = "0") int page,
                                                         @RequestParam(defaultValue = "10") int size,
+                                                        @RequestParam(defaultValue = "false") boolean cursor,
+                                                        @RequestParam(required = false) String after,
                                                         Authentication auth) {
         String email = auth.getName();
         boolean admin = isAdmin(auth);
 
+        if (cursor || after != null) {
+            CursorSlice<TripDTO> slice = tripService.getTripsAfter(after, size, email, admin);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("trips", slice.getContent());
+            response.put("nextCursor", slice.getNextCursor());
+            response.put("hasNext", slice.isHasNext());
+            return new ResponseEntity<>(response, HttpStatus.OK);
+        }
+
         System.out.println("Fetching trips for user: " + email + " | Admin: " + admin);
 
         Page<TripDTO> tripPage = admin
@@ -15,6 +15,8 @@ public class AccommodationDTO {
     private LocalDateTime startTime;
     private LocalDateTime endTime;
     private double pricePerNight;
+    // search results with a checkIn only: the total for the searched nights
+    private Double quotedTotal;
     private double rating;
     private Integer room;
     private LocalDateTime createdAt;
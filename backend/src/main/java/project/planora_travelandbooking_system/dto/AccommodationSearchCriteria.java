@@ -0,0 +1,22 @@
+package project.planora_travelandbooking_system.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+@Getter
+@Setter
+public class AccommodationSearchCriteria {
+    private String city;
+    private String accommodationType;
+    private Double minRating;
+    private Double minPrice;
+    private Double maxPrice;
+    // stay nights [checkIn, checkOut); checkOut defaults to one night
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate checkIn;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate checkOut;
+}
@@ -22,6 +22,7 @@ public class BookingDTO {
 
     private LocalDateTime createdAt;
     private Long transportId;
+    private Integer seatNumber;
     private Long accommodationId;
     private double totalPrice;
 }
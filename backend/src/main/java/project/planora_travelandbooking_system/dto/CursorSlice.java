@@ -0,0 +1,18 @@
+package project.planora_travelandbooking_system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * One page of a cursor-mode list. Pass nextCursor back as "after" to get the following page;
+ * there is no total count, hasNext says whether another page exists.
+ */
+@Getter
+@AllArgsConstructor
+public class CursorSlice<T> {
+    private final List<T> content;
+    private final String nextCursor;
+    private final boolean hasNext;
+}
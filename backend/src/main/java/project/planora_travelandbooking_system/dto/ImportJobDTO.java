@@ -0,0 +1,36 @@
+package project.planora_travelandbooking_system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@Setter
+public class ImportJobDTO {
+    private String id;
+    private String catalog;
+    private String format;
+    private String fileName;
+    private String status;
+    private long totalBytes;
+    private long bytesRead;
+    private int percent;
+    private long rowsRead;
+    private long imported;
+    private long failed;
+    private List<RowError> errors;
+    private String message;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+
+    @Getter
+    @AllArgsConstructor
+    public static class RowError {
+        private long line;
+        private String message;
+    }
+}
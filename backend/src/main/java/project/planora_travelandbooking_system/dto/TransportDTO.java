@@ -16,6 +16,9 @@ public class TransportDTO {
     private LocalDateTime arrivalTime;
     private double price;
     private Integer seat;
+    private Integer seatsAvailable;
+    // search results only: what a booking made now would cost
+    private Double quotedPrice;
     private String status;
     private LocalDateTime createdAt;
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package project.planora_travelandbooking_system.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+public class TransportSearchCriteria {
+    private String origin;
+    private String destination;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime departFrom;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime departTo;
+    private String transportType;
+    private String status;
+    private Double maxPrice;
+    // "departure" (default) or "price"
+    private String sort;
+}
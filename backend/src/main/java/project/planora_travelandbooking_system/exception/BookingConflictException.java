@@ -0,0 +1,8 @@
+package project.planora_travelandbooking_system.exception;
+
+public class BookingConflictException extends RuntimeException {
+
+    public BookingConflictException(String message) {
+        super(message);
+    }
+}
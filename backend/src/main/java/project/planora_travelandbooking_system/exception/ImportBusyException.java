@@ -0,0 +1,7 @@
+package project.planora_travelandbooking_system.exception;
+
+public class ImportBusyException extends RuntimeException {
+    public ImportBusyException(String message) {
+        super(message);
+    }
+}
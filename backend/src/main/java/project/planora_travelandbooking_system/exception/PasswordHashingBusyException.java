@@ -0,0 +1,7 @@
+package project.planora_travelandbooking_system.exception;
+
+public class PasswordHashingBusyException extends RuntimeException {
+    public PasswordHashingBusyException(String message) {
+        super(message);
+    }
+}
@@ -1,5 +1,6 @@
 package project.planora_travelandbooking_system.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -9,10 +10,12 @@ import java.time.LocalDateTime;
 @Setter
 @Getter
 @NoArgsConstructor
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Entity
 public class Accommodation {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "accommodation_seq")
+    @SequenceGenerator(name = "accommodation_seq", sequenceName = "accommodation_seq", allocationSize = 50)
     private Long id;
 
     @Enumerated(EnumType.STRING)
@@ -13,7 +13,8 @@ import java.time.LocalDateTime;
 @Entity
 public class Booking {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "booking_seq")
+    @SequenceGenerator(name = "booking_seq", sequenceName = "booking_seq", allocationSize = 50)
     private Long id;
 
     @Enumerated(EnumType.STRING)
@@ -24,18 +25,25 @@ public class Booking {
     @Enumerated(EnumType.STRING)
     private BookingStatus status;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "trip_id")
     private Trip trip;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "transport_id", nullable = true)
     private Transport transport;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "accommodation_id", nullable = true)
     private Accommodation accommodation;
 
+    // 1-based seat on the transport, null when no specific seat was chosen
+    private Integer seatNumber;
+
+    // transport: departure/arrival; accommodation: check-in/check-out day at midnight (end exclusive)
+    private LocalDateTime startDate;
+    private LocalDateTime endDate;
+
     private LocalDateTime createdAt;
 
     public enum BookingType {
@@ -0,0 +1,34 @@
+package project.planora_travelandbooking_system.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row per email that can no longer be registered: every current user email and every
+ * email kept in {@link UserEmailHistory}. Emails are stored trimmed and lower-cased.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "email_reservations")
+public class EmailReservation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true, updatable = false)
+    private String email;
+
+    // plain column, no FK: reservations are released explicitly when the user is hard-deleted
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
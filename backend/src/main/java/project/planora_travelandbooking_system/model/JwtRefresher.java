@@ -11,9 +11,16 @@ import java.time.LocalDateTime;
 @Setter
 @NoArgsConstructor
 @Entity
+@Table(indexes = {
+        // revokeAllActiveByUserId
+        @Index(name = "idx_jwt_refresher_user_revoked", columnList = "user_id, revoked"),
+        // purge of expired rows
+        @Index(name = "idx_jwt_refresher_expires_at", columnList = "expires_at")
+})
 public class JwtRefresher {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "jwt_refresher_seq")
+    @SequenceGenerator(name = "jwt_refresher_seq", sequenceName = "jwt_refresher_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(optional = false, fetch = FetchType.LAZY)
@@ -1,5 +1,7 @@
 package project.planora_travelandbooking_system.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -9,10 +11,12 @@ import java.time.LocalDateTime;
 @Setter
 @Getter
 @NoArgsConstructor
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Entity
 public class Transport {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transport_seq")
+    @SequenceGenerator(name = "transport_seq", sequenceName = "transport_seq", allocationSize = 50)
     private Long id;
 
     @Enumerated(EnumType.STRING)
@@ -23,13 +27,28 @@ public class Transport {
     private String destinationAddress;
     private LocalDateTime departureTime;
     private LocalDateTime arrivalTime;
+    // total seat capacity
     private Integer seat;
+
+    // inventory below is only changed by the atomic updates in TransportRepository
+    @Column(name = "seats_available", updatable = false)
+    private Integer seatsAvailable;
+
+    // one bit per seat, set when the seat is taken by an active booking
+    @JsonIgnore
+    @Column(name = "seat_map", columnDefinition = "bytea", updatable = false)
+    private byte[] seatMap;
+
     private double price;
     private LocalDateTime createdAt;
 
     @Enumerated(EnumType.STRING)
     private Status status;
 
+    public int capacity() {
+        return seat != null && seat > 0 ? seat : 1;
+    }
+
     public enum TransportType {
         FLIGHT, TRAIN, BUS, SHIP
     }
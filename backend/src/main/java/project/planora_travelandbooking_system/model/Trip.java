@@ -1,5 +1,6 @@
 package project.planora_travelandbooking_system.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -9,10 +10,12 @@ import java.time.LocalDateTime;
 @Setter
 @Getter
 @NoArgsConstructor
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Entity
 public class Trip {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "trip_seq")
+    @SequenceGenerator(name = "trip_seq", sequenceName = "trip_seq", allocationSize = 50)
     private Long id;
 
     private String title;
@@ -20,7 +23,7 @@ public class Trip {
     private LocalDateTime startDate;
     private LocalDateTime endDate;
 
-    @ManyToOne(optional = false)
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
     private User user;
 
     private LocalDateTime createdAt;
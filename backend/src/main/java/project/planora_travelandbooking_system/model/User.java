@@ -1,5 +1,7 @@
 package project.planora_travelandbooking_system.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
@@ -12,11 +14,13 @@ import java.time.LocalDateTime;
 @Getter
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Entity
 @Table(name = "users")
 public class User {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
     @Column(unique = true)
@@ -38,6 +42,11 @@ public class User {
 
     private LocalDateTime deletionDate;
 
+    // bumped whenever role, email or deleted flag change; carried in stateless access tokens
+    @JsonIgnore
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private long securityVersion = 0;
+
     public enum Role {
         USER, ADMIN
     }
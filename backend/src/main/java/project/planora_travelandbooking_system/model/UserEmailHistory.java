@@ -17,10 +17,11 @@ import java.time.LocalDateTime;
 public class UserEmailHistory {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_email_history_seq")
+    @SequenceGenerator(name = "user_email_history_seq", sequenceName = "user_email_history_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
@@ -1,10 +1,46 @@
 package project.planora_travelandbooking_system.repository;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import project.planora_travelandbooking_system.model.Accommodation;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @Repository
 public interface AccommodationRepository extends JpaRepository<Accommodation, Long> {
 
-}
\ No newline at end of file
+    // cursor mode: newest first, strictly behind (createdAt, id); no offset and no count query
+    @Query("""
+            select a from Accommodation a
+             where (a.createdAt, a.id) < (:createdAt, :id)
+             order by a.createdAt desc, a.id desc
+            """)
+    List<Accommodation> findBefore(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable limit);
+
+    // booking form lookups: only what the picker shows, prefix match on name or city
+    @Query("""
+            select a.id as id, a.name as name, a.city as city, a.address as address,
+                   a.startTime as startTime, a.endTime as endTime, a.pricePerNight as pricePerNight
+              from Accommodation a
+             where lower(a.name) like :prefix escape '!'
+                or lower(a.city) like :prefix escape '!'
+             order by a.name, a.id
+            """)
+    Slice<AccommodationOption> findOptions(@Param("prefix") String prefix, Pageable pageable);
+
+    interface AccommodationOption {
+        Long getId();
+        String getName();
+        String getCity();
+        String getAddress();
+        LocalDateTime getStartTime();
+        LocalDateTime getEndTime();
+        double getPricePerNight();
+    }
+
+}
@@ -1,12 +1,19 @@
 package project.planora_travelandbooking_system.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import project.planora_travelandbooking_system.model.Booking;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
@@ -32,4 +39,117 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     boolean existsByTransportIdAndStatusNotAndIdNot(Long transportId, Booking.BookingStatus status, Long id);
     boolean existsByAccommodationIdAndStatusNotAndIdNot(Long accommodationId, Booking.BookingStatus status, Long id);
     boolean existsByTripId(Long tripId);
-}
\ No newline at end of file
+    boolean existsByTripIdAndAccommodationIsNotNullAndStatusNot(Long tripId, Booking.BookingStatus status);
+
+    // ACTIVE stay overlapping [start, end): starts before `end` and ends after `start`
+    boolean existsByAccommodationIdAndStatusNotAndStartDateBeforeAndEndDateAfter(
+            Long accommodationId, Booking.BookingStatus status, LocalDateTime end, LocalDateTime start);
+    boolean existsByAccommodationIdAndStatusNotAndStartDateBeforeAndEndDateAfterAndIdNot(
+            Long accommodationId, Booking.BookingStatus status, LocalDateTime end, LocalDateTime start, Long id);
+
+    // list pages: only the columns BookingDTO needs, in one statement
+    @Query(value = """
+    select b.id as id, t.id as tripId, b.bookingType as bookingType, b.status as status,
+           b.startDate as startDate, b.endDate as endDate, b.createdAt as createdAt, b.totalPrice as totalPrice,
+           tr.id as transportId, b.seatNumber as seatNumber, a.id as accommodationId
+      from Booking b
+      left join b.trip t
+      left join b.transport tr
+      left join b.accommodation a
+""", countQuery = "select count(b) from Booking b")
+    Page<BookingListView> findAllListViews(Pageable pageable);
+
+    @Query(value = """
+    select b.id as id, t.id as tripId, b.bookingType as bookingType, b.status as status,
+           b.startDate as startDate, b.endDate as endDate, b.createdAt as createdAt, b.totalPrice as totalPrice,
+           tr.id as transportId, b.seatNumber as seatNumber, a.id as accommodationId
+      from Booking b
+      join b.trip t
+      join t.user u
+      left join b.transport tr
+      left join b.accommodation a
+     where u.email = :email
+""", countQuery = "select count(b) from Booking b join b.trip t join t.user u where u.email = :email")
+    Page<BookingListView> findListViewsByUserEmail(@Param("email") String email, Pageable pageable);
+
+    // cursor mode: newest first, strictly behind (createdAt, id); no offset and no count query
+    @Query("""
+    select b.id as id, t.id as tripId, b.bookingType as bookingType, b.status as status,
+           b.startDate as startDate, b.endDate as endDate, b.createdAt as createdAt, b.totalPrice as totalPrice,
+           tr.id as transportId, b.seatNumber as seatNumber, a.id as accommodationId
+      from Booking b
+      left join b.trip t
+      left join b.transport tr
+      left join b.accommodation a
+     where (b.createdAt, b.id) < (:createdAt, :id)
+     order by b.createdAt desc, b.id desc
+""")
+    List<BookingListView> findListViewsBefore(@Param("createdAt") LocalDateTime createdAt,
+                                              @Param("id") Long id,
+                                              Pageable limit);
+
+    @Query("""
+    select b.id as id, t.id as tripId, b.bookingType as bookingType, b.status as status,
+           b.startDate as startDate, b.endDate as endDate, b.createdAt as createdAt, b.totalPrice as totalPrice,
+           tr.id as transportId, b.seatNumber as seatNumber, a.id as accommodationId
+      from Booking b
+      join b.trip t
+      join t.user u
+      left join b.transport tr
+      left join b.accommodation a
+     where u.email = :email
+       and (b.createdAt, b.id) < (:createdAt, :id)
+     order by b.createdAt desc, b.id desc
+""")
+    List<BookingListView> findListViewsByUserEmailBefore(@Param("email") String email,
+                                                         @Param("createdAt") LocalDateTime createdAt,
+                                                         @Param("id") Long id,
+                                                         Pageable limit);
+
+    // export: forward-only cursor over scalar rows, 500 per fetch; the caller holds the transaction and closes the stream
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+    select b.id as id, t.id as tripId, b.bookingType as bookingType, b.status as status,
+           b.startDate as startDate, b.endDate as endDate, b.createdAt as createdAt, b.totalPrice as totalPrice,
+           tr.id as transportId, b.seatNumber as seatNumber, a.id as accommodationId
+      from Booking b
+      left join b.trip t
+      left join b.transport tr
+      left join b.accommodation a
+     where b.createdAt >= :from and b.createdAt < :to
+     order by b.createdAt, b.id
+""")
+    Stream<BookingListView> streamListViews(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    interface BookingListView {
+        Long getId();
+        Long getTripId();
+        Booking.BookingType getBookingType();
+        Booking.BookingStatus getStatus();
+        LocalDateTime getStartDate();
+        LocalDateTime getEndDate();
+        LocalDateTime getCreatedAt();
+        double getTotalPrice();
+        Long getTransportId();
+        Integer getSeatNumber();
+        Long getAccommodationId();
+    }
+
+    @Query("""
+    select b.id as id, b.accommodation.id as accommodationId, b.startDate as startDate, b.endDate as endDate
+      from Booking b
+     where b.status <> :cancelled
+       and b.accommodation is not null
+""")
+    List<ActiveStayView> findActiveStays(@Param("cancelled") Booking.BookingStatus cancelled);
+
+    interface ActiveStayView {
+        Long getId();
+        Long getAccommodationId();
+        LocalDateTime getStartDate();
+        LocalDateTime getEndDate();
+    }
+}
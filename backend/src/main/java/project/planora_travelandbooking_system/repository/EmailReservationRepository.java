@@ -0,0 +1,64 @@
+package project.planora_travelandbooking_system.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import project.planora_travelandbooking_system.model.EmailReservation;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.stream.Stream;
+
+@Repository
+public interface EmailReservationRepository extends JpaRepository<EmailReservation, Long> {
+
+    boolean existsByEmail(String normalizedEmail);
+
+    // must be consumed inside a transaction
+    @Query("select r.email from EmailReservation r")
+    Stream<String> streamAllEmails();
+
+    /**
+     * Claims the email for the user; returns 0 when it is already reserved.
+     * Joins the caller's transaction, so a lost race rolls the whole change back.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+    insert into email_reservations (email, user_id, created_at)
+    values (:email, :userId, :now)
+    on conflict (email) do nothing
+""", nativeQuery = true)
+    int reserve(@Param("email") String normalizedEmail,
+                @Param("userId") Long userId,
+                @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query(value = """
+    insert into email_reservations (email, user_id, created_at)
+    select lower(trim(u.email)), u.id, now()
+      from users u
+     where u.email is not null
+    on conflict (email) do nothing
+""", nativeQuery = true)
+    int backfillFromUsers();
+
+    @Transactional
+    @Modifying
+    @Query(value = """
+    insert into email_reservations (email, user_id, created_at)
+    select lower(trim(h.email)), h.user_id, h.created_at
+      from user_email_history h
+    on conflict (email) do nothing
+""", nativeQuery = true)
+    int backfillFromEmailHistory();
+
+    @Transactional
+    @Modifying
+    @Query("delete from EmailReservation r where r.userId in :userIds")
+    int deleteByUserIdIn(@Param("userIds") Collection<Long> userIds);
+}
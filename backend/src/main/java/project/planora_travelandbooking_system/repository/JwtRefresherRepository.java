@@ -8,7 +8,10 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import project.planora_travelandbooking_system.model.JwtRefresher;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface JwtRefresherRepository extends JpaRepository<JwtRefresher, Long> {
@@ -17,6 +20,12 @@ public interface JwtRefresherRepository extends JpaRepository<JwtRefresher, Long
 
     Void deleteByUser_Id(Long userId);
 
+    long countByRevokedFalseAndExpiresAtAfter(LocalDateTime now);
+
+    // must be consumed inside a transaction
+    @Query("select r.tokenHash from JwtRefresher r where r.revoked = false and r.expiresAt > :now")
+    Stream<String> streamActiveTokenHashes(@Param("now") LocalDateTime now);
+
     @Transactional
     @Modifying
     @Query("""
@@ -33,4 +42,81 @@ public interface JwtRefresherRepository extends JpaRepository<JwtRefresher, Long
     delete from JwtRefresher r where r.user.id = :userId
 """)
     void deleteAllTokensByUserId(@Param("userId") Long userId);
+
+    /**
+     * Revokes the active token and returns what a new access token needs about its owner, so a
+     * rotation is this statement plus the insert of the replacement. Row locking makes this a
+     * compare-and-set: of two concurrent rotations of the same token only one sees
+     * {@code revoked = false}, the other gets an empty result. The row stays locked until the
+     * caller's transaction ends.
+     */
+    @Transactional
+    @Query(value = """
+    update jwt_refresher r
+       set revoked = true,
+           last_used_at = :now
+      from users u
+     where r.token_hash = :tokenHash
+       and r.revoked = false
+       and r.expires_at > :now
+       and u.id = r.user_id
+    returning u.id as "id", u.email as "email", u.role as "role",
+              u.super_admin as "superAdmin", u.security_version as "securityVersion"
+""", nativeQuery = true)
+    Optional<TokenOwnerView> revokeActiveToken(@Param("tokenHash") String tokenHash,
+                                               @Param("now") LocalDateTime now);
+
+    interface TokenOwnerView {
+        Long getId();
+        String getEmail();
+        String getRole();
+        boolean isSuperAdmin();
+        long getSecurityVersion();
+    }
+
+    @Transactional
+    @Modifying
+    @Query("""
+    update JwtRefresher r
+       set r.lastUsedAt = :usedAt
+     where r.id in :ids
+       and (r.lastUsedAt is null or r.lastUsedAt < :usedAt)
+""")
+    int touchLastUsed(@Param("ids") Collection<Long> ids, @Param("usedAt") LocalDateTime usedAt);
+
+    /**
+     * Deletes at most {@code batchSize} rows that expired before {@code cutoff}, found through
+     * idx_jwt_refresher_expires_at. Kept small so each call is a short transaction that doesn't
+     * hold locks for long.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+    delete from jwt_refresher
+     where id in (
+        select id
+          from jwt_refresher
+         where expires_at < :cutoff
+         limit :batchSize
+    )
+""", nativeQuery = true)
+    int purgeExpiredBatch(@Param("cutoff") LocalDateTime cutoff, @Param("batchSize") int batchSize);
+
+    /**
+     * Deletes at most {@code batchSize} tokens that were revoked and last used (or created) before
+     * {@code cutoff}, found through the partial index DatabaseSchemaInitializer creates for it.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+    delete from jwt_refresher
+     where id in (
+        select id
+          from jwt_refresher
+         where revoked
+           and coalesce(last_used_at, created_at) < :cutoff
+         limit :batchSize
+    )
+""", nativeQuery = true)
+    int purgeRevokedBatch(@Param("cutoff") LocalDateTime cutoff, @Param("batchSize") int batchSize);
 }
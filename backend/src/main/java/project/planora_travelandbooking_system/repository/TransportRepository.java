@@ -3,12 +3,128 @@ package project.planora_travelandbooking_system.repository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import project.planora_travelandbooking_system.model.Transport;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
 @Repository
-public interface TransportRepository extends JpaRepository<Transport, Long>{
+public interface TransportRepository extends JpaRepository<Transport, Long>, JpaSpecificationExecutor<Transport>,
+        TransportSearchRepository {
 
     Page<Transport> findAll(Pageable pageable);
 
-}
\ No newline at end of file
+    // cursor mode: newest first, strictly behind (createdAt, id); no offset and no count query
+    @Query("""
+            select t from Transport t
+             where (t.createdAt, t.id) < (:createdAt, :id)
+             order by t.createdAt desc, t.id desc
+            """)
+    List<Transport> findBefore(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable limit);
+
+    // booking form lookups: only what the picker shows, prefix match on company, origin or destination
+    @Query("""
+            select t.id as id, t.company as company, t.originAddress as originAddress,
+                   t.destinationAddress as destinationAddress, t.departureTime as departureTime,
+                   t.arrivalTime as arrivalTime, t.price as price, t.seatsAvailable as seatsAvailable
+              from Transport t
+             where (lower(t.company) like :prefix escape '!'
+                    or lower(t.originAddress) like :prefix escape '!'
+                    or lower(t.destinationAddress) like :prefix escape '!')
+               and (:availableOnly = false or t.seatsAvailable > 0)
+             order by t.departureTime, t.id
+            """)
+    List<TransportOption> findOptions(@Param("prefix") String prefix,
+                                      @Param("availableOnly") boolean availableOnly,
+                                      Pageable limit);
+
+    interface TransportOption {
+        Long getId();
+        String getCompany();
+        String getOriginAddress();
+        String getDestinationAddress();
+        LocalDateTime getDepartureTime();
+        LocalDateTime getArrivalTime();
+        double getPrice();
+        Integer getSeatsAvailable();
+    }
+
+    // current seat counters for occupancy pricing; read separately because the catalog cache never holds them
+    @Query("select t.id as id, t.seatsAvailable as seatsAvailable from Transport t where t.id in :ids")
+    List<SeatsView> findSeatsAvailable(@Param("ids") Collection<Long> ids);
+
+    interface SeatsView {
+        Long getId();
+        Integer getSeatsAvailable();
+    }
+
+    // Seat inventory is only changed through these single-statement conditional updates, so
+    // concurrent bookings never lose an update and the row lock lasts one statement + commit.
+    // Each returns the number of rows changed: 0 means the seat (or any seat) was not available.
+
+    @Modifying
+    @Query(value = """
+            update transport
+               set seats_available = seats_available - 1
+             where id = :id
+               and seats_available > 0
+            """, nativeQuery = true)
+    int takeAnySeat(@Param("id") Long id);
+
+    @Modifying
+    @Query(value = """
+            update transport
+               set seats_available = seats_available - 1,
+                   seat_map = set_bit(seat_map, :bit, 1)
+             where id = :id
+               and seats_available > 0
+               and get_bit(seat_map, :bit) = 0
+            """, nativeQuery = true)
+    int takeSeat(@Param("id") Long id, @Param("bit") int bit);
+
+    @Modifying
+    @Query(value = """
+            update transport
+               set seats_available = least(seats_available + 1, coalesce(seat, 1))
+             where id = :id
+            """, nativeQuery = true)
+    int releaseAnySeat(@Param("id") Long id);
+
+    @Modifying
+    @Query(value = """
+            update transport
+               set seats_available = least(seats_available + 1, coalesce(seat, 1)),
+                   seat_map = set_bit(seat_map, :bit, 0)
+             where id = :id
+               and get_bit(seat_map, :bit) = 1
+            """, nativeQuery = true)
+    int releaseSeat(@Param("id") Long id, @Param("bit") int bit);
+
+    // grows the seat map when needed; refuses to shrink below the seats already taken or past any taken seat
+    @Modifying
+    @Query(value = """
+            update transport
+               set seats_available = seats_available + (:capacity - coalesce(seat, 1)),
+                   seat = :capacity,
+                   seat_map = case
+                       when length(seat_map) < (:capacity + 7) / 8
+                       then seat_map || decode(repeat('00', (:capacity + 7) / 8 - length(seat_map)), 'hex')
+                       else seat_map
+                   end
+             where id = :id
+               and seats_available + (:capacity - coalesce(seat, 1)) >= 0
+               and not exists (
+                   select 1
+                     from generate_series(:capacity, coalesce(length(seat_map), 0) * 8 - 1) b
+                    where get_bit(seat_map, b) = 1
+               )
+            """, nativeQuery = true)
+    int resizeCapacity(@Param("id") Long id, @Param("capacity") int capacity);
+
+}
@@ -0,0 +1,12 @@
+package project.planora_travelandbooking_system.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import project.planora_travelandbooking_system.model.Transport;
+
+public interface TransportSearchRepository {
+
+    // one select of size + 1 rows and no count query, unlike findAll(spec, pageable)
+    Slice<Transport> findSlice(Specification<Transport> specification, Pageable pageable);
+}
@@ -0,0 +1,41 @@
+package project.planora_travelandbooking_system.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import project.planora_travelandbooking_system.model.Transport;
+
+import java.util.List;
+
+class TransportSearchRepositoryImpl implements TransportSearchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Slice<Transport> findSlice(Specification<Transport> specification, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Transport> query = cb.createQuery(Transport.class);
+        Root<Transport> root = query.from(Transport.class);
+
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) query.where(predicate);
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+        List<Transport> rows = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+    }
+}
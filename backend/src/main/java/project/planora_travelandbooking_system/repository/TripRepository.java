@@ -1,14 +1,22 @@
 package project.planora_travelandbooking_system.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import project.planora_travelandbooking_system.model.Trip;
 import project.planora_travelandbooking_system.model.User;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface TripRepository extends JpaRepository<Trip, Long> {
@@ -18,4 +26,96 @@ public interface TripRepository extends JpaRepository<Trip, Long> {
     Page<Trip> findByUserEmail(String email, Pageable pageable);
 
     Page<Trip> findByUser(User user, PageRequest pageRequest);
+
+    @Query("select t from Trip t left join fetch t.user where t.id = :id")
+    Optional<Trip> findWithUserById(@Param("id") Long id);
+
+    // list pages: only the columns TripDTO needs, in one statement
+    @Query(value = """
+    select t.id as id, t.title as title, t.description as description, t.startDate as startDate,
+           t.endDate as endDate, u.id as userId, t.createdAt as createdAt
+      from Trip t
+      join t.user u
+""", countQuery = "select count(t) from Trip t")
+    Page<TripListView> findAllListViews(Pageable pageable);
+
+    @Query(value = """
+    select t.id as id, t.title as title, t.description as description, t.startDate as startDate,
+           t.endDate as endDate, u.id as userId, t.createdAt as createdAt
+      from Trip t
+      join t.user u
+     where u.email = :email
+""", countQuery = "select count(t) from Trip t join t.user u where u.email = :email")
+    Page<TripListView> findListViewsByUserEmail(@Param("email") String email, Pageable pageable);
+
+    // cursor mode: newest first, strictly behind (createdAt, id); no offset and no count query
+    @Query("""
+    select t.id as id, t.title as title, t.description as description, t.startDate as startDate,
+           t.endDate as endDate, u.id as userId, t.createdAt as createdAt
+      from Trip t
+      join t.user u
+     where (t.createdAt, t.id) < (:createdAt, :id)
+     order by t.createdAt desc, t.id desc
+""")
+    List<TripListView> findListViewsBefore(@Param("createdAt") LocalDateTime createdAt,
+                                           @Param("id") Long id,
+                                           Pageable limit);
+
+    @Query("""
+    select t.id as id, t.title as title, t.description as description, t.startDate as startDate,
+           t.endDate as endDate, u.id as userId, t.createdAt as createdAt
+      from Trip t
+      join t.user u
+     where u.email = :email
+       and (t.createdAt, t.id) < (:createdAt, :id)
+     order by t.createdAt desc, t.id desc
+""")
+    List<TripListView> findListViewsByUserEmailBefore(@Param("email") String email,
+                                                      @Param("createdAt") LocalDateTime createdAt,
+                                                      @Param("id") Long id,
+                                                      Pageable limit);
+
+    // booking form lookups: id and title only, prefix match on the lowercased title
+    @Query("select t.id as id, t.title as title from Trip t where lower(t.title) like :prefix escape '!' order by t.title, t.id")
+    List<TripOption> findOptions(@Param("prefix") String prefix, Pageable limit);
+
+    @Query("""
+    select t.id as id, t.title as title
+      from Trip t
+      join t.user u
+     where u.email = :email
+       and lower(t.title) like :prefix escape '!'
+     order by t.title, t.id
+""")
+    List<TripOption> findOptionsByUserEmail(@Param("email") String email, @Param("prefix") String prefix, Pageable limit);
+
+    // export: forward-only cursor over scalar rows, see BookingRepository.streamListViews
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+    select t.id as id, t.title as title, t.description as description, t.startDate as startDate,
+           t.endDate as endDate, u.id as userId, t.createdAt as createdAt
+      from Trip t
+      join t.user u
+     where t.createdAt >= :from and t.createdAt < :to
+     order by t.createdAt, t.id
+""")
+    Stream<TripListView> streamListViews(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    interface TripOption {
+        Long getId();
+        String getTitle();
+    }
+
+    interface TripListView {
+        Long getId();
+        String getTitle();
+        String getDescription();
+        LocalDateTime getStartDate();
+        LocalDateTime getEndDate();
+        Long getUserId();
+        LocalDateTime getCreatedAt();
+    }
 }
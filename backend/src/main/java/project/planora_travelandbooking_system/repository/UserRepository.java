@@ -1,12 +1,20 @@
 package project.planora_travelandbooking_system.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.stereotype.Repository;
 import project.planora_travelandbooking_system.model.User;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificationExecutor<User> {
@@ -19,4 +27,46 @@ public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificat
 
     List<User> findAllByDeletedTrueAndDeletionDateBefore(LocalDateTime cutoff);
 
+    @Query("select u.id as id, u.securityVersion as securityVersion from User u where u.securityVersion > 0")
+    List<SecurityVersionView> findBumpedSecurityVersions();
+
+    @Query("select u.securityVersion from User u where u.id = :id")
+    Optional<Long> findSecurityVersionById(@Param("id") Long id);
+
+    // only replaces the hash it was computed from, so a concurrent password change wins
+    @Transactional
+    @Modifying
+    @Query("update User u set u.password = :newHash where u.id = :id and u.password = :oldHash")
+    int updatePasswordIfUnchanged(@Param("id") Long id,
+                                  @Param("oldHash") String oldHash,
+                                  @Param("newHash") String newHash);
+
+    // export: every user without the password hash, see BookingRepository.streamListViews
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+    select u.id as id, u.email as email, u.role as role, u.superAdmin as superAdmin,
+           u.createdAt as createdAt, u.deleted as deleted, u.deletionDate as deletionDate
+      from User u
+     order by u.id
+""")
+    Stream<UserExportView> streamExportViews();
+
+    interface UserExportView {
+        Long getId();
+        String getEmail();
+        User.Role getRole();
+        boolean isSuperAdmin();
+        LocalDateTime getCreatedAt();
+        boolean isDeleted();
+        LocalDateTime getDeletionDate();
+    }
+
+    interface SecurityVersionView {
+        Long getId();
+        long getSecurityVersion();
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,35 @@
+package project.planora_travelandbooking_system.security;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Runs every encode/matches of the wrapped encoder on the {@link PasswordHashingExecutor}.
+ * Registered as the application PasswordEncoder, so login, signup, profile updates and
+ * account restore all share the same bounded pool.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final PasswordHashingExecutor executor;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, PasswordHashingExecutor executor) {
+        this.delegate = delegate;
+        this.executor = executor;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return executor.execute(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return executor.execute(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    // no hashing involved, stays on the caller's thread
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
@@ -0,0 +1,63 @@
+package project.planora_travelandbooking_system.security;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe Bloom filter over hex-encoded SHA-256 digests (see {@link TokenHashUtil}).
+ * The digest is already uniformly distributed, so its first 128 bits are used directly
+ * as the two base hashes instead of hashing the key again.
+ */
+public class DigestBloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+
+    public DigestBloomFilter(long expectedInsertions, double falsePositiveRate) {
+        long n = Math.max(1, expectedInsertions);
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int wordCount = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (m + 63) / 64));
+
+        this.words = new AtomicLongArray(wordCount);
+        this.bitCount = (long) wordCount * 64;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+    }
+
+    public void put(String hexDigest) {
+        long h1 = Long.parseUnsignedLong(hexDigest, 0, 16, 16);
+        long h2 = Long.parseUnsignedLong(hexDigest, 16, 32, 16);
+
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+
+            long current;
+            do {
+                current = words.get(word);
+                if ((current & mask) != 0) break;
+            } while (!words.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    public boolean mightContain(String hexDigest) {
+        long h1 = Long.parseUnsignedLong(hexDigest, 0, 16, 16);
+        long h2 = Long.parseUnsignedLong(hexDigest, 16, 32, 16);
+
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long getBitCount() {
+        return bitCount;
+    }
+
+    public int getHashCount() {
+        return hashCount;
+    }
+}
@@ -4,8 +4,10 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
@@ -19,11 +21,14 @@ public class JwtFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
     private final DbUserDetailService userDetailsService;
+    private final SecurityVersionRegistry securityVersions;
 
     public JwtFilter(JwtUtil jwtUtil,
-                                   DbUserDetailService userDetailsService) {
+                                   DbUserDetailService userDetailsService,
+                                   SecurityVersionRegistry securityVersions) {
         this.jwtUtil = jwtUtil;
         this.userDetailsService = userDetailsService;
+        this.securityVersions = securityVersions;
     }
 
     @Override
@@ -55,13 +60,13 @@ public class JwtFilter extends OncePerRequestFilter {
             String token = authHeader.substring(7);
 
             try {
-                String email = jwtUtil.extractEmail(token);
+                JwtUtil.VerifiedToken verified = jwtUtil.verify(token);
+                String email = verified.subject();
 
                 if (email != null &&
                         SecurityContextHolder.getContext().getAuthentication() == null) {
 
-                    UserDetails userDetails =
-                            userDetailsService.loadUserByUsername(email);
+                    UserDetails userDetails = resolveUser(verified);
 
                     UsernamePasswordAuthenticationToken authentication =
                             new UsernamePasswordAuthenticationToken(
@@ -86,4 +91,20 @@ public class JwtFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private UserDetails resolveUser(JwtUtil.VerifiedToken verified) {
+        if (!jwtUtil.isStatelessEnabled() || !verified.hasAuthorityClaims()) {
+            return userDetailsService.loadUserByUsername(verified.subject());
+        }
+
+        // stateless: role comes from the token, revocation from the version table
+        if (!securityVersions.isCurrent(verified.userId(), verified.securityVersion())) {
+            throw new BadCredentialsException("Token security version is outdated");
+        }
+
+        return User.withUsername(verified.subject())
+                .password("")
+                .roles(verified.role())
+                .build();
+    }
+
 }
@@ -1,15 +1,21 @@
 package project.planora_travelandbooking_system.security;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
 import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import project.planora_travelandbooking_system.model.User;
+import project.planora_travelandbooking_system.service.ClockCache;
 
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
 import java.util.Date;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Component
 public class JwtUtil {
@@ -22,11 +28,31 @@ public class JwtUtil {
     @Value("${planora.jwt.secret}")
     private String secret;
 
+    // max number of verified access tokens kept in memory
+    @Value("${planora.jwt.cache.max-size:10000}")
+    private int cacheMaxSize;
+
+    // opt-in: access tokens carry role and security version so JwtFilter can skip the users lookup
+    @Value("${planora.jwt.stateless:false}")
+    private boolean statelessEnabled;
+
     private Key key;
 
+    // built once, JwtParser is immutable and thread-safe
+    private JwtParser parser;
+
+    // sha256(token) -> already verified token, dropped once "exp" passes; a full cache evicts a
+    // token that was not read since the clock hand last passed it, hits take no lock
+    private final ClockCache<String, VerifiedToken> verifiedTokens = new ClockCache<>(() -> cacheMaxSize);
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong cacheMisses = new AtomicLong();
+
     @PostConstruct
     public void init() {
         this.key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build();
     }
 
     //private final Key key = Keys.hmacShaKeyFor(SECRET_KEY.getBytes(StandardCharsets.UTF_8));
@@ -40,12 +66,103 @@ public class JwtUtil {
                 .compact();
     }
 
+    public String generateToken(User user) {
+        if (!statelessEnabled) {
+            return generateToken(user.getEmail());
+        }
+
+        String role = user.isSuperAdmin() ? "SUPER_ADMIN" : user.getRole().name();
+
+        return Jwts.builder()
+                .setSubject(user.getEmail())
+                .claim("uid", user.getId())
+                .claim("role", role)
+                .claim("superAdmin", user.isSuperAdmin())
+                .claim("ver", user.getSecurityVersion())
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + 1000L * 60 * 15)) // 15 minutes
+                .signWith(key, SignatureAlgorithm.HS512)
+                .compact();
+    }
+
+    public boolean isStatelessEnabled() {
+        return statelessEnabled;
+    }
+
     public String extractEmail(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+        return verify(token).subject();
+    }
+
+    /**
+     * Returns the verified token, checking the signature only the first time a token is seen.
+     * Invalid or expired tokens throw exactly like the parser does and are never cached.
+     */
+    public VerifiedToken verify(String token) {
+        String digest = TokenHashUtil.sha256(token);
+        long now = System.currentTimeMillis();
+
+        VerifiedToken cached = verifiedTokens.get(digest);
+        if (cached != null) {
+            if (cached.expiresAtMillis() > now) {
+                cacheHits.incrementAndGet();
+                return cached;
+            }
+            verifiedTokens.remove(digest, cached);
+        }
+
+        cacheMisses.incrementAndGet();
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        VerifiedToken verified = toVerifiedToken(claims);
+
+        // tokens without "exp" are valid forever, don't keep them around
+        if (claims.getExpiration() != null) {
+            verifiedTokens.put(digest, verified);
+        }
+        return verified;
+    }
+
+    @Scheduled(fixedDelayString = "${planora.jwt.cache.evict-interval-ms:60000}")
+    public void evictExpiredTokens() {
+        long now = System.currentTimeMillis();
+        verifiedTokens.removeIf(t -> t.expiresAtMillis() <= now);
+    }
+
+    public long getCacheHits() {
+        return cacheHits.get();
+    }
+
+    public long getCacheMisses() {
+        return cacheMisses.get();
+    }
+
+    public int getCacheSize() {
+        return verifiedTokens.size();
+    }
+
+    private VerifiedToken toVerifiedToken(Claims claims) {
+        long expiresAt = claims.getExpiration() != null
+                ? claims.getExpiration().getTime()
+                : Long.MAX_VALUE;
+        return new VerifiedToken(
+                claims.getSubject(),
+                expiresAt,
+                claims.get("uid", Long.class),
+                claims.get("role", String.class),
+                Boolean.TRUE.equals(claims.get("superAdmin", Boolean.class)),
+                claims.get("ver", Long.class)
+        );
+    }
+
+    public record VerifiedToken(String subject,
+                                long expiresAtMillis,
+                                Long userId,
+                                String role,
+                                boolean superAdmin,
+                                Long securityVersion) {
+
+        // tokens minted before stateless mode was switched on only carry the subject
+        public boolean hasAuthorityClaims() {
+            return userId != null && role != null && securityVersion != null;
+        }
     }
 }
@@ -0,0 +1,89 @@
+package project.planora_travelandbooking_system.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Target password hashing profile. New hashes are written as "{id}hash" with the configured
+ * algorithm; hashes without a prefix (everything stored before this) are read as BCrypt.
+ * A BCrypt strength of 0 means "calibrate": pick the highest strength whose encode time on
+ * this machine fits the latency budget.
+ */
+@Slf4j
+@Component
+public class PasswordEncoderProfile {
+
+    private static final int MIN_BCRYPT_STRENGTH = 10;
+    private static final int MAX_BCRYPT_STRENGTH = 16;
+
+    // "bcrypt" or "pbkdf2"
+    @Value("${planora.security.password.algorithm:bcrypt}")
+    private String algorithm;
+
+    @Value("${planora.security.password.bcrypt-strength:0}")
+    private int bcryptStrength;
+
+    @Value("${planora.security.password.latency-budget-ms:250}")
+    private long latencyBudgetMillis;
+
+    @Value("${planora.security.password.pbkdf2-iterations:310000}")
+    private int pbkdf2Iterations;
+
+    public PasswordEncoder createEncoder() {
+        if (bcryptStrength <= 0) {
+            bcryptStrength = calibrateBcryptStrength();
+        }
+
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+        encoders.put("bcrypt", bcrypt);
+        encoders.put("pbkdf2", new Pbkdf2PasswordEncoder(
+                "", 16, pbkdf2Iterations, Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256));
+
+        if (!encoders.containsKey(algorithm)) {
+            throw new IllegalStateException("Unknown password algorithm: " + algorithm);
+        }
+
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(algorithm, encoders);
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+
+        log.info("Password hashing profile: algorithm={}, bcryptStrength={}", algorithm, bcryptStrength);
+        return encoder;
+    }
+
+    // each BCrypt strength step doubles the cost, so one timed run at the minimum is enough
+    private int calibrateBcryptStrength() {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(MIN_BCRYPT_STRENGTH);
+        probe.encode("calibration"); // warm-up
+
+        long start = System.nanoTime();
+        probe.encode("calibration");
+        double baseMillis = Math.max(0.1, (System.nanoTime() - start) / 1_000_000.0);
+
+        int strength = MIN_BCRYPT_STRENGTH;
+        while (strength < MAX_BCRYPT_STRENGTH
+                && baseMillis * (1L << (strength + 1 - MIN_BCRYPT_STRENGTH)) <= latencyBudgetMillis) {
+            strength++;
+        }
+
+        log.info("Calibrated BCrypt strength {} ({} ms at strength {}, budget {} ms)",
+                strength, String.format("%.1f", baseMillis), MIN_BCRYPT_STRENGTH, latencyBudgetMillis);
+        return strength;
+    }
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    public int getBcryptStrength() {
+        return bcryptStrength;
+    }
+}
@@ -0,0 +1,185 @@
+package project.planora_travelandbooking_system.security;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import project.planora_travelandbooking_system.exception.PasswordHashingBusyException;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Small dedicated pool for password hashing, so a login burst cannot occupy every request
+ * thread with BCrypt. When the pool and its queue are full, or a task waits longer than the
+ * timeout, callers get {@link PasswordHashingBusyException} instead of queueing indefinitely.
+ * Background hashing only gets in while the queue is nearly empty, so it never holds more than a
+ * few of the slots and workers that logins need.
+ */
+@Component
+public class PasswordHashingExecutor {
+
+    // 0 = half the available processors
+    @Value("${planora.security.hashing.threads:0}")
+    private int threads;
+
+    @Value("${planora.security.hashing.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${planora.security.hashing.timeout-ms:5000}")
+    private long timeoutMillis;
+
+    // background tasks are accepted only while the queue is shorter than this and fewer than this
+    // many of them are queued or running
+    @Value("${planora.security.hashing.background-limit:2}")
+    private int backgroundLimit;
+
+    private ThreadPoolExecutor pool;
+
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicInteger backgroundPending = new AtomicInteger();
+    private final AtomicLong totalHashNanos = new AtomicLong();
+    private final AtomicLong maxHashNanos = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        int size = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger counter = new AtomicInteger();
+
+        this.pool = new ThreadPoolExecutor(
+                size, size,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new HashingThread(r, "password-hash-" + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    public <T> T execute(Supplier<T> task) {
+        // already on a hashing thread (e.g. a wrapped encoder calling another one): don't queue behind ourselves
+        if (Thread.currentThread() instanceof HashingThread) {
+            return timed(task);
+        }
+
+        Future<T> future;
+        try {
+            future = pool.submit(() -> timed(task));
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            throw new PasswordHashingBusyException("Server is busy, please try again shortly");
+        }
+
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.incrementAndGet();
+            throw new PasswordHashingBusyException("Server is busy, please try again shortly");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingBusyException("Password hashing interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            if (e.getCause() instanceof Error err) throw err;
+            throw new RuntimeException("Password hashing failed", e.getCause());
+        }
+    }
+
+    /**
+     * Background hashing (e.g. rehashing). The returned future completes on a hashing thread, so
+     * anything other than hashing, database writes in particular, belongs in an async stage on
+     * another executor. When the pool is busy the future fails with
+     * {@link PasswordHashingBusyException} right away and nothing runs.
+     */
+    public <T> CompletableFuture<T> submitBackground(Supplier<T> task) {
+        if (pool.getQueue().size() >= backgroundLimit) {
+            return rejectBackground();
+        }
+        if (backgroundPending.incrementAndGet() > backgroundLimit) {
+            backgroundPending.decrementAndGet();
+            return rejectBackground();
+        }
+
+        CompletableFuture<T> result = new CompletableFuture<>();
+        try {
+            // hashing inside the task runs inline through execute() and is timed there
+            pool.execute(() -> {
+                try {
+                    result.complete(task.get());
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                } finally {
+                    backgroundPending.decrementAndGet();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            backgroundPending.decrementAndGet();
+            return rejectBackground();
+        }
+        return result;
+    }
+
+    private <T> CompletableFuture<T> rejectBackground() {
+        rejected.incrementAndGet();
+        return CompletableFuture.failedFuture(new PasswordHashingBusyException("Password hashing pool is busy"));
+    }
+
+    private <T> T timed(Supplier<T> task) {
+        long start = System.nanoTime();
+        try {
+            return task.get();
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            completed.incrementAndGet();
+            totalHashNanos.addAndGet(elapsed);
+            maxHashNanos.accumulateAndGet(elapsed, Math::max);
+        }
+    }
+
+    public int getQueueDepth() {
+        return pool.getQueue().size();
+    }
+
+    public int getActiveThreads() {
+        return pool.getActiveCount();
+    }
+
+    public int getPoolSize() {
+        return pool.getMaximumPoolSize();
+    }
+
+    public long getCompleted() {
+        return completed.get();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    public double getAverageHashMillis() {
+        long count = completed.get();
+        return count == 0 ? 0 : totalHashNanos.get() / 1_000_000.0 / count;
+    }
+
+    public double getMaxHashMillis() {
+        return maxHashNanos.get() / 1_000_000.0;
+    }
+
+    private static final class HashingThread extends Thread {
+        HashingThread(Runnable r, String name) {
+            super(r, name);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package project.planora_travelandbooking_system.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import project.planora_travelandbooking_system.repository.JwtRefresherRepository;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Bloom filter of active refresh token hashes. A hash that is definitely absent belongs to no
+ * active token, so the caller can reject it without a database lookup. Revoked tokens stay in the
+ * filter until the next compaction and simply fall through to the database.
+ * <p>
+ * Tokens are only added by this instance, so a token issued by another instance would be rejected.
+ * The filter is therefore off unless planora.refresh.bloom.enabled is set, which is only safe
+ * when a single instance uses the database.
+ */
+@Slf4j
+@Component
+public class RefreshTokenBloomFilter {
+
+    private final JwtRefresherRepository repo;
+
+    @Value("${planora.refresh.bloom.enabled:false}")
+    private boolean enabled;
+
+    // the filter is sized for this many times the active tokens found at build time
+    @Value("${planora.refresh.bloom.headroom:2}")
+    private int headroom;
+
+    @Value("${planora.refresh.bloom.min-capacity:100000}")
+    private long minCapacity;
+
+    @Value("${planora.refresh.bloom.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    // how long the replaced filter is still consulted, covering tokens added but not yet committed during a rebuild
+    @Value("${planora.refresh.bloom.swap-grace-ms:60000}")
+    private long swapGraceMillis;
+
+    private volatile DigestBloomFilter current;
+    // filter being rebuilt, receives new hashes as well so none are lost on swap
+    private volatile DigestBloomFilter building;
+    private volatile DigestBloomFilter previous;
+    private volatile long previousUntilMillis;
+
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong passed = new AtomicLong();
+    private volatile long lastBuildSize;
+
+    public RefreshTokenBloomFilter(JwtRefresherRepository repo) {
+        this.repo = repo;
+    }
+
+    @Transactional(readOnly = true)
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        rebuild();
+    }
+
+    // drops revoked and expired hashes that accumulated since the last build
+    @Transactional(readOnly = true)
+    @Scheduled(fixedDelayString = "${planora.refresh.bloom.compact-interval-ms:3600000}",
+            initialDelayString = "${planora.refresh.bloom.compact-interval-ms:3600000}")
+    public void compact() {
+        rebuild();
+    }
+
+    public void add(String tokenHash) {
+        DigestBloomFilter f = current;
+        if (f != null) f.put(tokenHash);
+
+        DigestBloomFilter b = building;
+        if (b != null) b.put(tokenHash);
+    }
+
+    /**
+     * False only when no active token has this hash. Always true while the filter is disabled
+     * or not built yet.
+     */
+    public boolean mightContain(String tokenHash) {
+        DigestBloomFilter f = current;
+        if (!enabled || f == null) return true;
+
+        DigestBloomFilter p = previous;
+        if (f.mightContain(tokenHash)
+                || (p != null && System.currentTimeMillis() < previousUntilMillis && p.mightContain(tokenHash))) {
+            passed.incrementAndGet();
+            return true;
+        }
+        rejected.incrementAndGet();
+        return false;
+    }
+
+    private synchronized void rebuild() {
+        if (!enabled) return;
+
+        LocalDateTime now = LocalDateTime.now();
+        long active = repo.countByRevokedFalseAndExpiresAtAfter(now);
+        DigestBloomFilter next = new DigestBloomFilter(
+                Math.max(minCapacity, active * headroom), falsePositiveRate);
+
+        building = next;
+        try (Stream<String> hashes = repo.streamActiveTokenHashes(now)) {
+            hashes.forEach(next::put);
+        } catch (RuntimeException e) {
+            building = null;
+            throw e;
+        }
+        previous = current;
+        previousUntilMillis = System.currentTimeMillis() + swapGraceMillis;
+        current = next;
+        building = null;
+        lastBuildSize = active;
+
+        log.info("Refresh token filter built with {} active tokens ({} bits)", active, next.getBitCount());
+    }
+
+    public boolean isReady() {
+        return current != null;
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    public long getPassed() {
+        return passed.get();
+    }
+
+    public long getLastBuildSize() {
+        return lastBuildSize;
+    }
+}
@@ -0,0 +1,78 @@
+package project.planora_travelandbooking_system.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import project.planora_travelandbooking_system.model.User;
+import project.planora_travelandbooking_system.repository.UserRepository;
+import project.planora_travelandbooking_system.service.TransactionCallbacks;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory table of user security versions, used by stateless authentication to reject
+ * access tokens minted before a role, email or deleted-flag change.
+ * A user missing from the table (created, or removed, on another instance or before a restart)
+ * is looked up once; a user whose row is gone is rejected. Bumps are only published to this
+ * instance, other instances see them when they restart.
+ */
+@Slf4j
+@Component
+public class SecurityVersionRegistry {
+
+    private final UserRepository userRepository;
+
+    @Value("${planora.jwt.stateless:false}")
+    private boolean statelessEnabled;
+
+    // userId -> lowest security version a token must carry
+    private final Map<Long, Long> currentVersions = new ConcurrentHashMap<>();
+
+    public SecurityVersionRegistry(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!statelessEnabled) return;
+
+        var versions = userRepository.findBumpedSecurityVersions();
+        for (var v : versions) {
+            currentVersions.merge(v.getId(), v.getSecurityVersion(), Math::max);
+        }
+        log.info("Loaded {} user security versions", versions.size());
+    }
+
+    /**
+     * Increments the user's version on the entity (the caller saves it) and
+     * publishes the new version once the transaction commits.
+     */
+    public void bump(User user) {
+        long next = user.getSecurityVersion() + 1;
+        user.setSecurityVersion(next);
+
+        Long userId = user.getId();
+        if (userId == null) return;
+        TransactionCallbacks.afterCommit(() -> currentVersions.merge(userId, next, Math::max));
+    }
+
+    // used when the user row is gone: no token for this id is valid anymore
+    public void revokeAll(Long userId) {
+        if (userId == null) return;
+        TransactionCallbacks.afterCommit(() -> currentVersions.put(userId, Long.MAX_VALUE));
+    }
+
+    public boolean isCurrent(Long userId, long tokenVersion) {
+        if (userId == null) return false;
+        Long current = currentVersions.get(userId);
+        if (current == null) {
+            long stored = userRepository.findSecurityVersionById(userId).orElse(Long.MAX_VALUE);
+            // a bump published while we were reading still wins
+            current = currentVersions.merge(userId, stored, Math::max);
+        }
+        return tokenVersion >= current;
+    }
+}
@@ -0,0 +1,271 @@
+package project.planora_travelandbooking_system.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import project.planora_travelandbooking_system.dto.AccommodationSearchCriteria;
+import project.planora_travelandbooking_system.model.Accommodation;
+import project.planora_travelandbooking_system.repository.AccommodationRepository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory accommodation search: every listing by id, plus inverted indexes from city and from
+ * type to sorted id arrays. A search intersects the posting lists it has filters for and checks
+ * the remaining filters on the listings, so it never goes to the database; stay availability
+ * comes from {@link BookingAvailabilityIndex}.
+ * Posting arrays are never changed in place, writers swap in a new copy, so readers need no lock.
+ * Loaded at startup and updated only after accommodation writes commit.
+ */
+@Slf4j
+@Component
+public class AccommodationSearchIndex {
+
+    private static final long[] EMPTY = new long[0];
+
+    private final AccommodationRepository accommodationRepository;
+    private final BookingAvailabilityIndex availabilityIndex;
+    // after-commit re-reads; a new transaction so they see committed rows, not the writer's session
+    private final TransactionTemplate freshRead;
+
+    private final Map<Long, Listing> listings = new ConcurrentHashMap<>();
+    private final Map<String, long[]> byCity = new ConcurrentHashMap<>();
+    private final Map<Accommodation.AccommodationType, long[]> byType = new ConcurrentHashMap<>();
+    private volatile long[] allIds = EMPTY;
+
+    private volatile boolean ready;
+    private final AtomicLong searches = new AtomicLong();
+
+    public AccommodationSearchIndex(AccommodationRepository accommodationRepository,
+                                    BookingAvailabilityIndex availabilityIndex,
+                                    PlatformTransactionManager transactionManager) {
+        this.accommodationRepository = accommodationRepository;
+        this.availabilityIndex = availabilityIndex;
+        this.freshRead = new TransactionTemplate(transactionManager);
+        this.freshRead.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.freshRead.setReadOnly(true);
+    }
+
+    @Transactional(readOnly = true)
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void warmUp() {
+        if (ready) return;
+        List<Accommodation> all = accommodationRepository.findAll();
+        all.forEach(this::put);
+        ready = true;
+        log.info("Accommodation search index loaded with {} listings", all.size());
+    }
+
+    /**
+     * After commit, a new id is indexed from the saved entity. An id that is already indexed is
+     * re-read from the database instead: after-commit callbacks of concurrent updates can run in
+     * a different order than their commits, and the snapshot one of them captured may be older
+     * than what is committed by then. The re-read runs in its own transaction; inside the
+     * finished one it would be served the writer's own entity from its persistence context.
+     */
+    public void onSaved(Accommodation accommodation) {
+        Listing listing = Listing.of(accommodation);
+        TransactionCallbacks.afterCommit(() -> {
+            synchronized (this) {
+                if (!listings.containsKey(listing.id())) {
+                    put(listing);
+                } else {
+                    refresh(listing.id());
+                }
+            }
+        });
+    }
+
+    public void onDeleted(Long accommodationId) {
+        TransactionCallbacks.afterCommit(() -> {
+            synchronized (this) {
+                remove(accommodationId);
+            }
+        });
+    }
+
+    /**
+     * Listings matching every given filter, in id order. With a check-in date only AVAILABLE
+     * listings whose [startTime, endTime] covers the stay and that have every night in
+     * [checkIn, checkOut) free are kept; a missing checkOut means one night.
+     */
+    public List<Listing> search(AccommodationSearchCriteria criteria) {
+        if (!ready) {
+            // a request that beats the ready event loads the index itself instead of failing
+            warmUp();
+        }
+        searches.incrementAndGet();
+
+        LocalDate checkIn = criteria.getCheckIn();
+        LocalDate checkOut = criteria.getCheckOut();
+        if (checkIn == null && checkOut != null) {
+            throw new IllegalArgumentException("checkIn is required with checkOut");
+        }
+        if (checkIn != null && checkOut == null) {
+            checkOut = checkIn.plusDays(1);
+        }
+        if (checkIn != null && !checkOut.isAfter(checkIn)) {
+            throw new IllegalArgumentException("checkOut must be after checkIn");
+        }
+        Accommodation.AccommodationType type = isBlank(criteria.getAccommodationType())
+                ? null : Accommodation.AccommodationType.valueOf(criteria.getAccommodationType().trim().toUpperCase());
+
+        long[] candidates = allIds;
+        if (!isBlank(criteria.getCity())) {
+            candidates = intersect(candidates, byCity.getOrDefault(cityKey(criteria.getCity()), EMPTY));
+        }
+        if (type != null) {
+            candidates = intersect(candidates, byType.getOrDefault(type, EMPTY));
+        }
+
+        List<Listing> result = new ArrayList<>();
+        for (long id : candidates) {
+            Listing listing = listings.get(id);
+            if (listing != null && matches(listing, criteria, checkIn, checkOut)) {
+                result.add(listing);
+            }
+        }
+        return result;
+    }
+
+    private boolean matches(Listing listing, AccommodationSearchCriteria criteria, LocalDate checkIn, LocalDate checkOut) {
+        if (criteria.getMinRating() != null && listing.rating() < criteria.getMinRating()) return false;
+        if (criteria.getMinPrice() != null && listing.pricePerNight() < criteria.getMinPrice()) return false;
+        if (criteria.getMaxPrice() != null && listing.pricePerNight() > criteria.getMaxPrice()) return false;
+        if (checkIn == null) return true;
+
+        if (listing.status() != Accommodation.Status.AVAILABLE) return false;
+        if (listing.startTime() != null && listing.startTime().isAfter(checkIn.atStartOfDay())) return false;
+        if (listing.endTime() != null && listing.endTime().isBefore(checkOut.atStartOfDay())) return false;
+        return !availabilityIndex.isAccommodationBooked(listing.id(), checkIn, checkOut, null);
+    }
+
+    // callers hold the monitor
+
+    private void put(Accommodation accommodation) {
+        put(Listing.of(accommodation));
+    }
+
+    private void put(Listing listing) {
+        Listing previous = listings.put(listing.id(), listing);
+        if (previous != null) {
+            unlink(previous);
+        }
+        byCity.compute(cityKey(listing.city()), (k, ids) -> insert(ids, listing.id()));
+        if (listing.type() != null) {
+            byType.compute(listing.type(), (k, ids) -> insert(ids, listing.id()));
+        }
+        allIds = insert(allIds, listing.id());
+    }
+
+    private void refresh(Long id) {
+        Listing current = freshRead.execute(status -> accommodationRepository.findById(id).map(Listing::of).orElse(null));
+        if (current != null) {
+            put(current);
+        } else {
+            remove(id);
+        }
+    }
+
+    private void remove(Long id) {
+        Listing previous = listings.remove(id);
+        if (previous != null) {
+            unlink(previous);
+            allIds = delete(allIds, id);
+        }
+    }
+
+    private void unlink(Listing listing) {
+        byCity.computeIfPresent(cityKey(listing.city()), (k, ids) -> emptyToNull(delete(ids, listing.id())));
+        if (listing.type() != null) {
+            byType.computeIfPresent(listing.type(), (k, ids) -> emptyToNull(delete(ids, listing.id())));
+        }
+    }
+
+    static long[] insert(long[] ids, long id) {
+        if (ids == null) return new long[]{id};
+        int pos = Arrays.binarySearch(ids, id);
+        if (pos >= 0) return ids;
+        int at = -pos - 1;
+        long[] next = new long[ids.length + 1];
+        System.arraycopy(ids, 0, next, 0, at);
+        next[at] = id;
+        System.arraycopy(ids, at, next, at + 1, ids.length - at);
+        return next;
+    }
+
+    static long[] delete(long[] ids, long id) {
+        int pos = Arrays.binarySearch(ids, id);
+        if (pos < 0) return ids;
+        long[] next = new long[ids.length - 1];
+        System.arraycopy(ids, 0, next, 0, pos);
+        System.arraycopy(ids, pos + 1, next, pos, ids.length - pos - 1);
+        return next;
+    }
+
+    // merge of two sorted arrays, linear in their combined length
+    static long[] intersect(long[] a, long[] b) {
+        long[] out = new long[Math.min(a.length, b.length)];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) i++;
+            else if (a[i] > b[j]) j++;
+            else {
+                out[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return n == out.length ? out : Arrays.copyOf(out, n);
+    }
+
+    private static long[] emptyToNull(long[] ids) {
+        return ids.length == 0 ? null : ids;
+    }
+
+    private static String cityKey(String city) {
+        return city == null ? "" : city.trim().toLowerCase();
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int getListings() {
+        return listings.size();
+    }
+
+    public long getSearches() {
+        return searches.get();
+    }
+
+    /**
+     * Snapshot of an accommodation as of its last committed write.
+     */
+    public record Listing(Long id, Accommodation.AccommodationType type, String name, String city, String address,
+                          LocalDateTime startTime, LocalDateTime endTime, double rating, Integer room,
+                          double pricePerNight, Accommodation.Status status, LocalDateTime createdAt) {
+
+        static Listing of(Accommodation a) {
+            return new Listing(a.getId(), a.getAccommodationType(), a.getName(), a.getCity(), a.getAddress(),
+                    a.getStartTime(), a.getEndTime(), a.getRating(), a.getRoom(), a.getPricePerNight(),
+                    a.getStatus(), a.getCreatedAt());
+        }
+    }
+}
@@ -2,25 +2,56 @@ package project.planora_travelandbooking_system.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import project.planora_travelandbooking_system.dto.AccommodationDTO;
+import project.planora_travelandbooking_system.dto.AccommodationSearchCriteria;
+import project.planora_travelandbooking_system.dto.CursorSlice;
 import project.planora_travelandbooking_system.model.Accommodation;
 import project.planora_travelandbooking_system.repository.AccommodationRepository;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Service
 public class AccommodationService {
 
     private final AccommodationRepository accommodationRepository;
+    private final AccommodationSearchIndex searchIndex;
+    private final CatalogCache catalogCache;
+    private final CatalogVersion catalogVersion;
+    private final PricingService pricingService;
 
     @Autowired
-    public AccommodationService(AccommodationRepository accommodationRepository) {
+    public AccommodationService(AccommodationRepository accommodationRepository,
+                                AccommodationSearchIndex searchIndex,
+                                CatalogCache catalogCache,
+                                CatalogVersion catalogVersion,
+                                PricingService pricingService) {
         this.accommodationRepository = accommodationRepository;
+        this.searchIndex = searchIndex;
+        this.catalogCache = catalogCache;
+        this.catalogVersion = catalogVersion;
+        this.pricingService = pricingService;
     }
 
     public AccommodationDTO saveAccommodation(AccommodationDTO accommodationDTO) {
+        Accommodation accommodation = toValidatedEntity(accommodationDTO);
+        Accommodation savedAccommodation = accommodationRepository.save(accommodation);
+        searchIndex.onSaved(savedAccommodation);
+        catalogCache.evictAccommodation(savedAccommodation.getId());
+        catalogVersion.changed(CatalogVersion.Catalog.ACCOMMODATIONS);
+
+        return convertToDTO(savedAccommodation);
+    }
+
+    /**
+     * Runs the checks of {@link #saveAccommodation} and returns the unsaved entity. Touches no
+     * shared state, so bulk imports call it from several threads at once.
+     */
+    public Accommodation toValidatedEntity(AccommodationDTO accommodationDTO) {
         DateValidation.endNotBeforeStart(
                 accommodationDTO.getStartTime(),
                 accommodationDTO.getEndTime(),
@@ -31,10 +62,17 @@ public class AccommodationService {
         Accommodation.AccommodationType accommodationType = Accommodation.AccommodationType.valueOf(accommodationDTO.getAccommodationType());
         Accommodation.Status status = Accommodation.Status.valueOf(accommodationDTO.getStatus());
 
-        Accommodation accommodation = convertToEntity(accommodationDTO, accommodationType, status);
-        Accommodation savedAccommodation = accommodationRepository.save(accommodation);
+        return convertToEntity(accommodationDTO, accommodationType, status);
+    }
 
-        return convertToDTO(savedAccommodation);
+    /**
+     * Inserts new accommodations in one transaction; JDBC batching sends them a batch at a time.
+     */
+    @Transactional
+    public void insertAll(List<Accommodation> accommodations) {
+        accommodationRepository.saveAll(accommodations);
+        accommodations.forEach(searchIndex::onSaved);
+        catalogVersion.changed(CatalogVersion.Catalog.ACCOMMODATIONS);
     }
 
     public Page<AccommodationDTO> getAllAccommodations(int page, int pageSize) {
@@ -42,12 +80,37 @@ public class AccommodationService {
         return accommodationPage.map(this::convertToDTO);
     }
 
+    public CursorSlice<AccommodationDTO> getAccommodationsAfter(String after, int pageSize) {
+        KeysetCursor cursor = KeysetCursor.decode(after);
+        List<Accommodation> rows = accommodationRepository.findBefore(cursor.createdAt(), cursor.id(), KeysetCursor.limit(pageSize));
+        return KeysetCursor.slice(rows, pageSize, a -> new KeysetCursor(a.getCreatedAt(), a.getId()), this::convertToDTO);
+    }
+
+    // served from the in-memory search index, never from the database
+    public Page<AccommodationDTO> searchAccommodations(AccommodationSearchCriteria criteria, int page, int pageSize) {
+        PageRequest pageRequest = PageRequest.of(page, pageSize);
+        List<AccommodationSearchIndex.Listing> matches = searchIndex.search(criteria);
+        int from = (int) Math.min(pageRequest.getOffset(), matches.size());
+        int to = Math.min(from + pageSize, matches.size());
+        List<AccommodationDTO> content = matches.subList(from, to).stream().map(this::convertToDTO).toList();
+        if (criteria.getCheckIn() != null) {
+            // priced for the searched nights from the same quote cache bookings use
+            LocalDate checkOut = criteria.getCheckOut() != null ? criteria.getCheckOut() : criteria.getCheckIn().plusDays(1);
+            content.forEach(dto -> dto.setQuotedTotal(pricingService.quoteStay(
+                    dto.getId(), dto.getPricePerNight(), criteria.getCheckIn(), checkOut)));
+        }
+        return new PageImpl<>(content, pageRequest, matches.size());
+    }
+
     @Transactional
     public void deleteAccommodation(Long accommodationId) {
         if (!accommodationRepository.existsById(accommodationId)) {
             throw new RuntimeException("Accommodation not found with ID: " + accommodationId);
         }
         accommodationRepository.deleteById(accommodationId);
+        searchIndex.onDeleted(accommodationId);
+        catalogCache.evictAccommodation(accommodationId);
+        catalogVersion.changed(CatalogVersion.Catalog.ACCOMMODATIONS);
     }
 
     @Transactional
@@ -72,6 +135,9 @@ public class AccommodationService {
         accommodation.setStatus(status);
 
         Accommodation updated = accommodationRepository.save(accommodation);
+        searchIndex.onSaved(updated);
+        catalogCache.evictAccommodation(accommodationId);
+        catalogVersion.changed(CatalogVersion.Catalog.ACCOMMODATIONS);
 
         return convertToDTO(updated);
     }
@@ -93,6 +159,23 @@ public class AccommodationService {
         return accommodation;
     }
 
+    private AccommodationDTO convertToDTO(AccommodationSearchIndex.Listing listing) {
+        AccommodationDTO accommodationDTO = new AccommodationDTO();
+        accommodationDTO.setId(listing.id());
+        accommodationDTO.setAccommodationType(listing.type() != null ? listing.type().name() : null);
+        accommodationDTO.setName(listing.name());
+        accommodationDTO.setCity(listing.city());
+        accommodationDTO.setAddress(listing.address());
+        accommodationDTO.setStartTime(listing.startTime());
+        accommodationDTO.setEndTime(listing.endTime());
+        accommodationDTO.setRating(listing.rating());
+        accommodationDTO.setRoom(listing.room());
+        accommodationDTO.setPricePerNight(listing.pricePerNight());
+        accommodationDTO.setStatus(listing.status() != null ? listing.status().name() : null);
+        accommodationDTO.setCreatedAt(listing.createdAt());
+        return accommodationDTO;
+    }
+
     private AccommodationDTO convertToDTO(Accommodation accommodation) {
         AccommodationDTO accommodationDTO = new AccommodationDTO();
         accommodationDTO.setId(accommodation.getId());
@@ -127,7 +210,7 @@ public class AccommodationService {
         accommodation.setRating(dto.getRating());
         accommodation.setRoom(dto.getRoom());
 
-        accommodation.setCreatedAt(dto.getCreatedAt());
+        accommodation.setCreatedAt(dto.getCreatedAt() != null ? dto.getCreatedAt() : LocalDateTime.now());
 
         // enums: DTO String -> Entity Enum
         if (dto.getStatus() != null && !dto.getStatus().isBlank()) {
@@ -145,6 +228,9 @@ public class AccommodationService {
         }
 
         Accommodation saved = accommodationRepository.save(accommodation);
+        searchIndex.onSaved(saved);
+        catalogCache.evictAccommodation(saved.getId());
+        catalogVersion.changed(CatalogVersion.Catalog.ACCOMMODATIONS);
 
         // Entity -> DTO (WITH ID)
         AccommodationDTO result = new AccommodationDTO();
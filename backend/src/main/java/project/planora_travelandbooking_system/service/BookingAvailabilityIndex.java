@@ -0,0 +1,152 @@
+package project.planora_travelandbooking_system.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import project.planora_travelandbooking_system.model.Booking;
+import project.planora_travelandbooking_system.repository.BookingRepository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * In-memory per-night availability of accommodations: for each accommodation, its active stays
+ * ordered by check-in day. Stays of one accommodation never overlap (the database exclusion
+ * constraint guarantees it), so an overlap check only looks at the last stay starting before the
+ * requested check-out, which is O(log n). Transports are not tracked here, their seat inventory
+ * lives on the transport row.
+ * Warmed from the database at startup and changed only after a booking transaction commits,
+ * so it never shows uncommitted state. Until warm-up finishes every check goes to the database.
+ */
+@Slf4j
+@Component
+public class BookingAvailabilityIndex {
+
+    private static final Booking.BookingStatus CANCELLED = Booking.BookingStatus.CANCELLED;
+
+    // stands in for an open-ended range; far enough out and still a valid database timestamp
+    private static final LocalDate OPEN_END = LocalDate.of(9999, 12, 31);
+
+    private static final Comparator<Stay> BY_CHECK_IN =
+            Comparator.comparing(Stay::checkIn).thenComparing(Stay::bookingId);
+
+    private final BookingRepository bookingRepository;
+    private final CatalogVersion catalogVersion;
+
+    // accommodation id -> active stays ordered by check-in
+    private final Map<Long, NavigableSet<Stay>> stays = new ConcurrentHashMap<>();
+    // active booking id -> its stay, so updates and deletes know what to release
+    private final Map<Long, Stay> holdings = new ConcurrentHashMap<>();
+
+    private volatile boolean ready;
+
+    public BookingAvailabilityIndex(BookingRepository bookingRepository, CatalogVersion catalogVersion) {
+        this.bookingRepository = bookingRepository;
+        this.catalogVersion = catalogVersion;
+    }
+
+    @Transactional(readOnly = true)
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        List<BookingRepository.ActiveStayView> active = bookingRepository.findActiveStays(CANCELLED);
+        for (var b : active) {
+            if (b.getStartDate() == null || b.getEndDate() == null) continue;
+            hold(new Stay(b.getAccommodationId(), b.getStartDate().toLocalDate(), b.getEndDate().toLocalDate(), b.getId()));
+        }
+        ready = true;
+        log.info("Booking availability index loaded with {} active stays", active.size());
+    }
+
+    /**
+     * True when another active booking holds any night in [checkIn, checkOut).
+     * A null checkOut means "any night from checkIn on".
+     */
+    public boolean isAccommodationBooked(Long accommodationId, LocalDate checkIn, LocalDate checkOut, Long excludeBookingId) {
+        LocalDate until = checkOut != null ? checkOut : OPEN_END;
+
+        if (!ready) {
+            LocalDateTime from = checkIn.atStartOfDay();
+            LocalDateTime to = until.atStartOfDay();
+            return excludeBookingId == null
+                    ? bookingRepository.existsByAccommodationIdAndStatusNotAndStartDateBeforeAndEndDateAfter(
+                            accommodationId, CANCELLED, to, from)
+                    : bookingRepository.existsByAccommodationIdAndStatusNotAndStartDateBeforeAndEndDateAfterAndIdNot(
+                            accommodationId, CANCELLED, to, from, excludeBookingId);
+        }
+
+        NavigableSet<Stay> booked = stays.get(accommodationId);
+        if (booked == null) return false;
+
+        // stays are disjoint, so walking back from the last one starting before `until`
+        // only ever steps over the excluded booking before it can answer
+        Iterator<Stay> it = booked.headSet(new Stay(accommodationId, until, until, Long.MIN_VALUE), false)
+                .descendingIterator();
+        while (it.hasNext()) {
+            Stay s = it.next();
+            if (!s.checkOut().isAfter(checkIn)) return false;
+            if (!s.bookingId().equals(excludeBookingId)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Records the booking's current stay and status once the surrounding transaction commits.
+     * Call after save, when the id is assigned.
+     */
+    public void onSaved(Booking booking) {
+        Long bookingId = booking.getId();
+        if (bookingId == null) return;
+
+        Stay next = booking.getStatus() == CANCELLED || booking.getAccommodation() == null
+                || booking.getStartDate() == null || booking.getEndDate() == null
+                ? null
+                : new Stay(booking.getAccommodation().getId(),
+                        booking.getStartDate().toLocalDate(), booking.getEndDate().toLocalDate(), bookingId);
+
+        TransactionCallbacks.afterCommit(() -> {
+            release(bookingId);
+            if (next != null) hold(next);
+        });
+        // registered after the index update, so a new tag is never served from the old index
+        catalogVersion.changed(CatalogVersion.Catalog.STAYS);
+    }
+
+    public void onDeleted(Collection<Long> bookingIds) {
+        List<Long> ids = List.copyOf(bookingIds);
+        TransactionCallbacks.afterCommit(() -> ids.forEach(this::release));
+        catalogVersion.changed(CatalogVersion.Catalog.STAYS);
+    }
+
+    private void hold(Stay stay) {
+        holdings.put(stay.bookingId(), stay);
+        stays.computeIfAbsent(stay.accommodationId(), id -> new ConcurrentSkipListSet<>(BY_CHECK_IN)).add(stay);
+    }
+
+    private void release(Long bookingId) {
+        Stay previous = holdings.remove(bookingId);
+        if (previous == null) return;
+        NavigableSet<Stay> booked = stays.get(previous.accommodationId());
+        if (booked != null) booked.remove(previous);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int getActiveBookings() {
+        return holdings.size();
+    }
+
+    private record Stay(Long accommodationId, LocalDate checkIn, LocalDate checkOut, Long bookingId) {
+    }
+}
@@ -0,0 +1,80 @@
+package project.planora_travelandbooking_system.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import project.planora_travelandbooking_system.exception.BookingConflictException;
+import project.planora_travelandbooking_system.model.Booking;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Striped locks keyed by booked resource, so concurrent bookings of the same transport or
+ * accommodation queue up while bookings of different resources never wait on each other.
+ * The lock is held until the surrounding transaction completes, which covers the commit and
+ * the availability index update. The partial unique indexes remain the real guarantee across instances.
+ */
+@Component
+public class BookingLocks {
+
+    @Value("${planora.booking.lock-stripes:256}")
+    private int stripes;
+
+    @Value("${planora.booking.lock-timeout-ms:2000}")
+    private long timeoutMillis;
+
+    private ReentrantLock[] locks;
+
+    private final AtomicLong acquired = new AtomicLong();
+    private final AtomicLong timedOut = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        locks = new ReentrantLock[Math.max(1, stripes)];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Locks the stripe for the resource until the current transaction finishes, or throws
+     * {@link BookingConflictException} when another booking of it holds the stripe for too long.
+     */
+    public void lockUntilCompletion(Booking.BookingType type, Long resourceId) {
+        ReentrantLock lock = locks[Math.floorMod(31 * type.ordinal() + Long.hashCode(resourceId), locks.length)];
+
+        try {
+            if (!lock.tryLock(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                timedOut.incrementAndGet();
+                throw new BookingConflictException("This resource is being booked right now, please try again");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BookingConflictException("Booking interrupted");
+        }
+        acquired.incrementAndGet();
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            lock.unlock();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+    }
+
+    public long getAcquired() {
+        return acquired.get();
+    }
+
+    public long getTimedOut() {
+        return timedOut.get();
+    }
+}
@@ -0,0 +1,101 @@
+package project.planora_travelandbooking_system.service;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+import project.planora_travelandbooking_system.repository.AccommodationRepository;
+import project.planora_travelandbooking_system.repository.TransportRepository;
+import project.planora_travelandbooking_system.repository.TripRepository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pickers for the booking form. Each lookup is a bounded prefix search returning compact
+ * projections, so the payload depends on the limit and not on the size of the catalog.
+ */
+@Service
+public class BookingLookupService {
+
+    public static final int MAX_LIMIT = 100;
+    // availableOnly reads at most this many candidate batches, however booked the catalog is
+    static final int MAX_BATCHES = 5;
+
+    private final TripRepository tripRepository;
+    private final TransportRepository transportRepository;
+    private final AccommodationRepository accommodationRepository;
+    private final BookingAvailabilityIndex availabilityIndex;
+
+    public BookingLookupService(TripRepository tripRepository,
+                                TransportRepository transportRepository,
+                                AccommodationRepository accommodationRepository,
+                                BookingAvailabilityIndex availabilityIndex) {
+        this.tripRepository = tripRepository;
+        this.transportRepository = transportRepository;
+        this.accommodationRepository = accommodationRepository;
+        this.availabilityIndex = availabilityIndex;
+    }
+
+    public List<TripRepository.TripOption> trips(String q, int limit, String email, boolean isAdmin) {
+        PageRequest page = PageRequest.ofSize(clamp(limit));
+        return isAdmin
+                ? tripRepository.findOptions(prefix(q), page)
+                : tripRepository.findOptionsByUserEmail(email, prefix(q), page);
+    }
+
+    public List<TransportRepository.TransportOption> transports(String q, int limit, boolean availableOnly) {
+        return transportRepository.findOptions(prefix(q), availableOnly, PageRequest.ofSize(clamp(limit)));
+    }
+
+    /**
+     * With availableOnly: accommodations with every night in [from, to) free. Without dates: free
+     * from today on; without an end date: free for every night from `from` on. Candidates are read
+     * one batch at a time until the limit is filled or {@link #MAX_BATCHES} batches were read, so a
+     * mostly booked catalog returns fewer options instead of being walked to the end.
+     */
+    public List<AccommodationRepository.AccommodationOption> accommodations(String q, int limit, boolean availableOnly,
+                                                                           LocalDate from, LocalDate to) {
+        int size = clamp(limit);
+        if (!availableOnly) {
+            return accommodationRepository.findOptions(prefix(q), PageRequest.ofSize(size)).getContent();
+        }
+
+        LocalDate checkIn = from != null ? from : LocalDate.now();
+        if (to != null && !to.isAfter(checkIn)) {
+            throw new RuntimeException("to must be after from");
+        }
+
+        List<AccommodationRepository.AccommodationOption> free = new ArrayList<>(size);
+        Slice<AccommodationRepository.AccommodationOption> batch;
+        int page = 0;
+        do {
+            batch = accommodationRepository.findOptions(prefix(q), PageRequest.of(page++, size));
+            for (AccommodationRepository.AccommodationOption option : batch) {
+                if (!availabilityIndex.isAccommodationBooked(option.getId(), checkIn, to, null)) {
+                    free.add(option);
+                    if (free.size() == size) {
+                        return free;
+                    }
+                }
+            }
+        } while (batch.hasNext() && page < MAX_BATCHES);
+        return free;
+    }
+
+    private static int clamp(int limit) {
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+
+    // lowercased LIKE prefix with the wildcards in user input escaped ('!' is the escape character)
+    static String prefix(String q) {
+        if (q == null || q.isBlank()) {
+            return "%";
+        }
+        String escaped = q.trim().toLowerCase()
+                .replace("!", "!!")
+                .replace("%", "!%")
+                .replace("_", "!_");
+        return escaped + "%";
+    }
+}
@@ -1,47 +1,82 @@
 package project.planora_travelandbooking_system.service;
 
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import project.planora_travelandbooking_system.config.DatabaseSchemaInitializer;
 import project.planora_travelandbooking_system.dto.BookingDTO;
-import project.planora_travelandbooking_system.model.Accommodation;
+import project.planora_travelandbooking_system.dto.CursorSlice;
+import project.planora_travelandbooking_system.dto.TripDTO;
+import project.planora_travelandbooking_system.exception.BookingConflictException;
 import project.planora_travelandbooking_system.model.Booking;
-import project.planora_travelandbooking_system.model.Transport;
 import project.planora_travelandbooking_system.model.Trip;
+import project.planora_travelandbooking_system.model.User;
 import project.planora_travelandbooking_system.repository.AccommodationRepository;
 import project.planora_travelandbooking_system.repository.BookingRepository;
 import project.planora_travelandbooking_system.repository.TransportRepository;
 import project.planora_travelandbooking_system.repository.TripRepository;
+import project.planora_travelandbooking_system.repository.UserRepository;
 
-import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.TreeSet;
 
 @Service
 public class BookingService {
 
+    static final int MAX_ITINERARY_BOOKINGS = 50;
+
     private final BookingRepository bookingRepository;
     private final TripRepository tripRepository;
     private final TransportRepository transportRepository;
     private final AccommodationRepository accommodationRepository;
+    private final BookingAvailabilityIndex availabilityIndex;
+    private final BookingLocks bookingLocks;
+    private final TransportSeatInventory seatInventory;
+    private final CatalogCache catalogCache;
+    private final UserRepository userRepository;
+    private final PricingService pricingService;
+    private final TripService tripService;
 
     public BookingService(BookingRepository bookingRepository,
                           TripRepository tripRepository,
                           TransportRepository transportRepository,
-                          AccommodationRepository accommodationRepository) {
+                          AccommodationRepository accommodationRepository,
+                          BookingAvailabilityIndex availabilityIndex,
+                          BookingLocks bookingLocks,
+                          TransportSeatInventory seatInventory,
+                          CatalogCache catalogCache,
+                          UserRepository userRepository,
+                          PricingService pricingService,
+                          TripService tripService) {
         this.bookingRepository = bookingRepository;
         this.tripRepository = tripRepository;
         this.transportRepository = transportRepository;
         this.accommodationRepository = accommodationRepository;
+        this.availabilityIndex = availabilityIndex;
+        this.bookingLocks = bookingLocks;
+        this.seatInventory = seatInventory;
+        this.catalogCache = catalogCache;
+        this.userRepository = userRepository;
+        this.pricingService = pricingService;
+        this.tripService = tripService;
     }
 
     public Page<BookingDTO> getAllBookings(int page, int pageSize, String email, boolean isAdmin) {
-        Page<Booking> bookingPage = isAdmin
-                ? bookingRepository.findAll(PageRequest.of(page, pageSize))
-                : bookingRepository.findByTripUserEmail(email, PageRequest.of(page, pageSize));
+        Page<BookingRepository.BookingListView> bookingPage = isAdmin
+                ? bookingRepository.findAllListViews(PageRequest.of(page, pageSize))
+                : bookingRepository.findListViewsByUserEmail(email, PageRequest.of(page, pageSize));
         return bookingPage.map(this::convertToDTO);
     }
 
@@ -65,11 +100,126 @@ public class BookingService {
         booking.setBookingType(bookingType);
         booking.setStatus(status);
 
-        applyTypeAndDatesAndPrice(booking, bookingDTO, bookingType, null);
+        applyTypeAndDatesAndPrice(booking, bookingDTO, bookingType, null, Map.of());
 
 
         booking.setCreatedAt(LocalDateTime.now());
-        bookingRepository.save(booking);
+        saveChecked(booking);
+        // seat counters last, so the transport row stays locked for as short as possible
+        takeSeatIfActiveTransport(booking);
+        availabilityIndex.onSaved(booking);
+    }
+
+    /**
+     * Creates the trip (or updates it when trip.id is set) and all of its bookings in one transaction.
+     * The trip and its owner come from one query, every transport and accommodation from one
+     * query each, availability from the in-memory index and the bookings go out as one batch;
+     * only the seat counters are still updated per transport leg.
+     */
+    @Transactional
+    public ItineraryResult saveItinerary(TripDTO tripDTO, List<BookingDTO> bookingDTOs, String email, boolean isAdmin) {
+        if (tripDTO == null) throw new IllegalArgumentException("trip is required");
+        if (bookingDTOs == null || bookingDTOs.isEmpty()) throw new IllegalArgumentException("at least one booking is required");
+        if (bookingDTOs.size() > MAX_ITINERARY_BOOKINGS) {
+            throw new IllegalArgumentException("an itinerary can hold at most " + MAX_ITINERARY_BOOKINGS + " bookings");
+        }
+
+        Trip trip = tripDTO.getId() != null
+                ? updateItineraryTrip(tripDTO, email, isAdmin)
+                : createItineraryTrip(tripDTO, email, isAdmin);
+
+        List<Booking.BookingType> types = new ArrayList<>();
+        Set<Long> transportIds = new HashSet<>();
+        Set<Long> accommodationIds = new TreeSet<>();
+        for (BookingDTO dto : bookingDTOs) {
+            Booking.BookingType type = Booking.BookingType.valueOf(dto.getBookingType());
+            types.add(type);
+            if (type == Booking.BookingType.TRANSPORT && dto.getTransportId() != null) transportIds.add(dto.getTransportId());
+            if (type == Booking.BookingType.ACCOMMODATION && dto.getAccommodationId() != null) accommodationIds.add(dto.getAccommodationId());
+        }
+
+        // warm the cache with one query per catalog, so building the bookings below never hits the database
+        if (!transportIds.isEmpty()) catalogCache.transports(transportIds);
+        if (!accommodationIds.isEmpty()) catalogCache.accommodations(accommodationIds);
+        // always in id order, so two itineraries sharing accommodations cannot wait on each other
+        accommodationIds.forEach(id -> bookingLocks.lockUntilCompletion(Booking.BookingType.ACCOMMODATION, id));
+        Map<Long, Integer> seatsAvailable = seatsAvailable(transportIds);
+
+        List<Booking> bookings = new ArrayList<>();
+        Set<Long> stays = new HashSet<>();
+        Set<SeatHolding> seats = new HashSet<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < bookingDTOs.size(); i++) {
+            BookingDTO dto = bookingDTOs.get(i);
+            Booking.BookingType type = types.get(i);
+
+            Booking booking = new Booking();
+            booking.setTrip(trip);
+            booking.setBookingType(type);
+            booking.setStatus(dto.getStatus() != null
+                    ? Booking.BookingStatus.valueOf(dto.getStatus())
+                    : Booking.BookingStatus.CONFIRMED);
+
+            applyTypeAndDatesAndPrice(booking, dto, type, null, seatsAvailable);
+
+            // the index only knows committed bookings, clashes inside the itinerary are caught here
+            if (booking.getStatus() != Booking.BookingStatus.CANCELLED) {
+                if (booking.getAccommodation() != null && !stays.add(dto.getAccommodationId())) {
+                    throw new BookingConflictException("This accommodation is already booked for these dates");
+                }
+                SeatHolding holding = SeatHolding.of(booking);
+                if (holding != null && holding.seatNumber() != null && !seats.add(holding)) {
+                    throw new BookingConflictException("Seat " + holding.seatNumber() + " is already taken");
+                }
+            }
+
+            booking.setCreatedAt(now);
+            bookings.add(booking);
+        }
+
+        saveAllChecked(bookings);
+        bookings.stream()
+                .sorted(Comparator.comparing(b -> b.getTransport() != null ? b.getTransport().getId() : Long.MAX_VALUE))
+                .forEach(this::takeSeatIfActiveTransport);
+        bookings.forEach(availabilityIndex::onSaved);
+
+        return new ItineraryResult(trip.getId(), bookings.stream().map(Booking::getId).toList());
+    }
+
+    private Trip updateItineraryTrip(TripDTO tripDTO, String email, boolean isAdmin) {
+        Trip trip = tripRepository.findWithUserById(tripDTO.getId())
+                .orElseThrow(() -> new RuntimeException("Trip not found with ID: " + tripDTO.getId()));
+
+        if (!isAdmin) {
+            if (trip.getUser() == null || !Objects.equals(email, trip.getUser().getEmail())) throw new RuntimeException("Access denied");
+        }
+
+        // only what the request carries changes; the rest of the trip stays as it is
+        if (tripDTO.getTitle() != null) trip.setTitle(tripDTO.getTitle());
+        if (tripDTO.getDescription() != null) trip.setDescription(tripDTO.getDescription());
+        tripService.changeDates(trip,
+                tripDTO.getStartDate() != null ? tripDTO.getStartDate() : trip.getStartDate(),
+                tripDTO.getEndDate() != null ? tripDTO.getEndDate() : trip.getEndDate());
+        return trip;
+    }
+
+    private Trip createItineraryTrip(TripDTO tripDTO, String email, boolean isAdmin) {
+        DateValidation.endNotBeforeStart(tripDTO.getStartDate(), tripDTO.getEndDate(), "startDate", "endDate");
+
+        User user = isAdmin && tripDTO.getUserId() != null
+                ? userRepository.findById(tripDTO.getUserId())
+                        .orElseThrow(() -> new RuntimeException("User not found with ID: " + tripDTO.getUserId()))
+                : userRepository.findByEmailAndDeletedFalse(email)
+                        .orElseThrow(() -> new RuntimeException("User not found"));
+
+        Trip trip = new Trip();
+        trip.setTitle(tripDTO.getTitle());
+        trip.setDescription(tripDTO.getDescription());
+        trip.setStartDate(tripDTO.getStartDate());
+        trip.setEndDate(tripDTO.getEndDate());
+        trip.setCreatedAt(LocalDateTime.now());
+        trip.setUser(user);
+        return tripRepository.save(trip);
     }
 
     @Transactional
@@ -92,16 +242,24 @@ public class BookingService {
 
         booking.setTrip(trip);
 
+        SeatHolding before = SeatHolding.of(booking);
+
         Booking.BookingType bookingType = Booking.BookingType.valueOf(bookingDTO.getBookingType());
         Booking.BookingStatus status = Booking.BookingStatus.valueOf(bookingDTO.getStatus());
 
         booking.setBookingType(bookingType);
         booking.setStatus(status);
 
-        applyTypeAndDatesAndPrice(booking, bookingDTO, bookingType, booking.getId());
+        applyTypeAndDatesAndPrice(booking, bookingDTO, bookingType, booking.getId(), Map.of());
 
 
-        bookingRepository.save(booking);
+        saveChecked(booking);
+        SeatHolding after = SeatHolding.of(booking);
+        if (!Objects.equals(before, after)) {
+            if (before != null) seatInventory.release(before.transportId(), before.seatNumber());
+            takeSeatIfActiveTransport(booking);
+        }
+        availabilityIndex.onSaved(booking);
     }
 
     @Transactional
@@ -115,6 +273,8 @@ public class BookingService {
         }
 
         bookingRepository.deleteById(id);
+        releaseSeatIfActiveTransport(booking);
+        availabilityIndex.onDeleted(List.of(id));
     }
 
     @Transactional
@@ -132,14 +292,15 @@ public class BookingService {
 
         Set<Long> uniqueIds = new HashSet<>(ids);
         bookingRepository.deleteAllByIdInBatch(uniqueIds);
+        bookings.forEach(this::releaseSeatIfActiveTransport);
+        availabilityIndex.onDeleted(uniqueIds);
     }
 
     private void applyTypeAndDatesAndPrice(Booking booking,
                                            BookingDTO bookingDTO,
                                            Booking.BookingType bookingType,
-                                           Long currentBookingIdOrNull) {
-
-        Booking.BookingStatus cancelled = Booking.BookingStatus.CANCELLED;
+                                           Long currentBookingIdOrNull,
+                                           Map<Long, Integer> seatsAvailable) {
 
         if (bookingType == Booking.BookingType.TRANSPORT) {
 
@@ -149,21 +310,24 @@ public class BookingService {
 
             Long transportId = bookingDTO.getTransportId();
 
-            boolean alreadyBooked = (currentBookingIdOrNull == null)
-                    ? bookingRepository.existsByTransportIdAndStatusNot(transportId, cancelled)
-                    : bookingRepository.existsByTransportIdAndStatusNotAndIdNot(transportId, cancelled, currentBookingIdOrNull);
+            // no lock here: seats are claimed by an atomic update once the booking row is written
+            CatalogCache.TransportFacts transport = catalogCache.transport(transportId);
 
-            if (alreadyBooked) {
-                throw new RuntimeException("This transport is already booked in another active booking");
-            }
+            seatInventory.validateSeat(transport.capacity(), bookingDTO.getSeatNumber());
 
-            Transport transport = transportRepository.findById(transportId)
-                    .orElseThrow(() -> new RuntimeException("Transport not found: " + transportId));
-
-            booking.setTransport(transport);
+            // the cache already proved the row exists; a reference links it without a select
+            booking.setTransport(transportRepository.getReferenceById(transportId));
+            booking.setSeatNumber(bookingDTO.getSeatNumber());
             booking.setAccommodation(null);
 
-            booking.setTotalPrice(transport.getPrice());
+            booking.setStartDate(transport.departureTime());
+            booking.setEndDate(transport.arrivalTime());
+
+            Integer seatsLeft = seatsAvailable.containsKey(transportId)
+                    ? seatsAvailable.get(transportId)
+                    : seatsAvailable(Set.of(transportId)).get(transportId);
+            booking.setTotalPrice(pricingService.quoteSeat(transportId, transport.price(), transport.departureTime(),
+                    transport.arrivalTime(), transport.capacity(), seatsLeft));
 
         } else {
 
@@ -173,46 +337,126 @@ public class BookingService {
 
             Long accommodationId = bookingDTO.getAccommodationId();
 
-            boolean alreadyBooked = (currentBookingIdOrNull == null)
-                    ? bookingRepository.existsByAccommodationIdAndStatusNot(accommodationId, cancelled)
-                    : bookingRepository.existsByAccommodationIdAndStatusNotAndIdNot(accommodationId, cancelled, currentBookingIdOrNull);
+            // AUTO DATES (Accommodation has no dates in your model → use Trip dates)
+            Trip trip = booking.getTrip();
+            if (trip == null) throw new RuntimeException("Trip is required for accommodation booking");
+            if (trip.getStartDate() == null || trip.getEndDate() == null) {
+                throw new RuntimeException("Trip must have start and end dates to book an accommodation");
+            }
+
+            long nights = calcNights(trip.getStartDate(), trip.getEndDate());
+            LocalDate checkIn = trip.getStartDate().toLocalDate();
+            LocalDate checkOut = checkIn.plusDays(nights);
 
-            if (alreadyBooked) {
-                throw new RuntimeException("This accommodation is already booked in another active booking");
+            bookingLocks.lockUntilCompletion(bookingType, accommodationId);
+            boolean alreadyBooked = availabilityIndex.isAccommodationBooked(
+                    accommodationId, checkIn, checkOut, currentBookingIdOrNull);
+
+            if (alreadyBooked && booking.getStatus() != Booking.BookingStatus.CANCELLED) {
+                throw new BookingConflictException("This accommodation is already booked for these dates");
             }
 
-            Accommodation accommodation = accommodationRepository.findById(accommodationId)
-                    .orElseThrow(() -> new RuntimeException("Accommodation not found: " + accommodationId));
+            CatalogCache.AccommodationFacts accommodation = catalogCache.accommodation(accommodationId);
 
-            booking.setAccommodation(accommodation);
+            booking.setAccommodation(accommodationRepository.getReferenceById(accommodationId));
             booking.setTransport(null);
+            booking.setSeatNumber(null);
 
-            // AUTO DATES (Accommodation has no dates in your model → use Trip dates)
-            if (booking.getTrip() == null) throw new RuntimeException("Trip is required for accommodation booking");
+            booking.setStartDate(checkIn.atStartOfDay());
+            booking.setEndDate(checkOut.atStartOfDay());
+            booking.setTotalPrice(pricingService.quoteStay(accommodationId, accommodation.pricePerNight(), checkIn, checkOut));
+        }
+    }
+
+    // empty unless a pricing rule looks at occupancy
+    private Map<Long, Integer> seatsAvailable(Set<Long> transportIds) {
+        if (!pricingService.usesOccupancy() || transportIds.isEmpty()) return Map.of();
+        Map<Long, Integer> seats = new HashMap<>();
+        transportRepository.findSeatsAvailable(transportIds).forEach(v -> seats.put(v.getId(), v.getSeatsAvailable()));
+        return seats;
+    }
+
+    // flushes inside the service so a lost race on the active-booking indexes surfaces here as a 409
+    private void saveChecked(Booking booking) {
+        try {
+            bookingRepository.save(booking);
+            bookingRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            throw translateConflict(e, "Seat " + booking.getSeatNumber() + " is already taken");
+        }
+    }
+
+    // one batched insert for the whole itinerary; which row lost the race is not known here
+    private void saveAllChecked(List<Booking> bookings) {
+        try {
+            bookingRepository.saveAll(bookings);
+            bookingRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            throw translateConflict(e, "A selected seat is already taken");
+        }
+    }
 
+    private RuntimeException translateConflict(DataIntegrityViolationException e, String seatMessage) {
+        String cause = String.valueOf(e.getMostSpecificCause().getMessage());
+        if (cause.contains(DatabaseSchemaInitializer.BOOKING_ACTIVE_SEAT_INDEX)) {
+            return new BookingConflictException(seatMessage);
         }
+        if (cause.contains(DatabaseSchemaInitializer.BOOKING_ACCOMMODATION_NIGHTS_CONSTRAINT)) {
+            return new BookingConflictException("This accommodation is already booked for these dates");
+        }
+        return e;
+    }
+
+    private void takeSeatIfActiveTransport(Booking booking) {
+        SeatHolding holding = SeatHolding.of(booking);
+        if (holding != null) seatInventory.take(holding.transportId(), holding.seatNumber());
+    }
+
+    private void releaseSeatIfActiveTransport(Booking booking) {
+        SeatHolding holding = SeatHolding.of(booking);
+        if (holding != null) seatInventory.release(holding.transportId(), holding.seatNumber());
+    }
+
+    public record ItineraryResult(Long tripId, List<Long> bookingIds) {
     }
 
+    // what an active transport booking occupies; null for cancelled or accommodation bookings
+    private record SeatHolding(Long transportId, Integer seatNumber) {
+        static SeatHolding of(Booking booking) {
+            if (booking.getStatus() == Booking.BookingStatus.CANCELLED || booking.getTransport() == null) return null;
+            return new SeatHolding(booking.getTransport().getId(), booking.getSeatNumber());
+        }
+    }
+
+    // nights are counted by calendar day, a same-day stay still costs one night
     private long calcNights(LocalDateTime start, LocalDateTime end) {
         if (start == null || end == null) return 1;
-        long hours = Duration.between(start, end).toHours();
-        long nights = hours / 24;
+        long nights = ChronoUnit.DAYS.between(start.toLocalDate(), end.toLocalDate());
         if (nights <= 0) nights = 1;
         return nights;
     }
 
-    private BookingDTO convertToDTO(Booking booking) {
-        BookingDTO bookingDTO = new BookingDTO();
-        bookingDTO.setId(booking.getId());
-        bookingDTO.setTripId(booking.getTrip() != null ? booking.getTrip().getId() : null);
-        bookingDTO.setBookingType(booking.getBookingType() != null ? booking.getBookingType().name() : null);
-        bookingDTO.setStatus(booking.getStatus() != null ? booking.getStatus().name() : null);
-        bookingDTO.setCreatedAt(booking.getCreatedAt());
-        bookingDTO.setTotalPrice(booking.getTotalPrice());
-
-        if (booking.getTransport() != null) bookingDTO.setTransportId(booking.getTransport().getId());
-        if (booking.getAccommodation() != null) bookingDTO.setAccommodationId(booking.getAccommodation().getId());
+    public CursorSlice<BookingDTO> getBookingsAfter(String after, int pageSize, String email, boolean isAdmin) {
+        KeysetCursor cursor = KeysetCursor.decode(after);
+        List<BookingRepository.BookingListView> rows = isAdmin
+                ? bookingRepository.findListViewsBefore(cursor.createdAt(), cursor.id(), KeysetCursor.limit(pageSize))
+                : bookingRepository.findListViewsByUserEmailBefore(email, cursor.createdAt(), cursor.id(), KeysetCursor.limit(pageSize));
+        return KeysetCursor.slice(rows, pageSize, v -> new KeysetCursor(v.getCreatedAt(), v.getId()), this::convertToDTO);
+    }
 
+    private BookingDTO convertToDTO(BookingRepository.BookingListView view) {
+        BookingDTO bookingDTO = new BookingDTO();
+        bookingDTO.setId(view.getId());
+        bookingDTO.setTripId(view.getTripId());
+        bookingDTO.setBookingType(view.getBookingType() != null ? view.getBookingType().name() : null);
+        bookingDTO.setStatus(view.getStatus() != null ? view.getStatus().name() : null);
+        bookingDTO.setCreatedAt(view.getCreatedAt());
+        bookingDTO.setStartDate(view.getStartDate());
+        bookingDTO.setEndDate(view.getEndDate());
+        bookingDTO.setTotalPrice(view.getTotalPrice());
+        bookingDTO.setTransportId(view.getTransportId());
+        bookingDTO.setSeatNumber(view.getSeatNumber());
+        bookingDTO.setAccommodationId(view.getAccommodationId());
         return bookingDTO;
     }
 }
\ No newline at end of file
@@ -0,0 +1,203 @@
+package project.planora_travelandbooking_system.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import project.planora_travelandbooking_system.model.Accommodation;
+import project.planora_travelandbooking_system.model.Transport;
+import project.planora_travelandbooking_system.repository.AccommodationRepository;
+import project.planora_travelandbooking_system.repository.TransportRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Bounded read-through cache for the catalog fields a booking is priced and dated from.
+ * Transports and accommodations only change through TransportService/AccommodationService,
+ * which evict the entry on every write; the TTL only limits how long a write made some other
+ * way can go unnoticed. Seat counters are deliberately not cached, they change on every booking.
+ * Once full, the CLOCK eviction of {@link ClockCache} drops entries not read since the hand last
+ * passed them.
+ */
+@Component
+public class CatalogCache {
+
+    private final TransportRepository transportRepository;
+    private final AccommodationRepository accommodationRepository;
+
+    @Value("${planora.catalog-cache.ttl-seconds:300}")
+    private long ttlSeconds = 300;
+
+    @Value("${planora.catalog-cache.max-size:10000}")
+    private int maxSize = 10_000;
+
+    private final ClockCache<Long, Cached<TransportFacts>> transports = new ClockCache<>(() -> maxSize);
+    private final ClockCache<Long, Cached<AccommodationFacts>> accommodations = new ClockCache<>(() -> maxSize);
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public CatalogCache(TransportRepository transportRepository, AccommodationRepository accommodationRepository) {
+        this.transportRepository = transportRepository;
+        this.accommodationRepository = accommodationRepository;
+    }
+
+    public TransportFacts transport(Long id) {
+        return get(transports, id, () -> transportRepository.findById(id)
+                .map(TransportFacts::of)
+                .orElseThrow(() -> new RuntimeException("Transport not found: " + id)));
+    }
+
+    public AccommodationFacts accommodation(Long id) {
+        return get(accommodations, id, () -> accommodationRepository.findById(id)
+                .map(AccommodationFacts::of)
+                .orElseThrow(() -> new RuntimeException("Accommodation not found: " + id)));
+    }
+
+    /**
+     * Facts for several transports at once; whatever is not cached is loaded with one query.
+     */
+    public Map<Long, TransportFacts> transports(Collection<Long> ids) {
+        return getAll(transports, ids, TransportFacts::id, "Transport", missing ->
+                transportRepository.findAllById(missing).stream().map(TransportFacts::of).toList());
+    }
+
+    public Map<Long, AccommodationFacts> accommodations(Collection<Long> ids) {
+        return getAll(accommodations, ids, AccommodationFacts::id, "Accommodation", missing ->
+                accommodationRepository.findAllById(missing).stream().map(AccommodationFacts::of).toList());
+    }
+
+    /**
+     * Drops the entry now and again after commit. A read that missed leaves a loading marker in
+     * the entry and only caches its row by swapping that exact marker out, so a read that loaded
+     * the old row before the write committed finds its marker gone and does not cache it.
+     */
+    public void evictTransport(Long id) {
+        if (id == null) return;
+        evict(transports, id);
+    }
+
+    public void evictAccommodation(Long id) {
+        if (id == null) return;
+        evict(accommodations, id);
+    }
+
+    private <T> T get(ClockCache<Long, Cached<T>> entries, Long id, Supplier<T> loader) {
+        long now = System.currentTimeMillis();
+        Cached<T> cached = entries.get(id);
+        if (cached != null && cached.expiresAtMillis() > now) {
+            hits.incrementAndGet();
+            return cached.value();
+        }
+
+        misses.incrementAndGet();
+        Cached<T> marker = loading();
+        entries.put(id, marker);
+        T loaded = load(entries, List.of(id), marker, loader);
+        entries.replace(id, marker, new Cached<>(loaded, now + ttlSeconds * 1000));
+        return loaded;
+    }
+
+    private <T> Map<Long, T> getAll(ClockCache<Long, Cached<T>> entries, Collection<Long> ids,
+                                    Function<T, Long> idOf, String name, Function<List<Long>, List<T>> loader) {
+        long now = System.currentTimeMillis();
+        Map<Long, T> found = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long id : new LinkedHashSet<>(ids)) {
+            Cached<T> cached = entries.get(id);
+            if (cached != null && cached.expiresAtMillis() > now) {
+                hits.incrementAndGet();
+                found.put(id, cached.value());
+            } else {
+                missing.add(id);
+            }
+        }
+        if (missing.isEmpty()) return found;
+
+        misses.addAndGet(missing.size());
+        Cached<T> marker = loading();
+        missing.forEach(id -> entries.put(id, marker));
+        for (T loaded : load(entries, missing, marker, () -> loader.apply(missing))) {
+            Long id = idOf.apply(loaded);
+            found.put(id, loaded);
+            entries.replace(id, marker, new Cached<>(loaded, now + ttlSeconds * 1000));
+        }
+        for (Long id : missing) {
+            if (!found.containsKey(id)) {
+                entries.remove(id, marker);
+                throw new RuntimeException(name + " not found: " + id);
+            }
+        }
+        return found;
+    }
+
+    private static <T, R> R load(ClockCache<Long, Cached<T>> entries, List<Long> ids, Cached<T> marker,
+                                 Supplier<R> loader) {
+        try {
+            return loader.get();
+        } catch (RuntimeException e) {
+            ids.forEach(id -> entries.remove(id, marker));
+            throw e;
+        }
+    }
+
+    // already expired, so readers treat it as a miss; compared by identity, one per load
+    private static <T> Cached<T> loading() {
+        return new Cached<>(null, 0);
+    }
+
+    private <T> void evict(ClockCache<Long, Cached<T>> entries, Long id) {
+        Cached<T> removed = entries.remove(id);
+        if (removed != null && removed.value() != null) {
+            evictions.incrementAndGet();
+        }
+        TransactionCallbacks.afterCommit(() -> entries.remove(id));
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    public double getHitRatio() {
+        long h = hits.get();
+        long total = h + misses.get();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    public int getSize() {
+        return transports.size() + accommodations.size();
+    }
+
+    private record Cached<T>(T value, long expiresAtMillis) {
+    }
+
+    public record TransportFacts(Long id, LocalDateTime departureTime, LocalDateTime arrivalTime,
+                                 double price, int capacity) {
+
+        static TransportFacts of(Transport t) {
+            return new TransportFacts(t.getId(), t.getDepartureTime(), t.getArrivalTime(), t.getPrice(), t.capacity());
+        }
+    }
+
+    public record AccommodationFacts(Long id, double pricePerNight) {
+
+        static AccommodationFacts of(Accommodation a) {
+            return new AccommodationFacts(a.getId(), a.getPricePerNight());
+        }
+    }
+}
@@ -0,0 +1,473 @@
+package project.planora_travelandbooking_system.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import project.planora_travelandbooking_system.dto.AccommodationDTO;
+import project.planora_travelandbooking_system.dto.ImportJobDTO;
+import project.planora_travelandbooking_system.dto.TransportDTO;
+import project.planora_travelandbooking_system.exception.ImportBusyException;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Bulk catalog import. An upload is spooled to a temp file and processed by a background job:
+ * the job thread reads records in file order and hands them out in chunks to a parser pool,
+ * which turns them into validated entities with the same checks as the single-row save. Parsed
+ * chunks are inserted in file order, one transaction per chunk, with JDBC batching. At most a few
+ * chunks are in flight at once, so memory use does not depend on the size of the file.
+ * A row that fails to parse or validate is reported with its line number and skipped; a chunk
+ * whose insert fails is reported as a whole. Finished jobs are kept in memory for polling.
+ */
+@Slf4j
+@Service
+public class CatalogImportService {
+
+    public enum Catalog {
+        TRANSPORTS,
+        ACCOMMODATIONS
+    }
+
+    public enum Status {
+        QUEUED, RUNNING, DONE, FAILED
+    }
+
+    private static final int MAX_ERRORS = 100;
+    private static final int KEEP_FINISHED_JOBS = 20;
+    private static final TypeReference<Map<String, Object>> ROW = new TypeReference<>() {
+    };
+
+    // 0 = one per available processor
+    @Value("${planora.import.threads:0}")
+    private int threads;
+
+    @Value("${planora.import.chunk-size:1000}")
+    private int chunkSize = 1000;
+
+    @Value("${planora.import.max-queued-jobs:2}")
+    private int maxQueuedJobs = 2;
+
+    private final TransportService transportService;
+    private final AccommodationService accommodationService;
+    private final JsonMapper jsonMapper;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    private ThreadPoolExecutor jobRunner;
+    private ExecutorService parsers;
+    private int parserThreads;
+
+    public CatalogImportService(TransportService transportService,
+                                AccommodationService accommodationService,
+                                JsonMapper jsonMapper) {
+        this.transportService = transportService;
+        this.accommodationService = accommodationService;
+        this.jsonMapper = jsonMapper;
+    }
+
+    @PostConstruct
+    public void init() {
+        parserThreads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        parsers = Executors.newFixedThreadPool(parserThreads, r -> {
+            Thread t = new Thread(r, "catalog-import-parser-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        // imports run one at a time; they are bound by the database, not by parsing
+        jobRunner = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, maxQueuedJobs)),
+                r -> {
+                    Thread t = new Thread(r, "catalog-import");
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobRunner.shutdownNow();
+        parsers.shutdownNow();
+    }
+
+    /**
+     * Copies the upload to a temp file and queues the import. Throws {@link ImportBusyException}
+     * when the queue is full.
+     */
+    public ImportJobDTO submit(Catalog catalog, ExportService.Format format, String fileName, InputStream upload)
+            throws IOException {
+        Path file = Files.createTempFile("planora-import-", "." + format.getExtension());
+        try {
+            Files.copy(upload, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+
+        Job job = new Job(catalog, format, fileName, Files.size(file));
+        jobs.put(job.id, job);
+        try {
+            jobRunner.execute(() -> run(job, file));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            Files.deleteIfExists(file);
+            throw new ImportBusyException("Too many imports queued, try again later");
+        }
+        pruneFinishedJobs();
+        return job.snapshot();
+    }
+
+    public ImportJobDTO getJob(String id) {
+        Job job = jobs.get(id);
+        if (job == null) {
+            throw new RuntimeException("Import job not found: " + id);
+        }
+        return job.snapshot();
+    }
+
+    public List<ImportJobDTO> getJobs() {
+        return jobs.values().stream()
+                .sorted(Comparator.comparing((Job j) -> j.createdAt).reversed())
+                .map(Job::snapshot)
+                .toList();
+    }
+
+    void run(Job job, Path file) {
+        job.status = Status.RUNNING;
+        job.startedAt = LocalDateTime.now();
+        Deque<Future<Chunk>> inFlight = new ArrayDeque<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new CountingInputStream(Files.newInputStream(file), job.bytesRead), StandardCharsets.UTF_8), 64 * 1024)) {
+
+            RecordReader records = new RecordReader(reader, job.format);
+            List<String> header = job.format == ExportService.Format.CSV ? records.header() : null;
+            Target<?, ?> target = target(job.catalog);
+
+            List<Record> chunk = new ArrayList<>(chunkSize);
+            Record record;
+            while ((record = records.next()) != null) {
+                chunk.add(record);
+                job.rowsRead.incrementAndGet();
+                if (chunk.size() == chunkSize) {
+                    List<Record> batch = chunk;
+                    inFlight.add(parsers.submit(() -> parse(target, header, batch)));
+                    chunk = new ArrayList<>(chunkSize);
+                    // bounded read-ahead: wait for the oldest chunk before reading further
+                    if (inFlight.size() > parserThreads) {
+                        insert(job, target, inFlight.poll().get());
+                    }
+                }
+            }
+            if (!chunk.isEmpty()) {
+                List<Record> batch = chunk;
+                inFlight.add(parsers.submit(() -> parse(target, header, batch)));
+            }
+            while (!inFlight.isEmpty()) {
+                insert(job, target, inFlight.poll().get());
+            }
+            job.status = Status.DONE;
+        } catch (Exception e) {
+            inFlight.forEach(f -> f.cancel(true));
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+            job.message = message(cause);
+            job.status = Status.FAILED;
+            log.warn("Import {} of {} failed after {} rows: {}", job.id, job.fileName, job.rowsRead.get(), job.message);
+        } finally {
+            job.finishedAt = LocalDateTime.now();
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("Could not delete import file {}", file, e);
+            }
+        }
+        log.info("Import {} {}: {} imported, {} failed", job.id, job.status, job.imported.get(), job.failed.get());
+    }
+
+    private <D, E> Chunk parse(Target<D, E> target, List<String> header, List<Record> records) {
+        Chunk chunk = new Chunk(records.getFirst().line(), records.getLast().line());
+        for (Record record : records) {
+            try {
+                Map<String, Object> row = header != null
+                        ? csvRow(header, record)
+                        : jsonMapper.readValue(record.text(), ROW);
+                // imports always create, an id column is ignored
+                row.remove("id");
+                D dto = jsonMapper.convertValue(row, target.dtoType());
+                chunk.entities.add(target.validate().apply(dto));
+            } catch (RuntimeException e) {
+                chunk.errors.add(new ImportJobDTO.RowError(record.line(), message(e)));
+            }
+        }
+        return chunk;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <E> void insert(Job job, Target<?, E> target, Chunk chunk) {
+        chunk.errors.forEach(job::addError);
+        job.failed.addAndGet(chunk.errors.size());
+        if (chunk.entities.isEmpty()) return;
+
+        try {
+            target.insert().accept((List<E>) chunk.entities);
+            job.imported.addAndGet(chunk.entities.size());
+        } catch (RuntimeException e) {
+            job.addError(new ImportJobDTO.RowError(chunk.firstLine,
+                    "rows on lines " + chunk.firstLine + "-" + chunk.lastLine + " not inserted: " + message(e)));
+            job.failed.addAndGet(chunk.entities.size());
+        }
+    }
+
+    private Map<String, Object> csvRow(List<String> header, Record record) {
+        List<String> cells = splitCsv(record.text());
+        if (cells.size() > header.size()) {
+            throw new IllegalArgumentException("expected " + header.size() + " columns, got " + cells.size());
+        }
+        Map<String, Object> row = new HashMap<>();
+        for (int i = 0; i < cells.size(); i++) {
+            if (!cells.get(i).isEmpty()) {
+                row.put(header.get(i), cells.get(i));
+            }
+        }
+        return row;
+    }
+
+    private Target<?, ?> target(Catalog catalog) {
+        return switch (catalog) {
+            case TRANSPORTS -> new Target<>(TransportDTO.class, transportService::toValidatedEntity, transportService::insertAll);
+            case ACCOMMODATIONS -> new Target<>(AccommodationDTO.class, accommodationService::toValidatedEntity, accommodationService::insertAll);
+        };
+    }
+
+    // RFC 4180 fields: commas inside quotes, "" for a quote
+    static List<String> splitCsv(String line) {
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    cell.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    cell.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                cells.add(cell.toString().trim());
+                cell.setLength(0);
+            } else {
+                cell.append(c);
+            }
+        }
+        cells.add(cell.toString().trim());
+        return cells;
+    }
+
+    private static String message(Throwable e) {
+        String message = e instanceof JacksonException je ? je.getOriginalMessage() : e.getMessage();
+        if (message == null) message = e.getClass().getSimpleName();
+        return message.length() > 200 ? message.substring(0, 200) + "..." : message;
+    }
+
+    private void pruneFinishedJobs() {
+        List<Job> finished = jobs.values().stream()
+                .filter(j -> j.finishedAt != null)
+                .sorted(Comparator.comparing((Job j) -> j.finishedAt).reversed())
+                .toList();
+        finished.stream().skip(KEEP_FINISHED_JOBS).forEach(j -> jobs.remove(j.id));
+    }
+
+    private record Target<D, E>(Class<D> dtoType, Function<D, E> validate, Consumer<List<E>> insert) {
+    }
+
+    private record Record(long line, String text) {
+    }
+
+    private static final class Chunk {
+        final long firstLine;
+        final long lastLine;
+        final List<Object> entities = new ArrayList<>();
+        final List<ImportJobDTO.RowError> errors = new ArrayList<>();
+
+        Chunk(long firstLine, long lastLine) {
+            this.firstLine = firstLine;
+            this.lastLine = lastLine;
+        }
+    }
+
+    /**
+     * Reads one record at a time: a non-blank line, or for CSV several lines while a quoted
+     * field is still open. Remembers the line each record starts on.
+     */
+    private static final class RecordReader {
+        private final BufferedReader reader;
+        private final ExportService.Format format;
+        private long line;
+
+        RecordReader(BufferedReader reader, ExportService.Format format) {
+            this.reader = reader;
+            this.format = format;
+        }
+
+        List<String> header() throws IOException {
+            Record first = next();
+            if (first == null) {
+                throw new IllegalArgumentException("CSV file has no header row");
+            }
+            return splitCsv(first.text());
+        }
+
+        Record next() throws IOException {
+            String text;
+            do {
+                text = reader.readLine();
+                if (text == null) return null;
+                line++;
+                if (line == 1 && !text.isEmpty() && text.charAt(0) == '\uFEFF') {
+                    text = text.substring(1);
+                }
+            } while (text.isBlank());
+
+            long start = line;
+            if (format == ExportService.Format.CSV) {
+                StringBuilder record = new StringBuilder(text);
+                while (openQuote(record)) {
+                    String more = reader.readLine();
+                    if (more == null) break;
+                    line++;
+                    record.append('\n').append(more);
+                }
+                text = record.toString();
+            }
+            return new Record(start, text);
+        }
+
+        private static boolean openQuote(CharSequence text) {
+            int quotes = 0;
+            for (int i = 0; i < text.length(); i++) {
+                if (text.charAt(i) == '"') quotes++;
+            }
+            return quotes % 2 == 1;
+        }
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+        private final AtomicLong count;
+
+        CountingInputStream(InputStream in, AtomicLong count) {
+            super(in);
+            this.count = count;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) count.incrementAndGet();
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) count.addAndGet(n);
+            return n;
+        }
+    }
+
+    static final class Job {
+        final String id = UUID.randomUUID().toString();
+        final Catalog catalog;
+        final ExportService.Format format;
+        final String fileName;
+        final long totalBytes;
+        final LocalDateTime createdAt = LocalDateTime.now();
+
+        final AtomicLong bytesRead = new AtomicLong();
+        final AtomicLong rowsRead = new AtomicLong();
+        final AtomicLong imported = new AtomicLong();
+        final AtomicLong failed = new AtomicLong();
+        final List<ImportJobDTO.RowError> errors = new CopyOnWriteArrayList<>();
+
+        volatile Status status = Status.QUEUED;
+        volatile String message;
+        volatile LocalDateTime startedAt;
+        volatile LocalDateTime finishedAt;
+
+        Job(Catalog catalog, ExportService.Format format, String fileName, long totalBytes) {
+            this.catalog = catalog;
+            this.format = format;
+            this.fileName = fileName;
+            this.totalBytes = totalBytes;
+        }
+
+        // only the first errors are kept, the failed counter still counts every row
+        void addError(ImportJobDTO.RowError error) {
+            if (errors.size() < MAX_ERRORS) {
+                errors.add(error);
+            }
+        }
+
+        // by bytes read; reaches 100 only once every chunk is inserted
+        private int percent() {
+            if (status == Status.DONE) return 100;
+            if (totalBytes == 0) return 0;
+            return (int) Math.min(99, bytesRead.get() * 100 / totalBytes);
+        }
+
+        ImportJobDTO snapshot() {
+            ImportJobDTO dto = new ImportJobDTO();
+            dto.setId(id);
+            dto.setCatalog(catalog.name());
+            dto.setFormat(format.name());
+            dto.setFileName(fileName);
+            dto.setStatus(status.name());
+            dto.setTotalBytes(totalBytes);
+            dto.setBytesRead(bytesRead.get());
+            dto.setPercent(percent());
+            dto.setRowsRead(rowsRead.get());
+            dto.setImported(imported.get());
+            dto.setFailed(failed.get());
+            dto.setErrors(List.copyOf(errors));
+            dto.setMessage(message);
+            dto.setCreatedAt(createdAt);
+            dto.setStartedAt(startedAt);
+            dto.setFinishedAt(finishedAt);
+            return dto;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package project.planora_travelandbooking_system.service;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-catalog change counters used as ETags for the catalog GET endpoints. Writers call
+ * {@link #changed} and the counter moves once their transaction commits, so a client holding the
+ * current tag gets a 304 before any query runs or anything is serialized.
+ * Tags carry the startup time as well, so counters restarting from zero never repeat an old tag.
+ */
+@Component
+public class CatalogVersion {
+
+    public enum Catalog {
+        TRANSPORTS,
+        ACCOMMODATIONS,
+        // accommodation bookings, which decide what availableOnly lookups return
+        STAYS
+    }
+
+    private final String boot = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<Catalog, AtomicLong> versions = new EnumMap<>(Catalog.class);
+    private final Map<Catalog, AtomicLong> lastModified = new EnumMap<>(Catalog.class);
+
+    private final AtomicLong notModified = new AtomicLong();
+    private final AtomicLong served = new AtomicLong();
+
+    public CatalogVersion() {
+        long now = System.currentTimeMillis();
+        for (Catalog catalog : Catalog.values()) {
+            versions.put(catalog, new AtomicLong());
+            lastModified.put(catalog, new AtomicLong(now));
+        }
+    }
+
+    public void changed(Catalog catalog) {
+        TransactionCallbacks.afterCommit(() -> {
+            long now = System.currentTimeMillis();
+            // Last-Modified only has second precision, so every change moves it by at least a second
+            lastModified.get(catalog).updateAndGet(previous -> Math.max(now, previous + 1000));
+            versions.get(catalog).incrementAndGet();
+        });
+    }
+
+    /**
+     * Checks the request's If-None-Match / If-Modified-Since against the given catalogs and sets
+     * ETag, Last-Modified and Cache-Control on the response. Returns true when the caller should
+     * return without a body; Spring then answers 304. With no catalogs the tag only changes on
+     * restart, which suits the enum endpoints.
+     */
+    public boolean notModified(WebRequest request, Catalog... catalogs) {
+        StringBuilder etag = new StringBuilder("W/\"").append(boot);
+        long modified = 0;
+        for (Catalog catalog : catalogs) {
+            etag.append('-').append(versions.get(catalog).get());
+            modified = Math.max(modified, lastModified.get(catalog).get());
+        }
+        etag.append('"');
+
+        if (request instanceof ServletWebRequest servletRequest && servletRequest.getResponse() != null) {
+            // cacheable by the browser, but always revalidated
+            servletRequest.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        }
+
+        boolean unchanged = catalogs.length == 0
+                ? request.checkNotModified(etag.toString())
+                : request.checkNotModified(etag.toString(), modified);
+        (unchanged ? notModified : served).incrementAndGet();
+        return unchanged;
+    }
+
+    public long getVersion(Catalog catalog) {
+        return versions.get(catalog).get();
+    }
+
+    public long getNotModified() {
+        return notModified.get();
+    }
+
+    public long getServed() {
+        return served.get();
+    }
+}
@@ -0,0 +1,129 @@
+package project.planora_travelandbooking_system.service;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Bounded map with CLOCK (second chance) eviction. Reads only set a flag on the entry, so hits
+ * never take a lock; writers that push the map over its size run the clock hand, which skips
+ * flagged entries once and drops the first unflagged one, O(1) per insert amortized.
+ * Values are compared by identity in {@link #replace} and {@link #remove(Object, Object)}.
+ */
+public class ClockCache<K, V> {
+
+    private final IntSupplier maxSize;
+    private final ConcurrentHashMap<K, Node<K, V>> entries = new ConcurrentHashMap<>();
+    // every node ever inserted, in insertion order; nodes no longer in the map are dropped as the hand passes
+    private final Queue<Node<K, V>> ring = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger ringSize = new AtomicInteger();
+    private final ReentrantLock hand = new ReentrantLock();
+    private final AtomicLong evictions = new AtomicLong();
+
+    // read on every insert, so a size set after construction (@Value fields) still applies
+    public ClockCache(IntSupplier maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public V get(K key) {
+        Node<K, V> node = entries.get(key);
+        if (node == null) return null;
+        if (!node.referenced) node.referenced = true;
+        return node.value;
+    }
+
+    public void put(K key, V value) {
+        Node<K, V> node = new Node<>(key, value);
+        entries.put(key, node);
+        link(node);
+    }
+
+    /**
+     * Replaces the value only if the current one is {@code expected}; false when it was removed
+     * or replaced in the meantime.
+     */
+    public boolean replace(K key, V expected, V value) {
+        Node<K, V> current = entries.get(key);
+        if (current == null || current.value != expected) return false;
+        Node<K, V> node = new Node<>(key, value);
+        if (!entries.replace(key, current, node)) return false;
+        link(node);
+        return true;
+    }
+
+    public V remove(K key) {
+        Node<K, V> removed = entries.remove(key);
+        return removed != null ? removed.value : null;
+    }
+
+    public boolean remove(K key, V expected) {
+        Node<K, V> current = entries.get(key);
+        return current != null && current.value == expected && entries.remove(key, current);
+    }
+
+    // full scan, for periodic cleanup jobs rather than request paths
+    public void removeIf(Predicate<V> filter) {
+        entries.values().removeIf(node -> filter.test(node.value));
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    private void link(Node<K, V> node) {
+        ring.offer(node);
+        int linked = ringSize.incrementAndGet();
+        int max = maxSize.getAsInt();
+        // the ring also holds replaced and removed nodes; sweep them out once they outnumber the live ones
+        if (entries.size() > max || linked > 2 * Math.max(max, 16)) {
+            sweep(max);
+        }
+    }
+
+    private void sweep(int max) {
+        // one writer moves the hand; others carry on, the map is over its size by a few entries at most
+        if (!hand.tryLock()) return;
+        try {
+            // two passes are enough: the first clears every flag the second would stop at
+            for (int steps = 2 * ringSize.get(); steps > 0; steps--) {
+                boolean over = entries.size() > max;
+                if (!over && ringSize.get() <= entries.size() + 16) return;
+
+                Node<K, V> node = ring.poll();
+                if (node == null) return;
+                ringSize.decrementAndGet();
+                if (entries.get(node.key) != node) continue;
+
+                if (over && !node.referenced) {
+                    if (entries.remove(node.key, node)) evictions.incrementAndGet();
+                    continue;
+                }
+                node.referenced = false;
+                ring.offer(node);
+                ringSize.incrementAndGet();
+            }
+        } finally {
+            hand.unlock();
+        }
+    }
+
+    private static final class Node<K, V> {
+        final K key;
+        final V value;
+        volatile boolean referenced;
+
+        Node(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+}
@@ -1,39 +1,123 @@
 package project.planora_travelandbooking_system.service;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import project.planora_travelandbooking_system.repository.UserRepository;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
 @Service
 public class DbUserDetailService implements UserDetailsService {
 
     UserRepository userRepository;
 
+    @Value("${planora.security.user-cache.ttl-seconds:60}")
+    private long cacheTtlSeconds;
+
+    @Value("${planora.security.user-cache.max-size:10000}")
+    private int cacheMaxSize;
+
+    // normalized email -> user row snapshot. UserDetails is rebuilt on every call because
+    // ProviderManager erases the password on the instance it authenticated.
+    private final Map<String, CachedPrincipal> principals = new ConcurrentHashMap<>();
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong cacheMisses = new AtomicLong();
+
     public DbUserDetailService(UserRepository userRepository) {
         this.userRepository = userRepository;
     }
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        var u = userRepository.findByEmail(email.trim().toLowerCase())
-                .orElseThrow(() -> new UsernameNotFoundException(email));
+        String key = normalize(email);
+        long now = System.currentTimeMillis();
+
+        CachedPrincipal cached = principals.get(key);
+        if (cached != null && cached.expiresAtMillis() > now) {
+            cacheHits.incrementAndGet();
+            return cached.toUserDetails();
+        }
 
-        boolean accountNonLocked = !u.isDeleted();
-        boolean enabled = !u.isDeleted();
+        cacheMisses.incrementAndGet();
+        var u = userRepository.findByEmail(key)
+                .orElseThrow(() -> new UsernameNotFoundException(email));
 
         String role = u.isSuperAdmin() ? "SUPER_ADMIN" : u.getRole().name();
 
-        return org.springframework.security.core.userdetails.User.builder()
-                .username(u.getEmail())
-                .password(u.getPassword())
-                .roles(role)
-                .accountLocked(!accountNonLocked)
-                .disabled(!enabled)
-                .accountExpired(false)
-                .credentialsExpired(false)
-                .build();
+        CachedPrincipal loaded = new CachedPrincipal(
+                u.getEmail(),
+                u.getPassword(),
+                role,
+                u.isDeleted(),
+                now + cacheTtlSeconds * 1000
+        );
+
+        if (principals.size() >= cacheMaxSize) {
+            principals.values().removeIf(p -> p.expiresAtMillis() <= now);
+        }
+        if (principals.size() < cacheMaxSize) {
+            principals.put(key, loaded);
+        }
+
+        return loaded.toUserDetails();
+    }
+
+    /**
+     * Drops the cached principal now and again after commit, so a concurrent load
+     * that read the old row before the write committed cannot keep it around.
+     */
+    public void evict(String email) {
+        if (email == null) return;
+        String key = normalize(email);
+        principals.remove(key);
+        TransactionCallbacks.afterCommit(() -> principals.remove(key));
+    }
+
+    public void evictAll() {
+        principals.clear();
+    }
+
+    public long getCacheHits() {
+        return cacheHits.get();
+    }
+
+    public long getCacheMisses() {
+        return cacheMisses.get();
+    }
+
+    public int getCacheSize() {
+        return principals.size();
+    }
+
+    private String normalize(String email) {
+        return email.trim().toLowerCase();
+    }
+
+    private record CachedPrincipal(String email,
+                                   String password,
+                                   String role,
+                                   boolean deleted,
+                                   long expiresAtMillis) {
+
+        UserDetails toUserDetails() {
+            boolean accountNonLocked = !deleted;
+            boolean enabled = !deleted;
+
+            return org.springframework.security.core.userdetails.User.builder()
+                    .username(email)
+                    .password(password)
+                    .roles(role)
+                    .accountLocked(!accountNonLocked)
+                    .disabled(!enabled)
+                    .accountExpired(false)
+                    .credentialsExpired(false)
+                    .build();
+        }
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,138 @@
+package project.planora_travelandbooking_system.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import project.planora_travelandbooking_system.exception.UserAlreadyExistsException;
+import project.planora_travelandbooking_system.repository.EmailReservationRepository;
+import project.planora_travelandbooking_system.security.DigestBloomFilter;
+import project.planora_travelandbooking_system.security.TokenHashUtil;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Single source of truth for "is this email taken", covering current and historical emails.
+ * A Bloom filter answers the common "definitely free" case without a query; anything else
+ * costs one probe of the unique email index. The unique index is what actually guarantees
+ * uniqueness: {@link #reserve} loses cleanly if another request got there first.
+ */
+@Slf4j
+@Service
+public class EmailReservationService {
+
+    private final EmailReservationRepository repo;
+
+    @Value("${planora.email-reservations.min-capacity:100000}")
+    private long minCapacity;
+
+    @Value("${planora.email-reservations.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    private volatile DigestBloomFilter current;
+    private volatile DigestBloomFilter building;
+
+    private final AtomicLong filterHits = new AtomicLong();
+    private final AtomicLong dbProbes = new AtomicLong();
+
+    public EmailReservationService(EmailReservationRepository repo) {
+        this.repo = repo;
+    }
+
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        int users = repo.backfillFromUsers();
+        int history = repo.backfillFromEmailHistory();
+        if (users + history > 0) {
+            log.info("Backfilled {} email reservations", users + history);
+        }
+        rebuild();
+    }
+
+    // released reservations stay in the filter until the next rebuild, they only cost a probe
+    @Transactional(readOnly = true)
+    @Scheduled(fixedDelayString = "${planora.email-reservations.rebuild-interval-ms:86400000}",
+            initialDelayString = "${planora.email-reservations.rebuild-interval-ms:86400000}")
+    public void compact() {
+        rebuild();
+    }
+
+    public boolean isAvailable(String email) {
+        String key = normalize(email);
+
+        DigestBloomFilter f = current;
+        if (f != null && !f.mightContain(TokenHashUtil.sha256(key))) {
+            filterHits.incrementAndGet();
+            return true;
+        }
+
+        dbProbes.incrementAndGet();
+        return !repo.existsByEmail(key);
+    }
+
+    /**
+     * Reserves the email for the user inside the caller's transaction, throwing when it is
+     * already taken so the surrounding change rolls back.
+     */
+    public void reserve(String email, Long userId) {
+        String key = normalize(email);
+        if (repo.reserve(key, userId, LocalDateTime.now()) == 0) {
+            throw new UserAlreadyExistsException("Email is already registered or in history");
+        }
+        // a rolled-back reservation only leaves a false positive behind
+        add(TokenHashUtil.sha256(key));
+    }
+
+    public void releaseAllForUsers(Collection<Long> userIds) {
+        if (userIds.isEmpty()) return;
+        repo.deleteByUserIdIn(userIds);
+    }
+
+    private void add(String digest) {
+        DigestBloomFilter f = current;
+        if (f != null) f.put(digest);
+
+        DigestBloomFilter b = building;
+        if (b != null) b.put(digest);
+    }
+
+    private synchronized void rebuild() {
+        long count = repo.count();
+        DigestBloomFilter next = new DigestBloomFilter(Math.max(minCapacity, count * 2), falsePositiveRate);
+
+        building = next;
+        try (Stream<String> emails = repo.streamAllEmails()) {
+            emails.forEach(e -> next.put(TokenHashUtil.sha256(e)));
+        } catch (RuntimeException e) {
+            building = null;
+            throw e;
+        }
+        current = next;
+        building = null;
+
+        log.info("Email reservation filter built with {} emails", count);
+    }
+
+    private String normalize(String email) {
+        return email.trim().toLowerCase();
+    }
+
+    public boolean isReady() {
+        return current != null;
+    }
+
+    public long getFilterHits() {
+        return filterHits.get();
+    }
+
+    public long getDbProbes() {
+        return dbProbes.get();
+    }
+}
@@ -0,0 +1,221 @@
+package project.planora_travelandbooking_system.service;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import project.planora_travelandbooking_system.repository.BookingRepository;
+import project.planora_travelandbooking_system.repository.TripRepository;
+import project.planora_travelandbooking_system.repository.UserRepository;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Admin exports. Rows come from a forward-only database cursor over scalar projections and are
+ * written to the output as they arrive, so memory use does not depend on the number of rows.
+ * Each export must run inside one read-only transaction: PostgreSQL only streams with a fetch
+ * size when autocommit is off.
+ */
+@Service
+public class ExportService {
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format parse(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase());
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("format must be csv or ndjson");
+            }
+        }
+    }
+
+    // createdAt was backfilled to 1970-01-01, so these bounds cover every row
+    public static final LocalDateTime EARLIEST = LocalDateTime.of(1970, 1, 1, 0, 0);
+    public static final LocalDateTime LATEST = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+    private static final List<String> BOOKING_COLUMNS = List.of("id", "tripId", "bookingType", "status",
+            "startDate", "endDate", "createdAt", "totalPrice", "transportId", "seatNumber", "accommodationId");
+    private static final List<String> TRIP_COLUMNS = List.of("id", "title", "description", "startDate",
+            "endDate", "userId", "createdAt");
+    private static final List<String> USER_COLUMNS = List.of("id", "email", "role", "superAdmin",
+            "createdAt", "deleted", "deletionDate");
+
+    private final BookingRepository bookingRepository;
+    private final TripRepository tripRepository;
+    private final UserRepository userRepository;
+
+    private final AtomicLong exports = new AtomicLong();
+    private final AtomicLong rowsExported = new AtomicLong();
+    private final AtomicLong lastExportMillis = new AtomicLong();
+
+    public ExportService(BookingRepository bookingRepository,
+                         TripRepository tripRepository,
+                         UserRepository userRepository) {
+        this.bookingRepository = bookingRepository;
+        this.tripRepository = tripRepository;
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * Writes bookings created in [from, to) oldest first and returns the number of rows written.
+     * The output is flushed but left open.
+     */
+    @Transactional(readOnly = true)
+    public long exportBookings(OutputStream out, Format format, LocalDateTime from, LocalDateTime to) throws IOException {
+        try (Stream<BookingRepository.BookingListView> rows = bookingRepository.streamListViews(range(from, EARLIEST), range(to, LATEST))) {
+            return write(out, format, BOOKING_COLUMNS, rows.map(b -> new Object[]{
+                    b.getId(), b.getTripId(), b.getBookingType(), b.getStatus(), b.getStartDate(), b.getEndDate(),
+                    b.getCreatedAt(), b.getTotalPrice(), b.getTransportId(), b.getSeatNumber(), b.getAccommodationId()
+            }));
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public long exportTrips(OutputStream out, Format format, LocalDateTime from, LocalDateTime to) throws IOException {
+        try (Stream<TripRepository.TripListView> rows = tripRepository.streamListViews(range(from, EARLIEST), range(to, LATEST))) {
+            return write(out, format, TRIP_COLUMNS, rows.map(t -> new Object[]{
+                    t.getId(), t.getTitle(), t.getDescription(), t.getStartDate(), t.getEndDate(),
+                    t.getUserId(), t.getCreatedAt()
+            }));
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public long exportUsers(OutputStream out, Format format) throws IOException {
+        try (Stream<UserRepository.UserExportView> rows = userRepository.streamExportViews()) {
+            return write(out, format, USER_COLUMNS, rows.map(u -> new Object[]{
+                    u.getId(), u.getEmail(), u.getRole(), u.isSuperAdmin(), u.getCreatedAt(),
+                    u.isDeleted(), u.getDeletionDate()
+            }));
+        }
+    }
+
+    private long write(OutputStream out, Format format, List<String> columns, Stream<Object[]> rows) throws IOException {
+        long start = System.nanoTime();
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        long count = 0;
+
+        if (format == Format.CSV) {
+            writeCsvRow(writer, columns.toArray());
+        }
+        Iterator<Object[]> it = rows.iterator();
+        while (it.hasNext()) {
+            Object[] row = it.next();
+            if (format == Format.CSV) {
+                writeCsvRow(writer, row);
+            } else {
+                writeJsonRow(writer, columns, row);
+            }
+            count++;
+        }
+        writer.flush();
+
+        exports.incrementAndGet();
+        rowsExported.addAndGet(count);
+        lastExportMillis.set((System.nanoTime() - start) / 1_000_000);
+        return count;
+    }
+
+    static void writeCsvRow(Writer writer, Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) writer.write(',');
+            writer.write(csvCell(values[i]));
+        }
+        writer.write("\r\n");
+    }
+
+    static String csvCell(Object value) {
+        if (value == null) return "";
+        String text = value.toString();
+        if (value instanceof String && !text.isEmpty() && "=+-@".indexOf(text.charAt(0)) >= 0) {
+            // keeps spreadsheets from evaluating user-entered text as a formula
+            text = "'" + text;
+        }
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+        return text;
+    }
+
+    static void writeJsonRow(Writer writer, List<String> columns, Object[] values) throws IOException {
+        writer.write('{');
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) writer.write(',');
+            writer.write('"');
+            writer.write(columns.get(i));
+            writer.write("\":");
+            Object value = values[i];
+            if (value == null || value instanceof Number || value instanceof Boolean) {
+                writer.write(String.valueOf(value));
+            } else {
+                writeJsonString(writer, value.toString());
+            }
+        }
+        writer.write("}\n");
+    }
+
+    private static void writeJsonString(Writer writer, String text) throws IOException {
+        writer.write('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"' -> writer.write("\\\"");
+                case '\\' -> writer.write("\\\\");
+                case '\n' -> writer.write("\\n");
+                case '\r' -> writer.write("\\r");
+                case '\t' -> writer.write("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        writer.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        writer.write(c);
+                    }
+                }
+            }
+        }
+        writer.write('"');
+    }
+
+    private static LocalDateTime range(LocalDateTime value, LocalDateTime fallback) {
+        return value != null ? value : fallback;
+    }
+
+    public long getExports() {
+        return exports.get();
+    }
+
+    public long getRowsExported() {
+        return rowsExported.get();
+    }
+
+    public long getLastExportMillis() {
+        return lastExportMillis.get();
+    }
+}
@@ -1,53 +1,112 @@
 package project.planora_travelandbooking_system.service;
 
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import project.planora_travelandbooking_system.model.JwtRefresher;
 import project.planora_travelandbooking_system.model.User;
 import project.planora_travelandbooking_system.repository.JwtRefresherRepository;
+import project.planora_travelandbooking_system.security.RefreshTokenBloomFilter;
 import project.planora_travelandbooking_system.security.TokenHashUtil;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Base64;
 import java.security.SecureRandom;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 public class JwtRefreshService {
 
-    private final UserService userService;
     private final JwtRefresherRepository repo;
+    private final RefreshTokenBloomFilter tokenFilter;
     private static final SecureRandom random = new SecureRandom();
 
-    public JwtRefreshService(UserService userService, JwtRefresherRepository jwtRefresherRepository) {
-        this.userService = userService;
+    // max ids per "update ... where id in (...)" when flushing lastUsedAt
+    @Value("${planora.refresh.last-used.batch-size:500}")
+    private int lastUsedBatchSize;
+
+    // refresher id -> last time it was presented, written by flushLastUsed()
+    private final Map<Long, LocalDateTime> pendingLastUsed = new ConcurrentHashMap<>();
+    private final AtomicLong lastUsedFlushed = new AtomicLong();
+
+    public JwtRefreshService(JwtRefresherRepository jwtRefresherRepository,
+                             RefreshTokenBloomFilter tokenFilter) {
         this.repo = jwtRefresherRepository;
+        this.tokenFilter = tokenFilter;
     }
 
     public String createToken(User user, int daysValid) {
         String refreshToken = generateRandomToken();
+        save(user, refreshToken, LocalDateTime.now().plusDays(daysValid));
+        return refreshToken;
+    }
+
+    /**
+     * Revokes {@code token} and issues its replacement in one transaction of two statements: the
+     * revoke, which also returns the owner, and the insert. The replacement is saved like any
+     * other token, so its id comes from the pooled sequence generator (one fetch per 50 ids).
+     * Invalid, revoked, expired or concurrently rotated tokens all throw "Invalid refresh token".
+     * The returned user is detached and only carries what {@code JwtUtil.generateToken} reads.
+     */
+    @Transactional
+    public RotatedToken rotateToken(String token, int daysValid) {
+        String hash = TokenHashUtil.sha256(token);
+        if (!tokenFilter.mightContain(hash)) {
+            throw new RuntimeException("Invalid refresh token");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        User user = repo.revokeActiveToken(hash, now)
+                .map(JwtRefreshService::toUser)
+                .orElseThrow(() -> new RuntimeException("Invalid refresh token"));
+
+        String newToken = generateRandomToken();
+        save(user, newToken, now.plusDays(daysValid));
+        return new RotatedToken(user, newToken);
+    }
+
+    private static User toUser(JwtRefresherRepository.TokenOwnerView owner) {
+        User user = new User();
+        user.setId(owner.getId());
+        user.setEmail(owner.getEmail());
+        user.setRole(owner.getRole() != null ? User.Role.valueOf(owner.getRole()) : null);
+        user.setSuperAdmin(owner.isSuperAdmin());
+        user.setSecurityVersion(owner.getSecurityVersion());
+        return user;
+    }
+
+    private void save(User user, String refreshToken, LocalDateTime expiresAt) {
         String hash = TokenHashUtil.sha256(refreshToken);
 
         JwtRefresher entity = new JwtRefresher();
         entity.setUser(user);
         entity.setTokenHash(hash);
-        entity.setExpiresAt(LocalDateTime.now().plusDays(daysValid));
+        entity.setExpiresAt(expiresAt);
         entity.setRevoked(false);
 
+        tokenFilter.add(hash);
         repo.save(entity);
-        return refreshToken;
     }
 
+    // read-only: expired rows are left for the purge job, lastUsedAt is written in batches
     public JwtRefresher validateToken(String token) {
         String hashedToken = TokenHashUtil.sha256(token);
+        if (!tokenFilter.mightContain(hashedToken)) {
+            throw new RuntimeException("Invalid refresh token");
+        }
         JwtRefresher stored = repo.findByTokenHashAndRevokedFalse(hashedToken)
                 .orElseThrow(() -> new RuntimeException("Invalid refresh token"));
 
         if (stored.getExpiresAt().isBefore(LocalDateTime.now())) {
-            stored.setRevoked(true);
-            repo.save(stored);
             throw new RuntimeException("Refresh token expired");
         }
-        stored.setLastUsedAt(LocalDateTime.now());
-        repo.save(stored);
+        pendingLastUsed.put(stored.getId(), LocalDateTime.now());
 
         return stored;
     }
@@ -60,10 +119,52 @@ public class JwtRefreshService {
     public int revokeAllForUser(Long userId) {
         return repo.revokeAllActiveByUserId(userId);
     }
+
+    /**
+     * Writes buffered lastUsedAt values. Each chunk is stamped with its newest timestamp,
+     * so lastUsedAt is accurate to the flush interval.
+     */
+    @Scheduled(fixedDelayString = "${planora.refresh.last-used.flush-interval-ms:30000}")
+    @PreDestroy
+    public void flushLastUsed() {
+        if (pendingLastUsed.isEmpty()) return;
+
+        List<Long> ids = new ArrayList<>();
+        LocalDateTime usedAt = null;
+
+        for (Long id : pendingLastUsed.keySet()) {
+            LocalDateTime at = pendingLastUsed.remove(id);
+            if (at == null) continue;
+
+            ids.add(id);
+            if (usedAt == null || at.isAfter(usedAt)) usedAt = at;
+
+            if (ids.size() >= lastUsedBatchSize) {
+                lastUsedFlushed.addAndGet(repo.touchLastUsed(ids, usedAt));
+                ids = new ArrayList<>();
+                usedAt = null;
+            }
+        }
+        if (!ids.isEmpty()) {
+            lastUsedFlushed.addAndGet(repo.touchLastUsed(ids, usedAt));
+        }
+    }
+
+    public int getPendingLastUsed() {
+        return pendingLastUsed.size();
+    }
+
+    public long getLastUsedFlushed() {
+        return lastUsedFlushed.get();
+    }
+
     private String generateRandomToken() {
         byte[] bytes = new byte[64];
         random.nextBytes(bytes);
         return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
     }
 
-}
\ No newline at end of file
+    public record RotatedToken(User user, String refreshToken) {
+    }
+
+}
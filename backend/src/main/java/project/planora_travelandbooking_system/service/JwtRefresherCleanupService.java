@@ -0,0 +1,116 @@
+package project.planora_travelandbooking_system.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import project.planora_travelandbooking_system.repository.JwtRefresherRepository;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Purges expired and revoked refresh tokens in small chunks, each chunk in its own transaction:
+ * first expired rows, then revoked ones, each with a delete its own index can serve.
+ * The nightly trigger deletes the first chunk and every following tick deletes one more, so the
+ * job never competes with login traffic for long and never holds the shared scheduler thread
+ * between chunks.
+ */
+@Slf4j
+@Service
+public class JwtRefresherCleanupService {
+
+    private final JwtRefresherRepository repo;
+
+    // rows expired/revoked for less than this are kept
+    @Value("${planora.refresh.purge.retention-days:7}")
+    private int retentionDays;
+
+    @Value("${planora.refresh.purge.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${planora.refresh.purge.max-batches:500}")
+    private int maxBatches;
+
+    // state of the run in progress; cutoff is null when no run is in progress
+    private LocalDateTime cutoff;
+    private boolean purgingRevoked;
+    private int runBatches;
+    private long runDeleted;
+    private long runStarted;
+
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong totalDeleted = new AtomicLong();
+    private volatile long lastRunDeleted;
+    private volatile long lastRunMillis;
+
+    public JwtRefresherCleanupService(JwtRefresherRepository repo) {
+        this.repo = repo;
+    }
+
+    @Scheduled(cron = "${planora.refresh.purge.cron:0 30 3 * * ?}")
+    public synchronized void purgeExpiredTokens() {
+        if (cutoff != null) return;
+
+        cutoff = LocalDateTime.now().minusDays(retentionDays);
+        purgingRevoked = false;
+        runBatches = 0;
+        runDeleted = 0;
+        runStarted = System.currentTimeMillis();
+        purgeNextBatch();
+    }
+
+    // the delay between ticks is the pause between chunks; idle ticks return straight away
+    @Scheduled(fixedDelayString = "${planora.refresh.purge.pause-ms:100}")
+    public synchronized void purgeNextBatch() {
+        if (cutoff == null) return;
+
+        boolean done = true;
+        try {
+            int count = purgingRevoked
+                    ? repo.purgeRevokedBatch(cutoff, batchSize)
+                    : repo.purgeExpiredBatch(cutoff, batchSize);
+            runDeleted += count;
+            totalDeleted.addAndGet(count);
+
+            // a short chunk ends the expired phase, and in the revoked phase the run
+            boolean phaseDone = count < batchSize;
+            if (phaseDone && !purgingRevoked) {
+                purgingRevoked = true;
+                phaseDone = false;
+            }
+            done = ++runBatches >= maxBatches || phaseDone;
+        } finally {
+            if (done) finishRun();
+        }
+    }
+
+    private void finishRun() {
+        cutoff = null;
+        lastRunDeleted = runDeleted;
+        lastRunMillis = System.currentTimeMillis() - runStarted;
+        runs.incrementAndGet();
+
+        log.info("Purged {} refresh tokens in {} ms", runDeleted, lastRunMillis);
+    }
+
+    public synchronized boolean isRunning() {
+        return cutoff != null;
+    }
+
+    public long getRuns() {
+        return runs.get();
+    }
+
+    public long getTotalDeleted() {
+        return totalDeleted.get();
+    }
+
+    public long getLastRunDeleted() {
+        return lastRunDeleted;
+    }
+
+    public long getLastRunMillis() {
+        return lastRunMillis;
+    }
+}
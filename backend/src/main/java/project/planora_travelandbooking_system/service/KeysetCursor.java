@@ -0,0 +1,63 @@
+package project.planora_travelandbooking_system.service;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import project.planora_travelandbooking_system.dto.CursorSlice;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Position in a list ordered newest first by (createdAt, id). Clients only see it as an opaque
+ * token; the next page is everything strictly behind it, so it costs an index range scan
+ * instead of an OFFSET plus COUNT(*).
+ */
+public record KeysetCursor(LocalDateTime createdAt, Long id) {
+
+    // sorts behind no real row, so the first page runs the same query as the following ones
+    public static final KeysetCursor START = new KeysetCursor(LocalDateTime.of(9999, 12, 31, 0, 0), Long.MAX_VALUE);
+
+    // pageSize comes straight from the query string; limit and slice both clamp it to 1..MAX_SIZE
+    static final int MAX_SIZE = 1000;
+
+    public static KeysetCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return START;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new KeysetCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    public String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // one row more than requested tells whether there is a next page without counting
+    public static Pageable limit(int size) {
+        return PageRequest.ofSize(clamp(size) + 1);
+    }
+
+    public static <R, T> CursorSlice<T> slice(List<R> rows, int size,
+                                              Function<R, KeysetCursor> position,
+                                              Function<R, T> mapper) {
+        size = clamp(size);
+        boolean hasNext = rows.size() > size;
+        List<R> page = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? position.apply(page.get(page.size() - 1)).encode() : null;
+        return new CursorSlice<>(page.stream().map(mapper).toList(), nextCursor, hasNext);
+    }
+
+    private static int clamp(int size) {
+        return Math.max(1, Math.min(size, MAX_SIZE));
+    }
+}
@@ -0,0 +1,24 @@
+package project.planora_travelandbooking_system.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import project.planora_travelandbooking_system.model.Booking;
+
+// discount on the whole stay from a number of nights on
+@Order(30)
+@Component
+public class LengthOfStayPricingRule implements PricingRule {
+
+    @Value("${planora.pricing.length-of-stay.min-nights:7}")
+    private int minNights = 7;
+
+    @Value("${planora.pricing.length-of-stay.discount-percent:0}")
+    private double discountPercent;
+
+    @Override
+    public double apply(Query query, double total) {
+        if (query.type() != Booking.BookingType.ACCOMMODATION || query.nights() < minNights) return total;
+        return total * (1 - discountPercent / 100);
+    }
+}
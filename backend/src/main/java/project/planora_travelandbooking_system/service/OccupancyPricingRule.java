@@ -0,0 +1,29 @@
+package project.planora_travelandbooking_system.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import project.planora_travelandbooking_system.model.Booking;
+
+// markup on transports once most of their seats are taken
+@Order(20)
+@Component
+public class OccupancyPricingRule implements PricingRule {
+
+    @Value("${planora.pricing.occupancy.threshold-percent:80}")
+    private int thresholdPercent = 80;
+
+    @Value("${planora.pricing.occupancy.markup-percent:0}")
+    private double markupPercent;
+
+    @Override
+    public double apply(Query query, double total) {
+        if (query.type() != Booking.BookingType.TRANSPORT || query.occupancyPercent() < thresholdPercent) return total;
+        return total * (1 + markupPercent / 100);
+    }
+
+    @Override
+    public boolean usesOccupancy() {
+        return markupPercent != 0;
+    }
+}
@@ -0,0 +1,99 @@
+package project.planora_travelandbooking_system.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import project.planora_travelandbooking_system.exception.PasswordHashingBusyException;
+import project.planora_travelandbooking_system.model.User;
+import project.planora_travelandbooking_system.repository.UserRepository;
+import project.planora_travelandbooking_system.security.PasswordHashingExecutor;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rehashes a user's password to the current {@link project.planora_travelandbooking_system.security.PasswordEncoderProfile}
+ * after a successful login, when the raw password is known. The hash is computed in the background
+ * on the hashing pool and skipped when that pool is busy; the next login simply tries again.
+ * The conditional update runs on a single writer thread, never on a hashing thread.
+ */
+@Slf4j
+@Service
+public class PasswordUpgradeService {
+
+    private static final int MAX_QUEUED_WRITES = 256;
+
+    private final PasswordEncoder passwordEncoder;
+    private final UserRepository userRepository;
+    private final DbUserDetailService userDetailService;
+    private final PasswordHashingExecutor hashingExecutor;
+    private final ThreadPoolExecutor writer;
+
+    private final AtomicLong upgraded = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+
+    public PasswordUpgradeService(PasswordEncoder passwordEncoder,
+                                  UserRepository userRepository,
+                                  DbUserDetailService userDetailService,
+                                  PasswordHashingExecutor hashingExecutor) {
+        this.passwordEncoder = passwordEncoder;
+        this.userRepository = userRepository;
+        this.userDetailService = userDetailService;
+        this.hashingExecutor = hashingExecutor;
+        this.writer = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(MAX_QUEUED_WRITES),
+                r -> {
+                    Thread t = new Thread(r, "password-upgrade");
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writer.shutdown();
+    }
+
+    public void upgradeIfNeeded(User user, String rawPassword) {
+        String currentHash = user.getPassword();
+        if (currentHash == null || rawPassword == null || !passwordEncoder.upgradeEncoding(currentHash)) {
+            return;
+        }
+
+        Long userId = user.getId();
+        String email = user.getEmail();
+
+        hashingExecutor.submitBackground(() -> passwordEncoder.encode(rawPassword))
+                .thenAcceptAsync(newHash -> store(userId, email, currentHash, newHash), writer)
+                .exceptionally(e -> {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    if (cause instanceof PasswordHashingBusyException || cause instanceof RejectedExecutionException) {
+                        skipped.incrementAndGet();
+                    } else {
+                        log.warn("Password rehash failed for userId={}", userId, cause);
+                    }
+                    return null;
+                });
+    }
+
+    private void store(Long userId, String email, String currentHash, String newHash) {
+        if (userRepository.updatePasswordIfUnchanged(userId, currentHash, newHash) == 1) {
+            upgraded.incrementAndGet();
+            userDetailService.evict(email);
+        }
+    }
+
+    public long getUpgraded() {
+        return upgraded.get();
+    }
+
+    public long getSkipped() {
+        return skipped.get();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,34 @@
+package project.planora_travelandbooking_system.service;
+
+import project.planora_travelandbooking_system.model.Booking;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * One step of {@link PricingService}. Rules run in {@code @Order} order, each on the total the
+ * previous one returned, and must depend on nothing but the query: their results are cached
+ * for the lifetime of the application, so rule settings cannot change at runtime.
+ */
+public interface PricingRule {
+
+    double apply(Query query, double total);
+
+    // asked before a transport is priced; the seat count is only read when some rule needs it
+    default boolean usesOccupancy() {
+        return false;
+    }
+
+    /**
+     * What is being priced. For a stay basePrice is the nightly rate and [from, to) the nights;
+     * for a transport it is the fare and from/to the departure and arrival days.
+     * occupancyPercent is the share of seats taken, 0 for stays.
+     */
+    record Query(Booking.BookingType type, Long resourceId, double basePrice,
+                 LocalDate from, LocalDate to, int occupancyPercent) {
+
+        public long nights() {
+            return type == Booking.BookingType.ACCOMMODATION ? ChronoUnit.DAYS.between(from, to) : 0;
+        }
+    }
+}
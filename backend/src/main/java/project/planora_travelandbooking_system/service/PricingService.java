@@ -0,0 +1,109 @@
+package project.planora_travelandbooking_system.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import project.planora_travelandbooking_system.model.Booking;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Booking prices: the catalog price run through every {@link PricingRule}, rounded to cents.
+ * Quotes are cached by resource, base price, dates and occupancy, and searches and bookings ask
+ * the same cache, so the price shown in a search is the price the booking gets. Catalog edits
+ * change the base price and therefore the key; rule settings are fixed at startup.
+ */
+@Service
+public class PricingService {
+
+    private final List<PricingRule> rules;
+    private final boolean usesOccupancy;
+
+    @Value("${planora.pricing.quote-cache.max-size:50000}")
+    private int maxSize = 50_000;
+
+    private final Map<PricingRule.Query, Double> quotes = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public PricingService(List<PricingRule> rules) {
+        this.rules = List.copyOf(rules);
+        this.usesOccupancy = rules.stream().anyMatch(PricingRule::usesOccupancy);
+    }
+
+    /**
+     * Total for the nights [checkIn, checkOut); a stay always counts at least one night.
+     */
+    public double quoteStay(Long accommodationId, double pricePerNight, LocalDate checkIn, LocalDate checkOut) {
+        LocalDate to = checkOut.isAfter(checkIn) ? checkOut : checkIn.plusDays(1);
+        return quote(new PricingRule.Query(Booking.BookingType.ACCOMMODATION, accommodationId, pricePerNight,
+                checkIn, to, 0));
+    }
+
+    /**
+     * Fare for one seat. seatsAvailable may be null when {@link #usesOccupancy()} is false.
+     * A transport without a departure time cannot be priced: the quote depends on the travel day.
+     */
+    public double quoteSeat(Long transportId, double price, LocalDateTime departure, LocalDateTime arrival,
+                            int capacity, Integer seatsAvailable) {
+        if (departure == null) {
+            throw new IllegalArgumentException("Transport has no departure time");
+        }
+        LocalDate from = departure.toLocalDate();
+        LocalDate to = arrival != null ? arrival.toLocalDate() : from;
+        return quote(new PricingRule.Query(Booking.BookingType.TRANSPORT, transportId, price, from, to,
+                occupancyPercent(capacity, seatsAvailable)));
+    }
+
+    // lets callers skip reading the seat counter when no rule looks at it
+    public boolean usesOccupancy() {
+        return usesOccupancy;
+    }
+
+    private double quote(PricingRule.Query query) {
+        Double cached = quotes.get(query);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached;
+        }
+
+        misses.incrementAndGet();
+        double base = query.type() == Booking.BookingType.ACCOMMODATION
+                ? query.nights() * query.basePrice()
+                : query.basePrice();
+        double total = base;
+        for (PricingRule rule : rules) {
+            total = rule.apply(query, total);
+        }
+        total = Math.round(Math.max(0, total) * 100) / 100.0;
+
+        // quotes are cheap to recompute, so a full cache just starts over
+        if (quotes.size() >= maxSize) {
+            quotes.clear();
+        }
+        quotes.put(query, total);
+        return total;
+    }
+
+    private int occupancyPercent(int capacity, Integer seatsAvailable) {
+        if (!usesOccupancy || seatsAvailable == null || capacity <= 0) return 0;
+        int taken = Math.max(0, capacity - seatsAvailable);
+        return (int) Math.min(100, taken * 100L / capacity);
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public int getSize() {
+        return quotes.size();
+    }
+}
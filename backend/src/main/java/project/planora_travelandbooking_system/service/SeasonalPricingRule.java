@@ -0,0 +1,39 @@
+package project.planora_travelandbooking_system.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import project.planora_travelandbooking_system.model.Booking;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+// peak-month markup: per night for stays, by departure day for transports
+@Order(10)
+@Component
+public class SeasonalPricingRule implements PricingRule {
+
+    @Value("${planora.pricing.peak-months:6,7,8,12}")
+    private Set<Integer> peakMonths = Set.of(6, 7, 8, 12);
+
+    @Value("${planora.pricing.peak-markup-percent:0}")
+    private double markupPercent;
+
+    @Override
+    public double apply(Query query, double total) {
+        if (markupPercent == 0) return total;
+
+        if (query.type() == Booking.BookingType.TRANSPORT) {
+            return isPeak(query.from()) ? total * (1 + markupPercent / 100) : total;
+        }
+        long peakNights = 0;
+        for (LocalDate night = query.from(); night.isBefore(query.to()); night = night.plusDays(1)) {
+            if (isPeak(night)) peakNights++;
+        }
+        return total + peakNights * query.basePrice() * markupPercent / 100;
+    }
+
+    private boolean isPeak(LocalDate day) {
+        return peakMonths.contains(day.getMonthValue());
+    }
+}
@@ -0,0 +1,26 @@
+package project.planora_travelandbooking_system.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public final class TransactionCallbacks {
+    private TransactionCallbacks() {
+    }
+
+    /**
+     * Runs the action once the current transaction has committed, or right away when there is none.
+     * Used to keep in-memory state from seeing writes that end up rolled back.
+     */
+    public static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,69 @@
+package project.planora_travelandbooking_system.service;
+
+import org.springframework.stereotype.Component;
+import project.planora_travelandbooking_system.exception.BookingConflictException;
+import project.planora_travelandbooking_system.repository.TransportRepository;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Seat counter and seat bitmap of a transport, changed only by conditional single-row updates.
+ * Must run inside the booking transaction so a failed booking gives its seat back on rollback.
+ */
+@Component
+public class TransportSeatInventory {
+
+    private final TransportRepository transportRepository;
+    private final CatalogVersion catalogVersion;
+
+    private final AtomicLong taken = new AtomicLong();
+    private final AtomicLong soldOut = new AtomicLong();
+
+    public TransportSeatInventory(TransportRepository transportRepository, CatalogVersion catalogVersion) {
+        this.transportRepository = transportRepository;
+        this.catalogVersion = catalogVersion;
+    }
+
+    public void validateSeat(int capacity, Integer seatNumber) {
+        if (seatNumber != null && (seatNumber < 1 || seatNumber > capacity)) {
+            throw new RuntimeException("Seat must be between 1 and " + capacity);
+        }
+    }
+
+    /**
+     * Takes the given seat, or any seat when seatNumber is null. Throws {@link BookingConflictException}
+     * when the transport is full or the seat is already taken.
+     */
+    public void take(Long transportId, Integer seatNumber) {
+        int updated = seatNumber == null
+                ? transportRepository.takeAnySeat(transportId)
+                : transportRepository.takeSeat(transportId, seatNumber - 1);
+
+        if (updated == 0) {
+            soldOut.incrementAndGet();
+            throw new BookingConflictException(seatNumber == null
+                    ? "No seats left on this transport"
+                    : "Seat " + seatNumber + " is already taken");
+        }
+        taken.incrementAndGet();
+        // seatsAvailable is part of the transport listing
+        catalogVersion.changed(CatalogVersion.Catalog.TRANSPORTS);
+    }
+
+    public void release(Long transportId, Integer seatNumber) {
+        if (seatNumber == null) {
+            transportRepository.releaseAnySeat(transportId);
+        } else {
+            transportRepository.releaseSeat(transportId, seatNumber - 1);
+        }
+        catalogVersion.changed(CatalogVersion.Catalog.TRANSPORTS);
+    }
+
+    public long getTaken() {
+        return taken.get();
+    }
+
+    public long getSoldOut() {
+        return soldOut.get();
+    }
+}
@@ -1,38 +1,58 @@
 package project.planora_travelandbooking_system.service;
 
+import jakarta.persistence.criteria.Predicate;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import project.planora_travelandbooking_system.dto.CursorSlice;
 import project.planora_travelandbooking_system.dto.TransportDTO;
+import project.planora_travelandbooking_system.dto.TransportSearchCriteria;
 import project.planora_travelandbooking_system.model.Transport;
 import project.planora_travelandbooking_system.repository.TransportRepository;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
 
+@Slf4j
 @Service
 public class TransportService {
 
     private final TransportRepository transportRepository;
+    private final CatalogCache catalogCache;
+    private final CatalogVersion catalogVersion;
+    private final PricingService pricingService;
+
+    @Value("${planora.transport.search.slow-ms:200}")
+    private long slowSearchMillis = 200;
+
+    private final AtomicLong searches = new AtomicLong();
+    private final AtomicLong slowSearches = new AtomicLong();
+    private final AtomicLong totalSearchNanos = new AtomicLong();
+    private final AtomicLong maxSearchNanos = new AtomicLong();
 
     @Autowired
-    public TransportService(TransportRepository transportRepository) {
+    public TransportService(TransportRepository transportRepository, CatalogCache catalogCache,
+                            CatalogVersion catalogVersion, PricingService pricingService) {
         this.transportRepository = transportRepository;
+        this.catalogCache = catalogCache;
+        this.catalogVersion = catalogVersion;
+        this.pricingService = pricingService;
     }
 
     public TransportDTO saveTransport(TransportDTO transportDTO) {
-        DateValidation.endNotBeforeStart(
-                transportDTO.getDepartureTime(),
-                transportDTO.getArrivalTime(),
-                "departureTime",
-                "arrivalTime"
-        );
-
-        Transport.TransportType transportType = Transport.TransportType.valueOf(transportDTO.getTransportType());
-        Transport.Status status = Transport.Status.valueOf(transportDTO.getStatus());
-
-        Transport transport = convertToEntity(transportDTO, transportType, status);
+        Transport transport = toValidatedEntity(transportDTO);
         Transport savedTransport = transportRepository.save(transport);
+        catalogCache.evictTransport(savedTransport.getId());
+        catalogVersion.changed(CatalogVersion.Catalog.TRANSPORTS);
 
         return convertToDTO(savedTransport);
     }
@@ -43,12 +63,118 @@ public class TransportService {
         return transportPage.map(this::convertToDTO);
     }
 
+    public CursorSlice<TransportDTO> getTransportsAfter(String after, int pageSize) {
+        KeysetCursor cursor = KeysetCursor.decode(after);
+        List<Transport> rows = transportRepository.findBefore(cursor.createdAt(), cursor.id(), KeysetCursor.limit(pageSize));
+        return KeysetCursor.slice(rows, pageSize, t -> new KeysetCursor(t.getCreatedAt(), t.getId()), this::convertToDTO);
+    }
+
+    /**
+     * Route search. Origin and destination match whole addresses case-insensitively and the
+     * departure window defaults to "from now on", so every search can start from one of the
+     * lower(origin/destination)/departure_time/price indexes instead of scanning the table.
+     * Returns a slice: a total count would have to visit every match, however broad the filters.
+     */
+    public Slice<TransportDTO> searchTransports(TransportSearchCriteria criteria, int page, int pageSize) {
+        Sort sort = searchSort(criteria.getSort());
+        Specification<Transport> specification = searchSpecification(criteria);
+
+        long start = System.nanoTime();
+        try {
+            return transportRepository.findSlice(specification, PageRequest.of(page, pageSize, sort)).map(this::convertToSearchDTO);
+        } finally {
+            recordSearch(System.nanoTime() - start, criteria);
+        }
+    }
+
+    private static Specification<Transport> searchSpecification(TransportSearchCriteria criteria) {
+        LocalDateTime departFrom = criteria.getDepartFrom() != null ? criteria.getDepartFrom() : LocalDateTime.now();
+        LocalDateTime departTo = criteria.getDepartTo();
+        if (departTo != null && departTo.isBefore(departFrom)) {
+            throw new IllegalArgumentException("departTo cannot be before departFrom");
+        }
+        Transport.TransportType transportType = isBlank(criteria.getTransportType())
+                ? null : Transport.TransportType.valueOf(criteria.getTransportType().trim().toUpperCase());
+        Transport.Status status = isBlank(criteria.getStatus())
+                ? null : Transport.Status.valueOf(criteria.getStatus().trim().toUpperCase());
+
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            // lower(...) = lower(...) is the expression the route indexes are built on
+            if (!isBlank(criteria.getOrigin())) {
+                predicates.add(cb.equal(cb.lower(root.get("originAddress")), criteria.getOrigin().trim().toLowerCase()));
+            }
+            if (!isBlank(criteria.getDestination())) {
+                predicates.add(cb.equal(cb.lower(root.get("destinationAddress")), criteria.getDestination().trim().toLowerCase()));
+            }
+            predicates.add(cb.greaterThanOrEqualTo(root.get("departureTime"), departFrom));
+            if (departTo != null) {
+                predicates.add(cb.lessThan(root.get("departureTime"), departTo));
+            }
+            if (transportType != null) {
+                predicates.add(cb.equal(root.get("transportType"), transportType));
+            }
+            if (status != null) {
+                predicates.add(cb.equal(root.get("status"), status));
+            }
+            if (criteria.getMaxPrice() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("price"), criteria.getMaxPrice()));
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    private static Sort searchSort(String sort) {
+        if (isBlank(sort) || "departure".equalsIgnoreCase(sort.trim())) {
+            return Sort.by("departureTime", "id");
+        }
+        if ("price".equalsIgnoreCase(sort.trim())) {
+            return Sort.by("price", "id");
+        }
+        throw new IllegalArgumentException("sort must be 'departure' or 'price'");
+    }
+
+    private void recordSearch(long elapsedNanos, TransportSearchCriteria criteria) {
+        searches.incrementAndGet();
+        totalSearchNanos.addAndGet(elapsedNanos);
+        maxSearchNanos.accumulateAndGet(elapsedNanos, Math::max);
+        if (elapsedNanos / 1_000_000 >= slowSearchMillis) {
+            slowSearches.incrementAndGet();
+            log.warn("Slow transport search ({} ms): origin={}, destination={}, type={}, sort={}",
+                    elapsedNanos / 1_000_000, criteria.getOrigin(), criteria.getDestination(),
+                    criteria.getTransportType(), criteria.getSort());
+        }
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    public long getSearches() {
+        return searches.get();
+    }
+
+    public long getSlowSearches() {
+        return slowSearches.get();
+    }
+
+    public double getAverageSearchMillis() {
+        long count = searches.get();
+        return count == 0 ? 0 : totalSearchNanos.get() / 1_000_000.0 / count;
+    }
+
+    public double getMaxSearchMillis() {
+        return maxSearchNanos.get() / 1_000_000.0;
+    }
+
     @Transactional
     public void deleteTransport(Long transportId) {
         if (!transportRepository.existsById(transportId)) {
             throw new RuntimeException("Transport not found with ID: " + transportId);
         }
         transportRepository.deleteById(transportId);
+        catalogCache.evictTransport(transportId);
+        catalogVersion.changed(CatalogVersion.Catalog.TRANSPORTS);
     }
 
     @Transactional
@@ -63,6 +189,17 @@ public class TransportService {
                 .orElseThrow(() ->
                         new RuntimeException("Transport not found with ID: " + transportId));
 
+        validateCapacity(transportDTO.getSeat());
+        if (!Objects.equals(transport.getSeat(), transportDTO.getSeat()) && transportDTO.getSeat() != null) {
+            // seat counters are never written through the entity, resize them in place
+            if (transportRepository.resizeCapacity(transportId, transportDTO.getSeat()) == 0) {
+                throw new RuntimeException("Capacity cannot be lower than the seats already booked or the highest booked seat number");
+            }
+            if (transport.getSeatsAvailable() != null) {
+                transport.setSeatsAvailable(transport.getSeatsAvailable() + transportDTO.getSeat() - transport.capacity());
+            }
+        }
+
         Transport.TransportType transportType =
                 Transport.TransportType.valueOf(transportDTO.getTransportType());
         Transport.Status status =
@@ -75,14 +212,50 @@ public class TransportService {
         transport.setDepartureTime(transportDTO.getDepartureTime());
         transport.setArrivalTime(transportDTO.getArrivalTime());
         transport.setPrice(transportDTO.getPrice());
-        transport.setSeat(transportDTO.getSeat());
+        if (transportDTO.getSeat() != null) transport.setSeat(transportDTO.getSeat());
         transport.setStatus(status);
 
         Transport updated = transportRepository.save(transport);
+        catalogCache.evictTransport(transportId);
+        catalogVersion.changed(CatalogVersion.Catalog.TRANSPORTS);
 
         return convertToDTO(updated);
     }
 
+    /**
+     * Runs the checks of {@link #saveTransport} and returns the unsaved entity. Touches no shared
+     * state, so bulk imports call it from several threads at once.
+     */
+    public Transport toValidatedEntity(TransportDTO transportDTO) {
+        DateValidation.endNotBeforeStart(
+                transportDTO.getDepartureTime(),
+                transportDTO.getArrivalTime(),
+                "departureTime",
+                "arrivalTime"
+        );
+
+        Transport.TransportType transportType = Transport.TransportType.valueOf(transportDTO.getTransportType());
+        Transport.Status status = Transport.Status.valueOf(transportDTO.getStatus());
+
+        validateCapacity(transportDTO.getSeat());
+        return convertToEntity(transportDTO, transportType, status);
+    }
+
+    /**
+     * Inserts new transports in one transaction; JDBC batching sends them a batch at a time.
+     */
+    @Transactional
+    public void insertAll(List<Transport> transports) {
+        transportRepository.saveAll(transports);
+        catalogVersion.changed(CatalogVersion.Catalog.TRANSPORTS);
+    }
+
+    private void validateCapacity(Integer seat) {
+        if (seat != null && seat < 1) {
+            throw new RuntimeException("Transport must have at least one seat");
+        }
+    }
+
     private Transport convertToEntity(TransportDTO transportDTO, Transport.TransportType transportType, Transport.Status status) {
         Transport transport = new Transport();
         transport.setId(transportDTO.getId());
@@ -94,11 +267,21 @@ public class TransportService {
         transport.setArrivalTime(transportDTO.getArrivalTime());
         transport.setPrice(transportDTO.getPrice());
         transport.setSeat(transportDTO.getSeat());
+        transport.setSeatsAvailable(transport.capacity());
+        transport.setSeatMap(new byte[(transport.capacity() + 7) / 8]);
         transport.setStatus(status);
         transport.setCreatedAt(LocalDateTime.now());
         return transport;
     }
 
+    // the quote comes from the same cache bookings are priced from
+    private TransportDTO convertToSearchDTO(Transport transport) {
+        TransportDTO transportDTO = convertToDTO(transport);
+        transportDTO.setQuotedPrice(pricingService.quoteSeat(transport.getId(), transport.getPrice(),
+                transport.getDepartureTime(), transport.getArrivalTime(), transport.capacity(), transport.getSeatsAvailable()));
+        return transportDTO;
+    }
+
     private TransportDTO convertToDTO(Transport transport) {
         TransportDTO transportDTO = new TransportDTO();
         transportDTO.setId(transport.getId());
@@ -110,6 +293,7 @@ public class TransportService {
         transportDTO.setArrivalTime(transport.getArrivalTime());
         transportDTO.setPrice(transport.getPrice());
         transportDTO.setSeat(transport.getSeat());
+        transportDTO.setSeatsAvailable(transport.getSeatsAvailable());
         transportDTO.setStatus(transport.getStatus().name());
         transportDTO.setCreatedAt(transport.getCreatedAt());
         return transportDTO;
@@ -4,7 +4,9 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import project.planora_travelandbooking_system.dto.CursorSlice;
 import project.planora_travelandbooking_system.dto.TripDTO;
+import project.planora_travelandbooking_system.model.Booking;
 import project.planora_travelandbooking_system.model.Trip;
 import project.planora_travelandbooking_system.model.User;
 import project.planora_travelandbooking_system.repository.BookingRepository;
@@ -30,16 +32,13 @@ public class TripService {
     }
 
     public Page<TripDTO> getAllTrips(int page, int pageSize) {
-        Page<Trip> tripPage = tripRepository.findAll(PageRequest.of(page, pageSize));
+        Page<TripRepository.TripListView> tripPage = tripRepository.findAllListViews(PageRequest.of(page, pageSize));
         return tripPage.map(this::convertToDTO);
     }
 
     public Page<TripDTO> getTripsForUser(String email, int page, int pageSize) {
-        User user = userService.getUserByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
         PageRequest pageRequest = PageRequest.of(page, pageSize);
-        Page<Trip> trips = tripRepository.findByUser(user, pageRequest);
+        Page<TripRepository.TripListView> trips = tripRepository.findListViewsByUserEmail(email, pageRequest);
 
         // Map trips to DTOs correctly
         return trips.map(this::convertToDTO);
@@ -73,6 +72,7 @@ public class TripService {
         return convertToDTO(savedTrip);
     }
 
+    @Transactional
     public TripDTO updateTrip(Long tripId, TripDTO tripDTO, User user) {
 
         DateValidation.endNotBeforeStart(
@@ -97,13 +97,31 @@ public class TripService {
 
         trip.setTitle(tripDTO.getTitle());
         trip.setDescription(tripDTO.getDescription());
-        trip.setStartDate(tripDTO.getStartDate());
-        trip.setEndDate(tripDTO.getEndDate());
+        changeDates(trip, tripDTO.getStartDate(), tripDTO.getEndDate());
 
         Trip updatedTrip = tripRepository.save(trip);
         return convertToDTO(updatedTrip);
     }
 
+    /**
+     * Moves an existing trip to new dates. Accommodation bookings took their nights, price and
+     * availability stay from the old dates, so the nights cannot move while one of them is active.
+     */
+    public void changeDates(Trip trip, LocalDateTime startDate, LocalDateTime endDate) {
+        DateValidation.endNotBeforeStart(startDate, endDate, "startDate", "endDate");
+
+        boolean sameNights = trip.getStartDate() != null && trip.getEndDate() != null
+                && trip.getStartDate().toLocalDate().equals(startDate.toLocalDate())
+                && trip.getEndDate().toLocalDate().equals(endDate.toLocalDate());
+        if (!sameNights && trip.getId() != null
+                && bookingRepository.existsByTripIdAndAccommodationIsNotNullAndStatusNot(trip.getId(), Booking.BookingStatus.CANCELLED)) {
+            throw new RuntimeException("Cannot change trip dates: it has accommodation bookings. Cancel or delete them first.");
+        }
+
+        trip.setStartDate(startDate);
+        trip.setEndDate(endDate);
+    }
+
     @Transactional
     public void deleteTripAuthorized(Long tripId, String email, boolean isAdmin) {
         Trip trip = tripRepository.findById(tripId)
@@ -144,6 +162,26 @@ public class TripService {
         tripRepository.deleteAllByIdInBatch(uniqueIds);
     }
 
+    public CursorSlice<TripDTO> getTripsAfter(String after, int pageSize, String email, boolean isAdmin) {
+        KeysetCursor cursor = KeysetCursor.decode(after);
+        List<TripRepository.TripListView> rows = isAdmin
+                ? tripRepository.findListViewsBefore(cursor.createdAt(), cursor.id(), KeysetCursor.limit(pageSize))
+                : tripRepository.findListViewsByUserEmailBefore(email, cursor.createdAt(), cursor.id(), KeysetCursor.limit(pageSize));
+        return KeysetCursor.slice(rows, pageSize, v -> new KeysetCursor(v.getCreatedAt(), v.getId()), this::convertToDTO);
+    }
+
+    private TripDTO convertToDTO(TripRepository.TripListView view) {
+        TripDTO tripDTO = new TripDTO();
+        tripDTO.setId(view.getId());
+        tripDTO.setTitle(view.getTitle());
+        tripDTO.setDescription(view.getDescription());
+        tripDTO.setStartDate(view.getStartDate());
+        tripDTO.setEndDate(view.getEndDate());
+        tripDTO.setUserId(view.getUserId());
+        tripDTO.setCreatedAt(view.getCreatedAt());
+        return tripDTO;
+    }
+
     private TripDTO convertToDTO(Trip trip) {
         TripDTO tripDTO = new TripDTO();
         tripDTO.setId(trip.getId());
@@ -6,6 +6,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import project.planora_travelandbooking_system.model.User;
 import project.planora_travelandbooking_system.repository.UserRepository;
+import project.planora_travelandbooking_system.security.SecurityVersionRegistry;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -14,6 +15,8 @@ import java.util.List;
 public class UserCleanupService {
 
     private final UserRepository userRepository;
+    private final EmailReservationService emailReservations;
+    private final SecurityVersionRegistry securityVersions;
 
     @Transactional
     @Scheduled(cron = "0 0 3 * * ?")
@@ -25,5 +28,7 @@ public class UserCleanupService {
                 userRepository.findAllByDeletedTrueAndDeletionDateBefore(cutoff);
 
         userRepository.deleteAll(users);
+        users.forEach(user -> securityVersions.revokeAll(user.getId()));
+        emailReservations.releaseAllForUsers(users.stream().map(User::getId).toList());
     }
 }
@@ -17,8 +17,10 @@ import project.planora_travelandbooking_system.model.User;
 import project.planora_travelandbooking_system.model.UserEmailHistory;
 import project.planora_travelandbooking_system.repository.UserEmailHistoryRepository;
 import project.planora_travelandbooking_system.repository.UserRepository;
+import project.planora_travelandbooking_system.security.SecurityVersionRegistry;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
 import org.springframework.data.jpa.domain.Specification;
@@ -31,13 +33,22 @@ public class UserService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final UserEmailHistoryRepository  userEmailHistoryRepository;
+    private final DbUserDetailService userDetailService;
+    private final SecurityVersionRegistry securityVersions;
+    private final EmailReservationService emailReservations;
 
     @Autowired
     public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder,
-                       UserEmailHistoryRepository  userEmailHistoryRepository) {
+                       UserEmailHistoryRepository  userEmailHistoryRepository,
+                       DbUserDetailService userDetailService,
+                       SecurityVersionRegistry securityVersions,
+                       EmailReservationService emailReservations) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.userEmailHistoryRepository = userEmailHistoryRepository;
+        this.userDetailService = userDetailService;
+        this.securityVersions = securityVersions;
+        this.emailReservations = emailReservations;
     }
 
     public User getCurrentAuthenticatedUser() {
@@ -69,9 +80,11 @@ public class UserService {
             user.setCreatedAt(LocalDateTime.now());
         }
 
+        String previousEmail = user.getEmail();
+        User.Role previousRole = user.getRole();
+
         if (userDTO.getEmail() != null && !userDTO.getEmail().isBlank() && !userDTO.getEmail().equals(user.getEmail())) {
-            if (userRepository.findByEmail(userDTO.getEmail()).isPresent() ||
-                    userEmailHistoryRepository.existsByEmail(userDTO.getEmail())) {
+            if (!emailReservations.isAvailable(userDTO.getEmail())) {
                 System.out.println("Signup failed: Email is already in use or in history.");
                 throw new IllegalArgumentException("Email is already in use or in history");
             }
@@ -98,10 +111,31 @@ public class UserService {
             user.setPassword(passwordEncoder.encode(userDTO.getPassword()));
         }
 
+        if (user.getId() != null
+                && (!Objects.equals(previousEmail, user.getEmail()) || previousRole != user.getRole())) {
+            securityVersions.bump(user);
+        }
+
         userRepository.save(user);
+        if (!Objects.equals(previousEmail, user.getEmail())) {
+            emailReservations.reserve(user.getEmail(), user.getId());
+        }
+        userDetailService.evict(previousEmail);
+        userDetailService.evict(user.getEmail());
         return convertToDTO(user);
     }
 
+    /**
+     * Creates a self-registered account. The email is reserved in the same transaction,
+     * so losing a race against another signup or email change rolls the user back.
+     */
+    @Transactional
+    public User registerUser(User user) {
+        User saved = userRepository.save(user);
+        emailReservations.reserve(saved.getEmail(), saved.getId());
+        return saved;
+    }
+
     public List<UserDTO> getAllUsers() {
         List<User> users = userRepository.findAll();
         return users.stream().map(this::convertToDTO).collect(Collectors.toList());
@@ -141,6 +175,7 @@ public class UserService {
         } else {
             softDeleteUser(userToDelete);
         }
+        userDetailService.evict(userToDelete.getEmail());
     }
 
     @Transactional
@@ -157,6 +192,9 @@ public class UserService {
             throw new AccessDeniedException("Unauthorized action.");
         }
 
+        String previousEmail = existingUser.getEmail();
+        User.Role previousRole = existingUser.getRole();
+        boolean previousDeleted = existingUser.isDeleted();
         boolean changingPassword = req.getNewPassword() != null && !req.getNewPassword().isBlank();
 
         if (changingPassword && editingSelf) {
@@ -173,10 +211,7 @@ public class UserService {
                 && !req.getEmail().equals(existingUser.getEmail());
 
         if (changingEmail) {
-            boolean emailInUse = userRepository.existsByEmail(req.getEmail()) ||
-                    userEmailHistoryRepository.existsByEmail(req.getEmail());
-
-            if (emailInUse) {
+            if (!emailReservations.isAvailable(req.getEmail())) {
                 throw new IllegalArgumentException("The email is already in use.");
             }
 
@@ -209,7 +244,18 @@ public class UserService {
             }
         }
 
+        if (!Objects.equals(previousEmail, existingUser.getEmail())
+                || previousRole != existingUser.getRole()
+                || previousDeleted != existingUser.isDeleted()) {
+            securityVersions.bump(existingUser);
+        }
+
         userRepository.save(existingUser);
+        if (changingEmail) {
+            emailReservations.reserve(existingUser.getEmail(), existingUser.getId());
+        }
+        userDetailService.evict(previousEmail);
+        userDetailService.evict(existingUser.getEmail());
         return convertToDTO(existingUser);
     }
 
@@ -239,11 +285,14 @@ public class UserService {
         List<UserEmailHistory> emailHistories = userEmailHistoryRepository.findByUser(user);
         userEmailHistoryRepository.deleteAll(emailHistories);
         userRepository.delete(user);
+        emailReservations.releaseAllForUsers(List.of(user.getId()));
+        securityVersions.revokeAll(user.getId());
     }
 
     private void softDeleteUser(User user) {
         user.setDeleted(true);
         user.setDeletionDate(LocalDateTime.now());
+        securityVersions.bump(user);
         userRepository.save(user);
     }
 
@@ -291,7 +340,9 @@ public class UserService {
         }
 
         user.setDeleted(false);
+        securityVersions.bump(user);
         userRepository.save(user);
+        userDetailService.evict(user.getEmail());
         return convertToDTO(user);
     }
 
@@ -0,0 +1,105 @@
+package project.planora_travelandbooking_system;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import project.planora_travelandbooking_system.dto.AccommodationSearchCriteria;
+import project.planora_travelandbooking_system.model.Accommodation;
+import project.planora_travelandbooking_system.repository.AccommodationRepository;
+import project.planora_travelandbooking_system.service.AccommodationSearchIndex;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Search index updates through real transactions, opt-in because they need PostgreSQL:
+ * mvn test -Dtest=AccommodationSearchIndexTests -Dplanora.benchmark=true
+ * Commits its rows and deletes them afterwards.
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "planora.benchmark", matches = "true")
+class AccommodationSearchIndexTests {
+
+    private static final String CITY = "Search index test";
+
+    @Autowired private AccommodationRepository accommodationRepository;
+    @Autowired private AccommodationSearchIndex searchIndex;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    private Long id;
+
+    @AfterEach
+    void cleanUp() {
+        if (id != null) {
+            accommodationRepository.deleteById(id);
+            searchIndex.onDeleted(id);
+        }
+    }
+
+    @Test
+    void onSaved_updateCommittedBeforeTheCallback_indexesTheCommittedRow() {
+        id = transactionTemplate.execute(status -> {
+            Accommodation saved = accommodationRepository.save(accommodation(50));
+            searchIndex.onSaved(saved);
+            return saved.getId();
+        });
+
+        TransactionTemplate otherRequest = new TransactionTemplate(transactionManager);
+        otherRequest.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Accommodation a = accommodationRepository.findById(id).orElseThrow();
+            a.setPricePerNight(60);
+            accommodationRepository.save(a);
+
+            // a second update commits after this one but before this one's index callback runs
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    otherRequest.executeWithoutResult(s -> {
+                        Accommodation b = accommodationRepository.findById(id).orElseThrow();
+                        b.setPricePerNight(70);
+                        accommodationRepository.save(b);
+                    });
+                }
+            });
+            searchIndex.onSaved(a);
+        });
+
+        assertThat(searchIndex.search(criteria()))
+                .filteredOn(l -> l.id().equals(id))
+                .extracting(AccommodationSearchIndex.Listing::pricePerNight)
+                .containsExactly(70.0);
+    }
+
+    private static AccommodationSearchCriteria criteria() {
+        AccommodationSearchCriteria criteria = new AccommodationSearchCriteria();
+        criteria.setCity(CITY);
+        return criteria;
+    }
+
+    private static Accommodation accommodation(double price) {
+        Accommodation a = new Accommodation();
+        a.setAccommodationType(Accommodation.AccommodationType.HOTEL);
+        a.setName("Index test");
+        a.setCity(CITY);
+        a.setAddress("Test street 1");
+        a.setRating(4.0);
+        a.setRoom(1);
+        a.setPricePerNight(price);
+        a.setStatus(Accommodation.Status.AVAILABLE);
+        a.setStartTime(LocalDateTime.now().minusDays(1));
+        a.setEndTime(LocalDateTime.now().plusYears(1));
+        a.setCreatedAt(LocalDateTime.now());
+        return a;
+    }
+}
@@ -0,0 +1,97 @@
+package project.planora_travelandbooking_system;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import project.planora_travelandbooking_system.model.Transport;
+import project.planora_travelandbooking_system.repository.TransportRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Bulk create benchmark against the configured database, opt-in because it needs PostgreSQL:
+ * mvn test -Dtest=BulkInsertBenchmarkTests -Dplanora.benchmark=true
+ * Inserts the same rows once with batching forced off and once with the configured batch size.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@EnabledIfSystemProperty(named = "planora.benchmark", matches = "true")
+class BulkInsertBenchmarkTests {
+
+    private static final int ROWS = 5_000;
+
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private EntityManager entityManager;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @Autowired private TransportRepository transportRepository;
+
+    @Test
+    void bulkCreate_batchedVsRowByRow() {
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        Run rowByRow = insert(stats, 1);
+        Run batched = insert(stats, null);
+
+        System.out.printf("row-by-row: %d ms, %d statements%n", rowByRow.millis(), rowByRow.statements());
+        System.out.printf("batched:    %d ms, %d statements%n", batched.millis(), batched.statements());
+
+        // one statement per batch plus one sequence call per 50 ids
+        assertThat(batched.statements()).isLessThan(ROWS / 10);
+        assertThat(batched.statements()).isLessThan(rowByRow.statements());
+    }
+
+    private Run insert(Statistics stats, Integer batchSizeOverride) {
+        List<Long> ids = new ArrayList<>(ROWS);
+        stats.clear();
+        long start = System.nanoTime();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (batchSizeOverride != null) {
+                entityManager.unwrap(Session.class).setJdbcBatchSize(batchSizeOverride);
+            }
+            for (int i = 0; i < ROWS; i++) {
+                Transport t = transport(i);
+                entityManager.persist(t);
+                ids.add(t.getId());
+                if (i % 50 == 49) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+        });
+
+        Run run = new Run((System.nanoTime() - start) / 1_000_000, stats.getPrepareStatementCount());
+        transportRepository.deleteAllByIdInBatch(ids);
+        return run;
+    }
+
+    private static Transport transport(int i) {
+        Transport t = new Transport();
+        t.setTransportType(Transport.TransportType.BUS);
+        t.setCompany("Benchmark " + i);
+        t.setOriginAddress("Riga");
+        t.setDestinationAddress("Tallinn");
+        t.setDepartureTime(LocalDateTime.now().plusDays(1));
+        t.setArrivalTime(LocalDateTime.now().plusDays(1).plusHours(4));
+        t.setSeat(40);
+        t.setSeatsAvailable(40);
+        t.setSeatMap(new byte[5]);
+        t.setPrice(15.0);
+        t.setStatus(Transport.Status.AVAILABLE);
+        t.setCreatedAt(LocalDateTime.now());
+        return t;
+    }
+
+    private record Run(long millis, long statements) {
+    }
+}
@@ -0,0 +1,73 @@
+package project.planora_travelandbooking_system;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import project.planora_travelandbooking_system.model.User;
+import project.planora_travelandbooking_system.repository.JwtRefresherRepository;
+import project.planora_travelandbooking_system.repository.UserRepository;
+import project.planora_travelandbooking_system.service.JwtRefreshService;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Refresh-token rotation against the configured database, opt-in because it needs PostgreSQL:
+ * mvn test -Dtest=RefreshRotationTests -Dplanora.benchmark=true
+ * Commits its rows and deletes them afterwards.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@EnabledIfSystemProperty(named = "planora.benchmark", matches = "true")
+class RefreshRotationTests {
+
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private TransactionTemplate transactionTemplate;
+    @Autowired private UserRepository userRepository;
+    @Autowired private JwtRefresherRepository jwtRefresherRepository;
+    @Autowired private JwtRefreshService jwtRefreshService;
+
+    private User user;
+
+    @AfterEach
+    void cleanUp() {
+        if (user != null) {
+            transactionTemplate.executeWithoutResult(status -> jwtRefresherRepository.deleteByUser_Id(user.getId()));
+            userRepository.deleteById(user.getId());
+        }
+    }
+
+    @Test
+    void rotateToken_isTwoStatements_andTheOldTokenIsSpent() {
+        user = new User();
+        user.setEmail("rotation-" + System.nanoTime() + "@test.com");
+        user.setRole(User.Role.ADMIN);
+        user.setSecurityVersion(2);
+        user.setCreatedAt(LocalDateTime.now());
+        user = userRepository.save(user);
+
+        // the first token fetches a block of ids, so the rotation below gets one without a sequence call
+        String token = jwtRefreshService.createToken(user, 1);
+
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        JwtRefreshService.RotatedToken rotated = jwtRefreshService.rotateToken(token, 1);
+
+        assertThat(stats.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(rotated.user().getId()).isEqualTo(user.getId());
+        assertThat(rotated.user().getEmail()).isEqualTo(user.getEmail());
+        assertThat(rotated.user().getRole()).isEqualTo(User.Role.ADMIN);
+        assertThat(rotated.user().getSecurityVersion()).isEqualTo(2);
+
+        assertThatThrownBy(() -> jwtRefreshService.rotateToken(token, 1))
+                .hasMessage("Invalid refresh token");
+        assertThat(jwtRefreshService.rotateToken(rotated.refreshToken(), 1).refreshToken()).isNotBlank();
+    }
+}
@@ -0,0 +1,156 @@
+package project.planora_travelandbooking_system;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import project.planora_travelandbooking_system.dto.TransportSearchCriteria;
+import project.planora_travelandbooking_system.service.TransportService;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Transport search at 1M rows, opt-in because it needs PostgreSQL and a few minutes:
+ * mvn test -Dtest=TransportSearchBenchmarkTests -Dplanora.benchmark=true
+ * Checks that the plans of the SQL Hibernate generates for the search filters use the indexes
+ * (EXPLAIN (GENERIC_PLAN), PostgreSQL 16+) and prints p50/p95 latencies.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "project.planora_travelandbooking_system.TransportSearchBenchmarkTests$Recorder")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "planora.benchmark", matches = "true")
+class TransportSearchBenchmarkTests {
+
+    private static final int ROWS = 1_000_000;
+    private static final int RUNS = 200;
+    private static final String COMPANY = "Search benchmark";
+
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private TransportService transportService;
+
+    @BeforeAll
+    void seed() {
+        // 50 cities, departures spread over a year, so a route has about 400 rows
+        jdbcTemplate.update("""
+                insert into transport (id, transport_type, company, origin_address, destination_address,
+                                       departure_time, arrival_time, seat, seats_available, seat_map, price, status, created_at)
+                select nextval('transport_seq'),
+                       (array['FLIGHT','TRAIN','BUS','SHIP'])[1 + g % 4],
+                       ?,
+                       'City ' || (g % 50),
+                       'City ' || ((g / 50) % 50),
+                       now() + (g % 525600) * interval '1 minute',
+                       now() + (g % 525600) * interval '1 minute' + interval '3 hours',
+                       40, 40, decode(repeat('00', 5), 'hex'),
+                       10 + (g % 490),
+                       case when g % 10 = 0 then 'UNAVAILABLE' else 'AVAILABLE' end,
+                       now()
+                  from generate_series(1, ?) g
+                """, COMPANY, ROWS);
+        jdbcTemplate.execute("analyze transport");
+    }
+
+    @AfterAll
+    void cleanUp() {
+        jdbcTemplate.update("delete from transport where company = ?", COMPANY);
+    }
+
+    @Test
+    void searchPlans_neverSeqScan() {
+        TransportSearchCriteria priced = criteria("City 7", "City 9", null, "price");
+        priced.setMaxPrice(100.0);
+        TransportSearchCriteria destinationOnly = criteria(null, "City 9", null, null);
+        destinationOnly.setDepartTo(LocalDateTime.now().plusDays(7));
+        TransportSearchCriteria statusOnly = criteria(null, null, null, null);
+        statusOnly.setStatus("AVAILABLE");
+
+        List<TransportSearchCriteria> searches = List.of(
+                criteria("City 7", "City 9", null, null),
+                priced,
+                destinationOnly,
+                criteria(null, null, "TRAIN", null),
+                criteria(null, null, null, "price"),
+                statusOnly
+        );
+
+        for (TransportSearchCriteria search : searches) {
+            Recorder.STATEMENTS.clear();
+            transportService.searchTransports(search, 0, 10);
+            List<String> statements = List.copyOf(Recorder.STATEMENTS);
+
+            // every statement the search ran, so a count query would be checked as well
+            assertThat(statements).isNotEmpty();
+            for (String sql : statements) {
+                List<Map<String, Object>> plan = jdbcTemplate.queryForList("explain (generic_plan) " + numbered(sql));
+                String text = plan.stream().map(row -> String.valueOf(row.values().iterator().next())).reduce("", (a, b) -> a + b + "\n");
+                System.out.println(sql + "\n" + text);
+                assertThat(sql).doesNotContainIgnoringCase("count(");
+                assertThat(text).doesNotContain("Seq Scan");
+            }
+        }
+    }
+
+    // JDBC placeholders become $1, $2, ... which EXPLAIN (GENERIC_PLAN) accepts without values
+    private static String numbered(String sql) {
+        StringBuilder out = new StringBuilder();
+        int n = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') out.append('$').append(++n);
+            else out.append(c);
+        }
+        return out.toString();
+    }
+
+    @Test
+    void searchLatency() {
+        report("route by departure", criteria("City 7", "City 9", null, null));
+        report("route by price", criteria("City 7", "City 9", null, "price"));
+        report("type in next day", criteria(null, null, "TRAIN", null));
+    }
+
+    private void report(String name, TransportSearchCriteria criteria) {
+        List<Long> micros = new ArrayList<>(RUNS);
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            transportService.searchTransports(criteria, i % 5, 10);
+            micros.add((System.nanoTime() - start) / 1_000);
+        }
+        Collections.sort(micros);
+        System.out.printf("%-20s p50=%d us p95=%d us%n", name, micros.get(RUNS / 2), micros.get(RUNS * 95 / 100));
+    }
+
+    public static class Recorder implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            if (sql.contains("transport")) STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+
+    private static TransportSearchCriteria criteria(String origin, String destination, String type, String sort) {
+        TransportSearchCriteria criteria = new TransportSearchCriteria();
+        criteria.setOrigin(origin);
+        criteria.setDestination(destination);
+        criteria.setTransportType(type);
+        criteria.setSort(sort);
+        if (origin == null) {
+            criteria.setDepartTo(LocalDateTime.now().plusDays(1));
+        }
+        return criteria;
+    }
+}
@@ -0,0 +1,61 @@
+package project.planora_travelandbooking_system;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import project.planora_travelandbooking_system.model.Transport;
+import project.planora_travelandbooking_system.repository.TransportRepository;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Seat counter and seat map updates against the configured database, opt-in because they need PostgreSQL:
+ * mvn test -Dtest=TransportSeatMapTests -Dplanora.benchmark=true
+ * Every test rolls back.
+ */
+@SpringBootTest
+@Transactional
+@EnabledIfSystemProperty(named = "planora.benchmark", matches = "true")
+class TransportSeatMapTests {
+
+    @Autowired private TransportRepository transportRepository;
+
+    @Test
+    void resizeCapacity_belowATakenSeat_updatesNothing() {
+        Long id = transportWithSeats(10);
+        assertThat(transportRepository.takeSeat(id, 8)).isEqualTo(1);
+
+        // 9 seats are still free, but seat 9 would lie past the new capacity
+        assertThat(transportRepository.resizeCapacity(id, 5)).isZero();
+        assertThat(transportRepository.resizeCapacity(id, 9)).isEqualTo(1);
+    }
+
+    @Test
+    void resizeCapacity_growing_extendsTheSeatMap() {
+        Long id = transportWithSeats(10);
+
+        assertThat(transportRepository.resizeCapacity(id, 20)).isEqualTo(1);
+        assertThat(transportRepository.takeSeat(id, 19)).isEqualTo(1);
+    }
+
+    private Long transportWithSeats(int seats) {
+        Transport transport = new Transport();
+        transport.setTransportType(Transport.TransportType.BUS);
+        transport.setCompany("Seat map test");
+        transport.setOriginAddress("Riga");
+        transport.setDestinationAddress("Tallinn");
+        transport.setDepartureTime(LocalDateTime.now().plusDays(1));
+        transport.setArrivalTime(LocalDateTime.now().plusDays(1).plusHours(4));
+        transport.setSeat(seats);
+        transport.setSeatsAvailable(seats);
+        transport.setSeatMap(new byte[(seats + 7) / 8]);
+        transport.setPrice(20.0);
+        transport.setStatus(Transport.Status.AVAILABLE);
+        transport.setCreatedAt(LocalDateTime.now());
+        return transportRepository.saveAndFlush(transport).getId();
+    }
+}
@@ -17,6 +17,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import project.planora_travelandbooking_system.dto.AccommodationDTO;
 import project.planora_travelandbooking_system.model.Accommodation;
 import project.planora_travelandbooking_system.service.AccommodationService;
+import project.planora_travelandbooking_system.service.CatalogVersion;
 import project.planora_travelandbooking_system.service.TransportService;
 
 import java.util.List;
@@ -47,6 +48,9 @@ class AccommodationRestControllerTest {
     @MockitoBean
     private TransportService transportService;
 
+    @MockitoBean
+    private CatalogVersion catalogVersion;
+
     @Test
     void getAccommodations_defaultParams_returns200_andPage() throws Exception {
         AccommodationDTO dto = new AccommodationDTO();
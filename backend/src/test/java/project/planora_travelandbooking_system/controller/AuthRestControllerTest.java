@@ -16,12 +16,15 @@ import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import project.planora_travelandbooking_system.exception.PasswordHashingBusyException;
 import project.planora_travelandbooking_system.model.User;
 import project.planora_travelandbooking_system.repository.UserRepository;
 import project.planora_travelandbooking_system.security.JwtUtil;
+import project.planora_travelandbooking_system.service.DbUserDetailService;
+import project.planora_travelandbooking_system.service.EmailReservationService;
 import project.planora_travelandbooking_system.service.JwtRefreshService;
+import project.planora_travelandbooking_system.service.PasswordUpgradeService;
 import project.planora_travelandbooking_system.service.UserService;
-import project.planora_travelandbooking_system.repository.UserEmailHistoryRepository;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
@@ -64,15 +67,21 @@ class AuthRestControllerTest {
     private PasswordEncoder passwordEncoder;
 
     @MockitoBean
-    private UserEmailHistoryRepository userEmailHistoryRepository;
+    private EmailReservationService emailReservations;
+
+    @MockitoBean
+    private DbUserDetailService userDetailService;
+
+    @MockitoBean
+    private PasswordUpgradeService passwordUpgradeService;
 
     @Test
     void signup_positive_createsUser_returns201_andLocationHeader() throws Exception {
-        Mockito.when(userRepository.findByEmail("new@planora.test")).thenReturn(Optional.empty());
+        Mockito.when(emailReservations.isAvailable("new@planora.test")).thenReturn(true);
         Mockito.when(passwordEncoder.encode("123456")).thenReturn("ENC(123456)");
 
         ArgumentCaptor<User> userCaptor = ArgumentCaptor.forClass(User.class);
-        Mockito.when(userRepository.save(userCaptor.capture()))
+        Mockito.when(userService.registerUser(userCaptor.capture()))
                 .thenAnswer(inv -> inv.getArgument(0, User.class));
 
         mvc.perform(post("/api/auth/signup")
@@ -98,8 +107,6 @@ class AuthRestControllerTest {
         Mockito.when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
                 .thenReturn(auth);
 
-        Mockito.when(jwtUtil.generateToken("new@planora.test")).thenReturn("ACCESS_TOKEN");
-
         User user = new User();
         user.setId(10L);
         user.setEmail("new@planora.test");
@@ -107,6 +114,8 @@ class AuthRestControllerTest {
         user.setRole(User.Role.USER);
         user.setCreatedAt(LocalDateTime.now());
 
+        Mockito.when(jwtUtil.generateToken(user)).thenReturn("ACCESS_TOKEN");
+
         Mockito.when(userService.getUserByEmail("new@planora.test")).thenReturn(Optional.of(user));
         Mockito.when(refreshService.createToken(eq(user), anyInt())).thenReturn("REFRESH_TOKEN");
 
@@ -119,6 +128,8 @@ class AuthRestControllerTest {
                 .andExpect(jsonPath("$.token", is("ACCESS_TOKEN")))
                 .andExpect(jsonPath("$.email", is("new@planora.test")))
                 .andExpect(header().string("Set-Cookie", containsString("refresh_token=REFRESH_TOKEN")));
+
+        Mockito.verify(passwordUpgradeService).upgradeIfNeeded(user, "123456");
     }
 
     @Test
@@ -134,4 +145,18 @@ class AuthRestControllerTest {
                 .andExpect(status().isUnauthorized())
                 .andExpect(content().string("Invalid email or password"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void login_negative_hashingPoolSaturated_returns503() throws Exception {
+        Mockito.when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
+                .thenThrow(new PasswordHashingBusyException("Server is busy, please try again shortly"));
+
+        mvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"email":"new@planora.test","password":"Secret123"}
+                                """))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+}
@@ -16,14 +16,15 @@ import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 import project.planora_travelandbooking_system.dto.BookingDTO;
-import project.planora_travelandbooking_system.model.Accommodation;
-import project.planora_travelandbooking_system.model.Transport;
-import project.planora_travelandbooking_system.model.Trip;
-import project.planora_travelandbooking_system.repository.AccommodationRepository;
+import project.planora_travelandbooking_system.dto.CursorSlice;
+import project.planora_travelandbooking_system.exception.BookingConflictException;
 import project.planora_travelandbooking_system.repository.TransportRepository;
 import project.planora_travelandbooking_system.repository.TripRepository;
+import project.planora_travelandbooking_system.service.BookingLookupService;
 import project.planora_travelandbooking_system.service.BookingService;
+import project.planora_travelandbooking_system.service.CatalogVersion;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -50,13 +51,10 @@ class BookingRestControllerTest {
     private BookingService bookingService;
 
     @MockitoBean
-    private TripRepository tripRepository;
+    private BookingLookupService lookupService;
 
     @MockitoBean
-    private TransportRepository transportRepository;
-
-    @MockitoBean
-    private AccommodationRepository accommodationRepository;
+    private CatalogVersion catalogVersion;
 
     private static Authentication authUser(String email) {
         return new UsernamePasswordAuthenticationToken(
@@ -138,6 +136,29 @@ class BookingRestControllerTest {
         Mockito.verify(bookingService).getAllBookings(1, 5, "admin@planora.test", true);
     }
 
+    @Test
+    void getBookings_cursorMode_returnsSlice_withoutTotals() throws Exception {
+        BookingDTO dto = new BookingDTO();
+        dto.setId(3L);
+        dto.setBookingType("TRANSPORT");
+
+        Mockito.when(bookingService.getBookingsAfter("abc", 5, "user@planora.test", false))
+                .thenReturn(new CursorSlice<>(List.of(dto), "def", true));
+
+        mvc.perform(get("/api/bookings")
+                        .param("size", "5")
+                        .param("after", "abc")
+                        .principal(authUser("user@planora.test")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.bookings", hasSize(1)))
+                .andExpect(jsonPath("$.bookings[0].id", is(3)))
+                .andExpect(jsonPath("$.nextCursor", is("def")))
+                .andExpect(jsonPath("$.hasNext", is(true)))
+                .andExpect(jsonPath("$.totalItems").doesNotExist());
+
+        Mockito.verify(bookingService, Mockito.never()).getAllBookings(anyInt(), anyInt(), anyString(), anyBoolean());
+    }
+
     @Test
     void saveBooking_user_returns201_andCallsService() throws Exception {
         mvc.perform(post("/api/bookings/save")
@@ -157,6 +178,26 @@ class BookingRestControllerTest {
         Mockito.verify(bookingService).saveBooking(any(BookingDTO.class), eq("user@planora.test"), eq(false));
     }
 
+    @Test
+    void saveBooking_resourceTaken_returns409() throws Exception {
+        Mockito.doThrow(new BookingConflictException("This transport is already booked in another active booking"))
+                .when(bookingService).saveBooking(any(BookingDTO.class), eq("user@planora.test"), eq(false));
+
+        mvc.perform(post("/api/bookings/save")
+                        .principal(authUser("user@planora.test"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {
+                                  "tripId": 10,
+                                  "bookingType": "TRANSPORT",
+                                  "status": "CONFIRMED",
+                                  "transportId": 5
+                                }
+                                """))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message", is("This transport is already booked in another active booking")));
+    }
+
     @Test
     void saveBooking_admin_returns201_andCallsServiceAsAdmin() throws Exception {
         mvc.perform(post("/api/bookings/save")
@@ -252,76 +293,84 @@ class BookingRestControllerTest {
     }
 
     @Test
-    void getTrips_user_returns200_andUsesFindByUserEmail() throws Exception {
-        Trip t = new Trip();
-        t.setId(1L);
-
-        Mockito.when(tripRepository.findByUserEmail("user@planora.test"))
-                .thenReturn(List.of(t));
+    void getTrips_user_returns200_andLooksUpOwnTrips() throws Exception {
+        Mockito.when(lookupService.trips("ri", 20, "user@planora.test", false))
+                .thenReturn(List.of(tripOption(1L, "Riga")));
 
         mvc.perform(get("/api/bookings/trips")
+                        .param("q", "ri")
                         .principal(authUser("user@planora.test")))
                 .andExpect(status().isOk())
                 .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$", hasSize(1)))
-                .andExpect(jsonPath("$[0].id", is(1)));
+                .andExpect(jsonPath("$[0].id", is(1)))
+                .andExpect(jsonPath("$[0].title", is("Riga")));
 
-        Mockito.verify(tripRepository).findByUserEmail("user@planora.test");
-        Mockito.verify(tripRepository, Mockito.never()).findAll();
+        Mockito.verify(lookupService).trips("ri", 20, "user@planora.test", false);
     }
 
     @Test
-    void getTrips_admin_returns200_andUsesFindAll() throws Exception {
-        Trip t = new Trip();
-        t.setId(2L);
-
-        Mockito.when(tripRepository.findAll())
-                .thenReturn(List.of(t));
+    void getTrips_admin_returns200_andLooksUpAllTrips() throws Exception {
+        Mockito.when(lookupService.trips(null, 5, "admin@planora.test", true))
+                .thenReturn(List.of(tripOption(2L, "Oslo")));
 
         mvc.perform(get("/api/bookings/trips")
+                        .param("limit", "5")
                         .principal(authAdmin("admin@planora.test")))
                 .andExpect(status().isOk())
-                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$", hasSize(1)))
                 .andExpect(jsonPath("$[0].id", is(2)));
 
-        Mockito.verify(tripRepository).findAll();
-        Mockito.verify(tripRepository, Mockito.never()).findByUserEmail(anyString());
+        Mockito.verify(lookupService).trips(null, 5, "admin@planora.test", true);
     }
 
     @Test
-    void getTransports_returns200_andCallsRepo() throws Exception {
-        Transport tr = new Transport();
-        tr.setId(3L);
-
-        Mockito.when(transportRepository.findAll())
-                .thenReturn(List.of(tr));
+    void getTransports_availableOnly_passesFilterToLookup() throws Exception {
+        Mockito.when(lookupService.transports("air", 20, true))
+                .thenReturn(List.of(transportOption(3L, "AirBaltic", 4)));
 
         mvc.perform(get("/api/bookings/transports")
+                        .param("q", "air")
+                        .param("availableOnly", "true")
                         .principal(authUser("user@planora.test")))
                 .andExpect(status().isOk())
-                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$", hasSize(1)))
-                .andExpect(jsonPath("$[0].id", is(3)));
-
-        Mockito.verify(transportRepository).findAll();
+                .andExpect(jsonPath("$[0].id", is(3)))
+                .andExpect(jsonPath("$[0].company", is("AirBaltic")))
+                .andExpect(jsonPath("$[0].seatsAvailable", is(4)));
     }
 
     @Test
-    void getAccommodations_returns200_andCallsRepo() throws Exception {
-        Accommodation a = new Accommodation();
-        a.setId(4L);
-
-        Mockito.when(accommodationRepository.findAll())
-                .thenReturn(List.of(a));
+    void getAccommodations_availableOnly_passesDatesToLookup() throws Exception {
+        Mockito.when(lookupService.accommodations(null, 20, true, LocalDate.of(2026, 3, 1), LocalDate.of(2026, 3, 4)))
+                .thenReturn(List.of());
 
         mvc.perform(get("/api/bookings/accommodations")
+                        .param("availableOnly", "true")
+                        .param("from", "2026-03-01")
+                        .param("to", "2026-03-04")
                         .principal(authUser("user@planora.test")))
                 .andExpect(status().isOk())
-                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$", hasSize(1)))
-                .andExpect(jsonPath("$[0].id", is(4)));
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    private static TripRepository.TripOption tripOption(Long id, String title) {
+        return new TripRepository.TripOption() {
+            public Long getId() { return id; }
+            public String getTitle() { return title; }
+        };
+    }
 
-        Mockito.verify(accommodationRepository).findAll();
+    private static TransportRepository.TransportOption transportOption(Long id, String company, Integer seatsAvailable) {
+        return new TransportRepository.TransportOption() {
+            public Long getId() { return id; }
+            public String getCompany() { return company; }
+            public String getOriginAddress() { return "Riga"; }
+            public String getDestinationAddress() { return "Oslo"; }
+            public LocalDateTime getDepartureTime() { return null; }
+            public LocalDateTime getArrivalTime() { return null; }
+            public double getPrice() { return 99.0; }
+            public Integer getSeatsAvailable() { return seatsAvailable; }
+        };
     }
-}
\ No newline at end of file
+}
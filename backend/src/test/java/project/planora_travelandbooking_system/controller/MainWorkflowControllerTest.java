@@ -0,0 +1,85 @@
+package project.planora_travelandbooking_system.controller;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import project.planora_travelandbooking_system.service.AccommodationService;
+import project.planora_travelandbooking_system.service.BookingService;
+import project.planora_travelandbooking_system.service.TransportService;
+import project.planora_travelandbooking_system.service.TripService;
+import project.planora_travelandbooking_system.service.UserService;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(
+        controllers = MainWorkflowController.class,
+        excludeFilters = @ComponentScan.Filter(
+                type = FilterType.ASSIGNABLE_TYPE,
+                classes = project.planora_travelandbooking_system.security.JwtFilter.class
+        )
+)
+@AutoConfigureMockMvc(addFilters = false)
+class MainWorkflowControllerTest {
+
+    private static final String ITINERARY = """
+            {"trip":{"title":"T"},
+             "bookings":[{"bookingType":"transport","transportId":3}]}
+            """;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @MockitoBean private TripService tripService;
+    @MockitoBean private TransportService transportService;
+    @MockitoBean private AccommodationService accommodationService;
+    @MockitoBean private BookingService bookingService;
+    @MockitoBean private UserService userService;
+
+    private static Authentication authUser(String email) {
+        return new UsernamePasswordAuthenticationToken(
+                email,
+                "N/A",
+                AuthorityUtils.createAuthorityList("ROLE_USER")
+        );
+    }
+
+    @Test
+    void saveItinerary_anonymous_returns401_andSavesNothing() throws Exception {
+        mvc.perform(post("/api/main/itinerary")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(ITINERARY))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.message", is("Unauthorized")));
+
+        Mockito.verifyNoInteractions(bookingService, tripService, userService);
+    }
+
+    @Test
+    void saveItinerary_user_returns201_withTripAndBookingIds() throws Exception {
+        Mockito.when(bookingService.saveItinerary(any(), anyList(), eq("user@planora.test"), eq(false)))
+                .thenReturn(new BookingService.ItineraryResult(5L, List.of(8L)));
+
+        mvc.perform(post("/api/main/itinerary")
+                        .principal(authUser("user@planora.test"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(ITINERARY))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.tripId", is(5)))
+                .andExpect(jsonPath("$.bookingIds[0]", is(8)));
+    }
+}
@@ -12,8 +12,10 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.context.request.WebRequest;
 import project.planora_travelandbooking_system.dto.TransportDTO;
 import project.planora_travelandbooking_system.model.Transport;
+import project.planora_travelandbooking_system.service.CatalogVersion;
 import project.planora_travelandbooking_system.service.TransportService;
 
 import java.util.List;
@@ -41,6 +43,9 @@ class TransportRestControllerTest {
     @MockitoBean
     private TransportService transportService;
 
+    @MockitoBean
+    private CatalogVersion catalogVersion;
+
     @Test
     void getAllTransports_returns200_andPageContent() throws Exception {
         TransportDTO dto = new TransportDTO();
@@ -68,6 +73,19 @@ class TransportRestControllerTest {
         Mockito.verify(transportService).getAllTransports(0, 10);
     }
 
+    @Test
+    void getAllTransports_matchingETag_returns304_withoutQuerying() throws Exception {
+        Mockito.when(catalogVersion.notModified(any(), any(CatalogVersion.Catalog.class)))
+                .thenAnswer(inv -> inv.getArgument(0, WebRequest.class).checkNotModified("W/\"v7\""));
+
+        mvc.perform(get("/api/transports").header("If-None-Match", "W/\"v7\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "W/\"v7\""))
+                .andExpect(content().string(""));
+
+        Mockito.verifyNoInteractions(transportService);
+    }
+
     @Test
     void saveTransport_returns201_andMessage() throws Exception {
         mvc.perform(post("/api/transports/save")
@@ -0,0 +1,36 @@
+package project.planora_travelandbooking_system.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+class DigestBloomFilterTest {
+
+    @Test
+    void mightContain_addedDigests_alwaysTrue() {
+        DigestBloomFilter filter = new DigestBloomFilter(1_000, 0.01);
+
+        for (int i = 0; i < 1_000; i++) {
+            filter.put(TokenHashUtil.sha256("token-" + i));
+        }
+
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(filter.mightContain(TokenHashUtil.sha256("token-" + i))).isTrue();
+        }
+    }
+
+    @Test
+    void mightContain_unknownDigests_falsePositiveRateNearTarget() {
+        DigestBloomFilter filter = new DigestBloomFilter(1_000, 0.01);
+        for (int i = 0; i < 1_000; i++) {
+            filter.put(TokenHashUtil.sha256("token-" + i));
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain(TokenHashUtil.sha256("other-" + i))) falsePositives++;
+        }
+
+        assertThat(falsePositives).isLessThan(300);
+    }
+}
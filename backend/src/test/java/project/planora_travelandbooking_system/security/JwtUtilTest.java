@@ -0,0 +1,133 @@
+package project.planora_travelandbooking_system.security;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import project.planora_travelandbooking_system.model.User;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.*;
+
+class JwtUtilTest {
+
+    private static final String SECRET =
+            "test-secret-test-secret-test-secret-test-secret-test-secret-1234";
+
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setup() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "cacheMaxSize", 100);
+        jwtUtil.init();
+    }
+
+    @Test
+    void extractEmail_secondCall_isServedFromCache() {
+        String token = jwtUtil.generateToken("user@test.com");
+
+        assertThat(jwtUtil.extractEmail(token)).isEqualTo("user@test.com");
+        assertThat(jwtUtil.extractEmail(token)).isEqualTo("user@test.com");
+
+        assertThat(jwtUtil.getCacheMisses()).isEqualTo(1);
+        assertThat(jwtUtil.getCacheHits()).isEqualTo(1);
+        assertThat(jwtUtil.getCacheSize()).isEqualTo(1);
+    }
+
+    @Test
+    void extractEmail_tamperedToken_throws_andIsNotCached() {
+        String token = jwtUtil.generateToken("user@test.com");
+        String tampered = token.substring(0, token.length() - 2) + "xx";
+
+        assertThatThrownBy(() -> jwtUtil.extractEmail(tampered))
+                .isInstanceOf(RuntimeException.class);
+
+        assertThat(jwtUtil.getCacheSize()).isZero();
+    }
+
+    @Test
+    void extractEmail_expiredToken_throws() {
+        String expired = Jwts.builder()
+                .setSubject("user@test.com")
+                .setIssuedAt(new Date(System.currentTimeMillis() - 120_000))
+                .setExpiration(new Date(System.currentTimeMillis() - 60_000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS512)
+                .compact();
+
+        assertThatThrownBy(() -> jwtUtil.extractEmail(expired))
+                .isInstanceOf(ExpiredJwtException.class);
+
+        assertThat(jwtUtil.getCacheSize()).isZero();
+    }
+
+    @Test
+    void verify_cacheFull_doesNotGrowPastMaxSize() {
+        ReflectionTestUtils.setField(jwtUtil, "cacheMaxSize", 2);
+
+        jwtUtil.extractEmail(jwtUtil.generateToken("a@test.com"));
+        jwtUtil.extractEmail(jwtUtil.generateToken("b@test.com"));
+        jwtUtil.extractEmail(jwtUtil.generateToken("c@test.com"));
+
+        assertThat(jwtUtil.getCacheSize()).isEqualTo(2);
+    }
+
+    @Test
+    void verify_cacheFull_keepsTokensReadSinceTheyWereCached() {
+        ReflectionTestUtils.setField(jwtUtil, "cacheMaxSize", 2);
+        String a = jwtUtil.generateToken("a@test.com");
+        String b = jwtUtil.generateToken("b@test.com");
+        String c = jwtUtil.generateToken("c@test.com");
+
+        jwtUtil.extractEmail(a);
+        jwtUtil.extractEmail(b);
+        jwtUtil.extractEmail(a); // a was read again, b was not
+        jwtUtil.extractEmail(c);
+        assertThat(jwtUtil.getCacheMisses()).isEqualTo(3);
+
+        jwtUtil.extractEmail(a);
+        jwtUtil.extractEmail(c);
+        assertThat(jwtUtil.getCacheMisses()).isEqualTo(3);
+
+        jwtUtil.extractEmail(b);
+        assertThat(jwtUtil.getCacheMisses()).isEqualTo(4);
+    }
+
+    @Test
+    void generateToken_statelessMode_carriesRoleAndSecurityVersion() {
+        ReflectionTestUtils.setField(jwtUtil, "statelessEnabled", true);
+
+        User user = new User();
+        user.setId(7L);
+        user.setEmail("admin@test.com");
+        user.setRole(User.Role.ADMIN);
+        user.setSecurityVersion(3);
+
+        JwtUtil.VerifiedToken verified = jwtUtil.verify(jwtUtil.generateToken(user));
+
+        assertThat(verified.hasAuthorityClaims()).isTrue();
+        assertThat(verified.subject()).isEqualTo("admin@test.com");
+        assertThat(verified.userId()).isEqualTo(7L);
+        assertThat(verified.role()).isEqualTo("ADMIN");
+        assertThat(verified.securityVersion()).isEqualTo(3L);
+    }
+
+    @Test
+    void generateToken_defaultMode_onlyCarriesSubject() {
+        User user = new User();
+        user.setId(7L);
+        user.setEmail("user@test.com");
+        user.setRole(User.Role.USER);
+
+        JwtUtil.VerifiedToken verified = jwtUtil.verify(jwtUtil.generateToken(user));
+
+        assertThat(verified.subject()).isEqualTo("user@test.com");
+        assertThat(verified.hasAuthorityClaims()).isFalse();
+    }
+}
@@ -0,0 +1,56 @@
+package project.planora_travelandbooking_system.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.*;
+
+class PasswordEncoderProfileTest {
+
+    private PasswordEncoder encoder(String algorithm, int bcryptStrength) {
+        PasswordEncoderProfile profile = new PasswordEncoderProfile();
+        ReflectionTestUtils.setField(profile, "algorithm", algorithm);
+        ReflectionTestUtils.setField(profile, "bcryptStrength", bcryptStrength);
+        ReflectionTestUtils.setField(profile, "latencyBudgetMillis", 250L);
+        ReflectionTestUtils.setField(profile, "pbkdf2Iterations", 1000);
+        return profile.createEncoder();
+    }
+
+    @Test
+    void legacyUnprefixedBcryptHash_stillMatches_andNeedsUpgrade() {
+        String legacy = new BCryptPasswordEncoder(4).encode("secret");
+        PasswordEncoder encoder = encoder("bcrypt", 5);
+
+        assertThat(encoder.matches("secret", legacy)).isTrue();
+        assertThat(encoder.upgradeEncoding(legacy)).isTrue();
+    }
+
+    @Test
+    void newHash_isPrefixed_andCurrent() {
+        PasswordEncoder encoder = encoder("bcrypt", 5);
+        String hash = encoder.encode("secret");
+
+        assertThat(hash).startsWith("{bcrypt}");
+        assertThat(encoder.matches("secret", hash)).isTrue();
+        assertThat(encoder.upgradeEncoding(hash)).isFalse();
+    }
+
+    @Test
+    void lowerBcryptStrength_needsUpgrade() {
+        String weak = encoder("bcrypt", 4).encode("secret");
+
+        assertThat(encoder("bcrypt", 5).upgradeEncoding(weak)).isTrue();
+    }
+
+    @Test
+    void switchingToPbkdf2_upgradesBcryptHashes() {
+        String bcrypt = encoder("bcrypt", 4).encode("secret");
+        PasswordEncoder pbkdf2 = encoder("pbkdf2", 4);
+
+        assertThat(pbkdf2.matches("secret", bcrypt)).isTrue();
+        assertThat(pbkdf2.upgradeEncoding(bcrypt)).isTrue();
+        assertThat(pbkdf2.encode("secret")).startsWith("{pbkdf2}");
+    }
+}
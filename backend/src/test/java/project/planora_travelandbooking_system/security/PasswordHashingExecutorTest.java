@@ -0,0 +1,117 @@
+package project.planora_travelandbooking_system.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import project.planora_travelandbooking_system.exception.PasswordHashingBusyException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+class PasswordHashingExecutorTest {
+
+    private PasswordHashingExecutor executor;
+
+    @BeforeEach
+    void setup() {
+        executor = new PasswordHashingExecutor();
+        ReflectionTestUtils.setField(executor, "threads", 1);
+        ReflectionTestUtils.setField(executor, "queueCapacity", 1);
+        ReflectionTestUtils.setField(executor, "timeoutMillis", 5_000L);
+        executor.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void execute_returnsResult_andRecordsLatency() {
+        assertThat(executor.execute(() -> "hashed")).isEqualTo("hashed");
+
+        assertThat(executor.getCompleted()).isEqualTo(1);
+        assertThat(executor.getRejected()).isZero();
+    }
+
+    @Test
+    void execute_poolAndQueueFull_rejectsImmediately() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> executor.execute(() -> {
+            started.countDown();
+            await(release);
+            return "first";
+        }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> executor.execute(() -> "second"));
+        while (executor.getQueueDepth() == 0) {
+            Thread.onSpinWait();
+        }
+
+        assertThatThrownBy(() -> executor.execute(() -> "third"))
+                .isInstanceOf(PasswordHashingBusyException.class);
+        assertThat(executor.getRejected()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("first");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("second");
+    }
+
+    @Test
+    void submitBackground_onlyGetsInWhileTheQueueIsShort() throws Exception {
+        executor.shutdown();
+        ReflectionTestUtils.setField(executor, "queueCapacity", 4);
+        ReflectionTestUtils.setField(executor, "backgroundLimit", 1);
+        executor.init();
+
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> executor.execute(() -> {
+            started.countDown();
+            await(release);
+            return "login";
+        }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<String> rehash = executor.submitBackground(() -> "rehash");
+        assertThat(executor.getQueueDepth()).isEqualTo(1);
+
+        // the queue is at the low-water mark now, a second rehash is turned away at once
+        CompletableFuture<String> second = executor.submitBackground(() -> "second rehash");
+        assertThat(second).isCompletedExceptionally();
+        assertThatThrownBy(second::join).hasCauseInstanceOf(PasswordHashingBusyException.class);
+
+        // logins still queue behind it
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> executor.execute(() -> "next login"));
+        while (executor.getQueueDepth() < 2) {
+            Thread.onSpinWait();
+        }
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("login");
+        assertThat(rehash.get(5, TimeUnit.SECONDS)).isEqualTo("rehash");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("next login");
+    }
+
+    @Test
+    void execute_taskException_isRethrownToCaller() {
+        assertThatThrownBy(() -> executor.execute(() -> {
+            throw new IllegalArgumentException("bad hash");
+        })).isInstanceOf(IllegalArgumentException.class).hasMessage("bad hash");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
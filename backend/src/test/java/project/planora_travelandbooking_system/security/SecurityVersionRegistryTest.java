@@ -0,0 +1,62 @@
+package project.planora_travelandbooking_system.security;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import project.planora_travelandbooking_system.model.User;
+import project.planora_travelandbooking_system.repository.UserRepository;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SecurityVersionRegistryTest {
+
+    @Mock private UserRepository userRepository;
+    @InjectMocks private SecurityVersionRegistry securityVersions;
+
+    @Test
+    void isCurrent_unknownUser_isLookedUpOnce() {
+        when(userRepository.findSecurityVersionById(7L)).thenReturn(Optional.of(2L));
+
+        assertThat(securityVersions.isCurrent(7L, 1)).isFalse();
+        assertThat(securityVersions.isCurrent(7L, 2)).isTrue();
+
+        verify(userRepository, times(1)).findSecurityVersionById(7L);
+    }
+
+    @Test
+    void isCurrent_userRowGone_rejectsEveryToken() {
+        // e.g. removed on another instance, or before this one restarted
+        when(userRepository.findSecurityVersionById(7L)).thenReturn(Optional.empty());
+
+        assertThat(securityVersions.isCurrent(7L, 0)).isFalse();
+        assertThat(securityVersions.isCurrent(7L, Long.MAX_VALUE - 1)).isFalse();
+    }
+
+    @Test
+    void revokeAll_rejectsTokensWithoutALookup() {
+        securityVersions.revokeAll(7L);
+
+        assertThat(securityVersions.isCurrent(7L, 0)).isFalse();
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void bump_rejectsOlderTokens() {
+        User user = new User();
+        user.setId(7L);
+        user.setSecurityVersion(3);
+
+        securityVersions.bump(user);
+
+        assertThat(user.getSecurityVersion()).isEqualTo(4);
+        assertThat(securityVersions.isCurrent(7L, 3)).isFalse();
+        assertThat(securityVersions.isCurrent(7L, 4)).isTrue();
+        verifyNoInteractions(userRepository);
+    }
+}
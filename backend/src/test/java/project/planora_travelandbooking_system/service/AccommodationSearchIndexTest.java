@@ -0,0 +1,161 @@
+package project.planora_travelandbooking_system.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import project.planora_travelandbooking_system.dto.AccommodationSearchCriteria;
+import project.planora_travelandbooking_system.model.Accommodation;
+import project.planora_travelandbooking_system.repository.AccommodationRepository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AccommodationSearchIndexTest {
+
+    private static final LocalDate MAR_1 = LocalDate.of(2026, 3, 1);
+
+    @Mock private AccommodationRepository accommodationRepository;
+    @Mock private BookingAvailabilityIndex availabilityIndex;
+    @Mock private PlatformTransactionManager transactionManager;
+
+    @InjectMocks private AccommodationSearchIndex index;
+
+    @Test
+    void search_intersectsCityAndType_andFiltersRatingAndPrice() {
+        when(accommodationRepository.findAll()).thenReturn(List.of(
+                accommodation(1L, "Riga", Accommodation.AccommodationType.HOTEL, 4.5, 90),
+                accommodation(2L, "riga ", Accommodation.AccommodationType.HOSTEL, 4.0, 20),
+                accommodation(3L, "Riga", Accommodation.AccommodationType.HOTEL, 3.0, 60),
+                accommodation(4L, "Oslo", Accommodation.AccommodationType.HOTEL, 5.0, 150)));
+        index.warmUp();
+
+        assertThat(ids(criteria("RIGA", null, null, null))).containsExactly(1L, 2L, 3L);
+        assertThat(ids(criteria("Riga", "hotel", null, null))).containsExactly(1L, 3L);
+        assertThat(ids(criteria("Riga", "HOTEL", 4.0, null))).containsExactly(1L);
+        assertThat(ids(criteria(null, "HOTEL", null, 100.0))).containsExactly(1L, 3L);
+        assertThat(ids(criteria("Tallinn", null, null, null))).isEmpty();
+        verify(accommodationRepository, times(1)).findAll();
+    }
+
+    @Test
+    void search_withStayDates_checksOpeningWindowAndBookings() {
+        Accommodation open = accommodation(1L, "Riga", Accommodation.AccommodationType.HOTEL, 4.0, 50);
+        Accommodation booked = accommodation(2L, "Riga", Accommodation.AccommodationType.HOTEL, 4.0, 50);
+        Accommodation closedBeforeStay = accommodation(3L, "Riga", Accommodation.AccommodationType.HOTEL, 4.0, 50);
+        closedBeforeStay.setEndTime(MAR_1.plusDays(1).atStartOfDay());
+        Accommodation unavailable = accommodation(4L, "Riga", Accommodation.AccommodationType.HOTEL, 4.0, 50);
+        unavailable.setStatus(Accommodation.Status.UNAVAILABLE);
+        when(accommodationRepository.findAll()).thenReturn(List.of(open, booked, closedBeforeStay, unavailable));
+        when(availabilityIndex.isAccommodationBooked(eq(1L), eq(MAR_1), eq(MAR_1.plusDays(3)), any())).thenReturn(false);
+        when(availabilityIndex.isAccommodationBooked(eq(2L), eq(MAR_1), eq(MAR_1.plusDays(3)), any())).thenReturn(true);
+        index.warmUp();
+
+        AccommodationSearchCriteria criteria = criteria("Riga", null, null, null);
+        criteria.setCheckIn(MAR_1);
+        criteria.setCheckOut(MAR_1.plusDays(3));
+
+        assertThat(ids(criteria)).containsExactly(1L);
+    }
+
+    @Test
+    void onSaved_movesListingBetweenPostings_andOnDeletedDropsIt() {
+        when(accommodationRepository.findAll()).thenReturn(List.of());
+        index.warmUp();
+
+        Accommodation a = accommodation(7L, "Riga", Accommodation.AccommodationType.HOTEL, 4.0, 50);
+        index.onSaved(a);
+        assertThat(ids(criteria("Riga", null, null, null))).containsExactly(7L);
+
+        a.setCity("Oslo");
+        a.setAccommodationType(Accommodation.AccommodationType.HOSTEL);
+        when(accommodationRepository.findById(7L)).thenReturn(Optional.of(a));
+        index.onSaved(a);
+        assertThat(ids(criteria("Riga", null, null, null))).isEmpty();
+        assertThat(ids(criteria(null, "HOTEL", null, null))).isEmpty();
+        assertThat(ids(criteria("Oslo", "HOSTEL", null, null))).containsExactly(7L);
+
+        index.onDeleted(7L);
+        assertThat(ids(criteria(null, null, null, null))).isEmpty();
+        assertThat(index.getListings()).isZero();
+    }
+
+    @Test
+    void onSaved_callbacksOutOfCommitOrder_keepTheCommittedRow() {
+        Accommodation original = accommodation(7L, "Riga", Accommodation.AccommodationType.HOTEL, 4.0, 50);
+        when(accommodationRepository.findAll()).thenReturn(List.of(original));
+        index.warmUp();
+
+        // two updates commit first to 60 then to 70, but the callback of the 60 update runs last
+        Accommodation committed = accommodation(7L, "Riga", Accommodation.AccommodationType.HOTEL, 4.0, 70);
+        when(accommodationRepository.findById(7L)).thenReturn(Optional.of(committed));
+        index.onSaved(committed);
+        index.onSaved(accommodation(7L, "Riga", Accommodation.AccommodationType.HOTEL, 4.0, 60));
+
+        assertThat(index.search(criteria("Riga", null, null, null)))
+                .extracting(AccommodationSearchIndex.Listing::pricePerNight)
+                .containsExactly(70.0);
+    }
+
+    @Test
+    void search_checkOutWithoutCheckIn_throws() {
+        when(accommodationRepository.findAll()).thenReturn(List.of());
+        AccommodationSearchCriteria criteria = new AccommodationSearchCriteria();
+        criteria.setCheckOut(MAR_1);
+
+        assertThatThrownBy(() -> index.search(criteria))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("checkIn is required with checkOut");
+        assertThat(index.isReady()).isTrue();
+    }
+
+    @Test
+    void postingArrays_staySortedAndIntersect() {
+        long[] ids = AccommodationSearchIndex.insert(null, 5);
+        ids = AccommodationSearchIndex.insert(ids, 1);
+        ids = AccommodationSearchIndex.insert(ids, 9);
+        ids = AccommodationSearchIndex.insert(ids, 5);
+        assertThat(ids).containsExactly(1, 5, 9);
+
+        assertThat(AccommodationSearchIndex.delete(ids, 5)).containsExactly(1, 9);
+        assertThat(AccommodationSearchIndex.intersect(ids, new long[]{2, 5, 9, 11})).containsExactly(5, 9);
+    }
+
+    private List<Long> ids(AccommodationSearchCriteria criteria) {
+        return index.search(criteria).stream().map(AccommodationSearchIndex.Listing::id).toList();
+    }
+
+    private static AccommodationSearchCriteria criteria(String city, String type, Double minRating, Double maxPrice) {
+        AccommodationSearchCriteria criteria = new AccommodationSearchCriteria();
+        criteria.setCity(city);
+        criteria.setAccommodationType(type);
+        criteria.setMinRating(minRating);
+        criteria.setMaxPrice(maxPrice);
+        return criteria;
+    }
+
+    private static Accommodation accommodation(Long id, String city, Accommodation.AccommodationType type,
+                                               double rating, double price) {
+        Accommodation a = new Accommodation();
+        a.setId(id);
+        a.setCity(city);
+        a.setAccommodationType(type);
+        a.setRating(rating);
+        a.setPricePerNight(price);
+        a.setStatus(Accommodation.Status.AVAILABLE);
+        a.setStartTime(LocalDateTime.of(2026, 1, 1, 0, 0));
+        a.setEndTime(LocalDateTime.of(2026, 12, 31, 0, 0));
+        return a;
+    }
+}
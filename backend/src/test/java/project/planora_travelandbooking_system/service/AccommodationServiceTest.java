@@ -18,6 +18,10 @@ import static org.mockito.Mockito.*;
 class AccommodationServiceTest {
 
     @Mock private AccommodationRepository accommodationRepository;
+    @Mock private AccommodationSearchIndex searchIndex;
+    @Mock private CatalogCache catalogCache;
+    @Mock private CatalogVersion catalogVersion;
+    @Mock private PricingService pricingService;
     @InjectMocks private AccommodationService accommodationService;
 
     @Captor ArgumentCaptor<Accommodation> accCaptor;
@@ -0,0 +1,114 @@
+package project.planora_travelandbooking_system.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import project.planora_travelandbooking_system.model.Accommodation;
+import project.planora_travelandbooking_system.model.Booking;
+import project.planora_travelandbooking_system.repository.BookingRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingAvailabilityIndexTest {
+
+    private static final LocalDate JAN_10 = LocalDate.of(2026, 1, 10);
+
+    @Mock private BookingRepository bookingRepository;
+    @Mock private CatalogVersion catalogVersion;
+
+    @InjectMocks private BookingAvailabilityIndex index;
+
+    @Test
+    void beforeWarmUp_fallsBackToRepository() {
+        when(bookingRepository.existsByAccommodationIdAndStatusNotAndStartDateBeforeAndEndDateAfter(
+                55L, Booking.BookingStatus.CANCELLED, JAN_10.plusDays(2).atStartOfDay(), JAN_10.atStartOfDay()))
+                .thenReturn(true);
+
+        assertThat(index.isAccommodationBooked(55L, JAN_10, JAN_10.plusDays(2), null)).isTrue();
+        assertThat(index.isReady()).isFalse();
+    }
+
+    @Test
+    void afterWarmUp_checksNightOverlap_inMemory() {
+        // booked nights: Jan 10, 11, 12 (check-out Jan 13)
+        BookingRepository.ActiveStayView view = mock(BookingRepository.ActiveStayView.class);
+        when(view.getId()).thenReturn(1L);
+        when(view.getAccommodationId()).thenReturn(55L);
+        when(view.getStartDate()).thenReturn(JAN_10.atStartOfDay());
+        when(view.getEndDate()).thenReturn(JAN_10.plusDays(3).atStartOfDay());
+        when(bookingRepository.findActiveStays(Booking.BookingStatus.CANCELLED)).thenReturn(List.of(view));
+
+        index.warmUp();
+
+        assertThat(index.isAccommodationBooked(55L, JAN_10.plusDays(2), JAN_10.plusDays(4), null)).isTrue();
+        assertThat(index.isAccommodationBooked(55L, JAN_10.minusDays(2), JAN_10.plusDays(1), null)).isTrue();
+        // back-to-back stays share the changeover day
+        assertThat(index.isAccommodationBooked(55L, JAN_10.plusDays(3), JAN_10.plusDays(5), null)).isFalse();
+        assertThat(index.isAccommodationBooked(55L, JAN_10.minusDays(3), JAN_10, null)).isFalse();
+        // the booking never conflicts with itself
+        assertThat(index.isAccommodationBooked(55L, JAN_10, JAN_10.plusDays(3), 1L)).isFalse();
+        // open-ended: any night from the given day on
+        assertThat(index.isAccommodationBooked(55L, JAN_10.plusDays(3), null, null)).isFalse();
+        assertThat(index.isAccommodationBooked(55L, JAN_10.minusDays(30), null, null)).isTrue();
+        assertThat(index.isAccommodationBooked(56L, JAN_10, JAN_10.plusDays(3), null)).isFalse();
+
+        verify(bookingRepository, never()).existsByAccommodationIdAndStatusNotAndStartDateBeforeAndEndDateAfter(
+                anyLong(), any(), any(), any());
+    }
+
+    @Test
+    void excludedBooking_doesNotHideAnEarlierOverlappingStay() {
+        when(bookingRepository.findActiveStays(Booking.BookingStatus.CANCELLED)).thenReturn(List.of());
+        index.warmUp();
+
+        index.onSaved(stay(1L, JAN_10, JAN_10.plusDays(3)));
+        index.onSaved(stay(2L, JAN_10.plusDays(3), JAN_10.plusDays(5)));
+
+        // moving booking 2 one day earlier would overlap booking 1
+        assertThat(index.isAccommodationBooked(55L, JAN_10.plusDays(2), JAN_10.plusDays(5), 2L)).isTrue();
+        assertThat(index.isAccommodationBooked(55L, JAN_10.plusDays(3), JAN_10.plusDays(6), 2L)).isFalse();
+    }
+
+    @Test
+    void onSaved_cancelledOrDeleted_freesNights() {
+        when(bookingRepository.findActiveStays(Booking.BookingStatus.CANCELLED)).thenReturn(List.of());
+        index.warmUp();
+
+        Booking booking = stay(1L, JAN_10, JAN_10.plusDays(2));
+
+        index.onSaved(booking);
+        assertThat(index.isAccommodationBooked(55L, JAN_10, JAN_10.plusDays(1), null)).isTrue();
+
+        booking.setStatus(Booking.BookingStatus.CANCELLED);
+        index.onSaved(booking);
+        assertThat(index.isAccommodationBooked(55L, JAN_10, JAN_10.plusDays(1), null)).isFalse();
+
+        booking.setStatus(Booking.BookingStatus.CONFIRMED);
+        index.onSaved(booking);
+        index.onDeleted(List.of(1L));
+        assertThat(index.isAccommodationBooked(55L, JAN_10, JAN_10.plusDays(1), null)).isFalse();
+        assertThat(index.getActiveBookings()).isZero();
+    }
+
+    private static Booking stay(Long id, LocalDate checkIn, LocalDate checkOut) {
+        Accommodation accommodation = new Accommodation();
+        accommodation.setId(55L);
+
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setAccommodation(accommodation);
+        booking.setStatus(Booking.BookingStatus.CONFIRMED);
+        booking.setStartDate(checkIn.atStartOfDay());
+        booking.setEndDate(checkOut.atStartOfDay());
+        return booking;
+    }
+}
@@ -0,0 +1,111 @@
+package project.planora_travelandbooking_system.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import project.planora_travelandbooking_system.repository.AccommodationRepository;
+import project.planora_travelandbooking_system.repository.TransportRepository;
+import project.planora_travelandbooking_system.repository.TripRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingLookupServiceTest {
+
+    private static final LocalDate MAR_1 = LocalDate.of(2026, 3, 1);
+
+    @Mock private TripRepository tripRepository;
+    @Mock private TransportRepository transportRepository;
+    @Mock private AccommodationRepository accommodationRepository;
+    @Mock private BookingAvailabilityIndex availabilityIndex;
+
+    @InjectMocks private BookingLookupService lookupService;
+
+    @Test
+    void prefix_lowercasesAndEscapesWildcards() {
+        assertThat(BookingLookupService.prefix(null)).isEqualTo("%");
+        assertThat(BookingLookupService.prefix("  ")).isEqualTo("%");
+        assertThat(BookingLookupService.prefix(" Riga ")).isEqualTo("riga%");
+        assertThat(BookingLookupService.prefix("50%_off!")).isEqualTo("50!%!_off!!%");
+    }
+
+    @Test
+    void trips_user_isScopedToOwnTrips_andLimitIsCapped() {
+        when(tripRepository.findOptionsByUserEmail("user@test.com", "ri%", PageRequest.ofSize(BookingLookupService.MAX_LIMIT)))
+                .thenReturn(List.of());
+
+        lookupService.trips("Ri", 10_000, "user@test.com", false);
+
+        verify(tripRepository, never()).findOptions(any(), any());
+    }
+
+    @Test
+    void transports_passesAvailableOnlyToQuery() {
+        when(transportRepository.findOptions("%", true, PageRequest.ofSize(20))).thenReturn(List.of());
+
+        assertThat(lookupService.transports(null, 20, true)).isEmpty();
+    }
+
+    @Test
+    void accommodations_availableOnly_readsBatchesUntilLimitIsFilled() {
+        AccommodationRepository.AccommodationOption booked1 = option(1L);
+        AccommodationRepository.AccommodationOption booked2 = option(2L);
+        AccommodationRepository.AccommodationOption free3 = option(3L);
+        AccommodationRepository.AccommodationOption free4 = option(4L);
+
+        when(accommodationRepository.findOptions("%", PageRequest.of(0, 2)))
+                .thenReturn(new SliceImpl<>(List.of(booked1, booked2), PageRequest.of(0, 2), true));
+        when(accommodationRepository.findOptions("%", PageRequest.of(1, 2)))
+                .thenReturn(new SliceImpl<>(List.of(free3, free4), PageRequest.of(1, 2), true));
+        when(availabilityIndex.isAccommodationBooked(eq(1L), eq(MAR_1), any(), any())).thenReturn(true);
+        when(availabilityIndex.isAccommodationBooked(eq(2L), eq(MAR_1), any(), any())).thenReturn(true);
+        when(availabilityIndex.isAccommodationBooked(eq(3L), eq(MAR_1), any(), any())).thenReturn(false);
+        when(availabilityIndex.isAccommodationBooked(eq(4L), eq(MAR_1), any(), any())).thenReturn(false);
+
+        List<AccommodationRepository.AccommodationOption> result =
+                lookupService.accommodations(null, 2, true, MAR_1, MAR_1.plusDays(3));
+
+        assertThat(result).containsExactly(free3, free4);
+        verify(accommodationRepository, never()).findOptions("%", PageRequest.of(2, 2));
+    }
+
+    @Test
+    void accommodations_availableOnly_mostlyBooked_stopsAfterMaxBatches() {
+        AccommodationRepository.AccommodationOption booked = option(1L);
+        when(accommodationRepository.findOptions(eq("%"), any(PageRequest.class)))
+                .thenAnswer(invocation -> new SliceImpl<>(List.of(booked), invocation.getArgument(1), true));
+        when(availabilityIndex.isAccommodationBooked(eq(1L), eq(MAR_1), any(), any())).thenReturn(true);
+
+        List<AccommodationRepository.AccommodationOption> result =
+                lookupService.accommodations(null, 1, true, MAR_1, MAR_1.plusDays(3));
+
+        assertThat(result).isEmpty();
+        verify(accommodationRepository, times(BookingLookupService.MAX_BATCHES)).findOptions(eq("%"), any(PageRequest.class));
+    }
+
+    @Test
+    void accommodations_toNotAfterFrom_throws() {
+        assertThatThrownBy(() -> lookupService.accommodations(null, 20, true, MAR_1, MAR_1))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("to must be after from");
+
+        verifyNoInteractions(accommodationRepository);
+    }
+
+    private static AccommodationRepository.AccommodationOption option(Long id) {
+        AccommodationRepository.AccommodationOption option = mock(AccommodationRepository.AccommodationOption.class);
+        lenient().when(option.getId()).thenReturn(id);
+        return option;
+    }
+}
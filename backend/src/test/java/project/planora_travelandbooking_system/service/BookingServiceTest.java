@@ -7,17 +7,25 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import project.planora_travelandbooking_system.dto.BookingDTO;
+import project.planora_travelandbooking_system.dto.TripDTO;
+import project.planora_travelandbooking_system.exception.BookingConflictException;
 import project.planora_travelandbooking_system.model.*;
 import project.planora_travelandbooking_system.repository.AccommodationRepository;
 import project.planora_travelandbooking_system.repository.BookingRepository;
 import project.planora_travelandbooking_system.repository.TransportRepository;
 import project.planora_travelandbooking_system.repository.TripRepository;
+import project.planora_travelandbooking_system.repository.UserRepository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -30,6 +38,13 @@ class BookingServiceTest {
     @Mock private TripRepository tripRepository;
     @Mock private TransportRepository transportRepository;
     @Mock private AccommodationRepository accommodationRepository;
+    @Mock private BookingAvailabilityIndex availabilityIndex;
+    @Mock private BookingLocks bookingLocks;
+    @Mock private TransportSeatInventory seatInventory;
+    @Mock private CatalogCache catalogCache;
+    @Mock private UserRepository userRepository;
+    @Spy private PricingService pricingService = new PricingService(List.of());
+    @Mock private TripService tripService;
 
     @InjectMocks private BookingService bookingService;
 
@@ -76,7 +91,12 @@ class BookingServiceTest {
     }
 
     @Test
-    void saveBooking_transportAlreadyBooked_throwsHelpfulMessage() {
+    void saveBooking_transportSoldOut_throwsConflict_andIndexUntouched() {
+        Transport transport = new Transport();
+        transport.setId(55L);
+        transport.setDepartureTime(LocalDateTime.of(2026, 3, 1, 8, 0));
+        transport.setArrivalTime(LocalDateTime.of(2026, 3, 1, 11, 0));
+
         BookingDTO dto = new BookingDTO();
         dto.setTripId(ownerTrip.getId());
         dto.setBookingType("TRANSPORT");
@@ -84,21 +104,54 @@ class BookingServiceTest {
         dto.setTransportId(55L);
 
         when(tripRepository.findById(ownerTrip.getId())).thenReturn(Optional.of(ownerTrip));
-        when(bookingRepository.existsByTransportIdAndStatusNot(eq(55L), eq(Booking.BookingStatus.CANCELLED)))
-                .thenReturn(true);
+        when(catalogCache.transport(55L)).thenReturn(CatalogCache.TransportFacts.of(transport));
+        when(transportRepository.getReferenceById(55L)).thenReturn(transport);
+        doThrow(new BookingConflictException("No seats left on this transport"))
+                .when(seatInventory).take(55L, null);
 
         assertThatThrownBy(() -> bookingService.saveBooking(dto, owner.getEmail(), false))
-                .isInstanceOf(RuntimeException.class)
-                .hasMessage("This transport is already booked in another active booking");
+                .isInstanceOf(BookingConflictException.class)
+                .hasMessage("No seats left on this transport");
 
-        verify(bookingRepository, never()).save(any());
-        verify(transportRepository, never()).findById(anyLong());
+        verify(bookingLocks, never()).lockUntilCompletion(any(), any());
+        verify(availabilityIndex, never()).onSaved(any());
+    }
+
+    @Test
+    void saveBooking_lostRaceOnSeatIndex_throwsConflict() {
+        Transport transport = new Transport();
+        transport.setId(55L);
+        transport.setDepartureTime(LocalDateTime.of(2026, 3, 1, 8, 0));
+        transport.setArrivalTime(LocalDateTime.of(2026, 3, 1, 11, 0));
+
+        BookingDTO dto = new BookingDTO();
+        dto.setTripId(ownerTrip.getId());
+        dto.setBookingType("TRANSPORT");
+        dto.setStatus("CONFIRMED");
+        dto.setTransportId(55L);
+        dto.setSeatNumber(3);
+
+        when(tripRepository.findById(ownerTrip.getId())).thenReturn(Optional.of(ownerTrip));
+        when(catalogCache.transport(55L)).thenReturn(CatalogCache.TransportFacts.of(transport));
+        when(transportRepository.getReferenceById(55L)).thenReturn(transport);
+        doThrow(new DataIntegrityViolationException("insert failed",
+                new RuntimeException("duplicate key value violates unique constraint \"ux_booking_active_seat\"")))
+                .when(bookingRepository).flush();
+
+        assertThatThrownBy(() -> bookingService.saveBooking(dto, owner.getEmail(), false))
+                .isInstanceOf(BookingConflictException.class)
+                .hasMessage("Seat 3 is already taken");
+
+        verify(seatInventory, never()).take(any(), any());
+        verify(availabilityIndex, never()).onSaved(any());
     }
 
     @Test
     void saveBooking_transportHappyPath_setsTransportAndPrice_saves() {
         Transport transport = new Transport();
         transport.setId(55L);
+        transport.setDepartureTime(LocalDateTime.of(2026, 3, 1, 8, 0));
+        transport.setArrivalTime(LocalDateTime.of(2026, 3, 1, 11, 0));
         transport.setPrice(123.45);
 
         BookingDTO dto = new BookingDTO();
@@ -108,9 +161,8 @@ class BookingServiceTest {
         dto.setTransportId(55L);
 
         when(tripRepository.findById(ownerTrip.getId())).thenReturn(Optional.of(ownerTrip));
-        when(bookingRepository.existsByTransportIdAndStatusNot(eq(55L), eq(Booking.BookingStatus.CANCELLED)))
-                .thenReturn(false);
-        when(transportRepository.findById(55L)).thenReturn(Optional.of(transport));
+        when(catalogCache.transport(55L)).thenReturn(CatalogCache.TransportFacts.of(transport));
+        when(transportRepository.getReferenceById(55L)).thenReturn(transport);
 
         bookingService.saveBooking(dto, owner.getEmail(), false);
 
@@ -124,32 +176,229 @@ class BookingServiceTest {
         assertThat(saved.getAccommodation()).isNull();
         assertThat(saved.getTotalPrice()).isEqualTo(123.45);
         assertThat(saved.getCreatedAt()).isNotNull();
+        verify(seatInventory).take(55L, null);
+        verify(availabilityIndex).onSaved(saved);
     }
 
     @Test
-    void updateBooking_transportAlreadyBookedExcludingSelf_throwsHelpfulMessage() {
+    void updateBooking_changingSeat_releasesOldSeat_thenTakesNewOne() {
+        Transport transport = new Transport();
+        transport.setId(55L);
+        transport.setDepartureTime(LocalDateTime.of(2026, 3, 1, 8, 0));
+        transport.setArrivalTime(LocalDateTime.of(2026, 3, 1, 11, 0));
+
         Booking existing = new Booking();
         existing.setId(999L);
         existing.setTrip(ownerTrip);
+        existing.setStatus(Booking.BookingStatus.CONFIRMED);
+        existing.setTransport(transport);
+        existing.setSeatNumber(4);
 
         BookingDTO dto = new BookingDTO();
         dto.setTripId(ownerTrip.getId());
         dto.setBookingType("TRANSPORT");
         dto.setStatus("CONFIRMED");
         dto.setTransportId(55L);
+        dto.setSeatNumber(7);
+
+        when(bookingRepository.findById(999L)).thenReturn(Optional.of(existing));
+        when(tripRepository.findById(ownerTrip.getId())).thenReturn(Optional.of(ownerTrip));
+        when(catalogCache.transport(55L)).thenReturn(CatalogCache.TransportFacts.of(transport));
+        when(transportRepository.getReferenceById(55L)).thenReturn(transport);
+
+        bookingService.updateBooking(999L, dto, owner.getEmail(), false);
+
+        var inOrder = inOrder(seatInventory);
+        inOrder.verify(seatInventory).release(55L, 4);
+        inOrder.verify(seatInventory).take(55L, 7);
+        assertThat(existing.getSeatNumber()).isEqualTo(7);
+    }
+
+    @Test
+    void updateBooking_cancellingTransportBooking_releasesSeatOnly() {
+        Transport transport = new Transport();
+        transport.setId(55L);
+        transport.setDepartureTime(LocalDateTime.of(2026, 3, 1, 8, 0));
+        transport.setArrivalTime(LocalDateTime.of(2026, 3, 1, 11, 0));
+
+        Booking existing = new Booking();
+        existing.setId(999L);
+        existing.setTrip(ownerTrip);
+        existing.setStatus(Booking.BookingStatus.CONFIRMED);
+        existing.setTransport(transport);
+
+        BookingDTO dto = new BookingDTO();
+        dto.setTripId(ownerTrip.getId());
+        dto.setBookingType("TRANSPORT");
+        dto.setStatus("CANCELLED");
+        dto.setTransportId(55L);
 
         when(bookingRepository.findById(999L)).thenReturn(Optional.of(existing));
         when(tripRepository.findById(ownerTrip.getId())).thenReturn(Optional.of(ownerTrip));
-        when(bookingRepository.existsByTransportIdAndStatusNotAndIdNot(eq(55L), eq(Booking.BookingStatus.CANCELLED), eq(999L)))
+        when(catalogCache.transport(55L)).thenReturn(CatalogCache.TransportFacts.of(transport));
+        when(transportRepository.getReferenceById(55L)).thenReturn(transport);
+
+        bookingService.updateBooking(999L, dto, owner.getEmail(), false);
+
+        verify(seatInventory).release(55L, null);
+        verify(seatInventory, never()).take(any(), any());
+    }
+
+    @Test
+    void saveBooking_accommodation_takesTripNights_andPricesPerNight() {
+        ownerTrip.setStartDate(LocalDateTime.of(2026, 3, 1, 15, 0));
+        ownerTrip.setEndDate(LocalDateTime.of(2026, 3, 4, 10, 0));
+
+        Accommodation accommodation = new Accommodation();
+        accommodation.setId(77L);
+        accommodation.setPricePerNight(80.0);
+
+        BookingDTO dto = new BookingDTO();
+        dto.setTripId(ownerTrip.getId());
+        dto.setBookingType("ACCOMMODATION");
+        dto.setStatus("CONFIRMED");
+        dto.setAccommodationId(77L);
+
+        when(tripRepository.findById(ownerTrip.getId())).thenReturn(Optional.of(ownerTrip));
+        when(availabilityIndex.isAccommodationBooked(77L, LocalDate.of(2026, 3, 1), LocalDate.of(2026, 3, 4), null))
+                .thenReturn(false);
+        when(catalogCache.accommodation(77L)).thenReturn(CatalogCache.AccommodationFacts.of(accommodation));
+        when(accommodationRepository.getReferenceById(77L)).thenReturn(accommodation);
+
+        bookingService.saveBooking(dto, owner.getEmail(), false);
+
+        verify(bookingRepository).save(bookingCaptor.capture());
+        Booking saved = bookingCaptor.getValue();
+
+        assertThat(saved.getStartDate()).isEqualTo(LocalDateTime.of(2026, 3, 1, 0, 0));
+        assertThat(saved.getEndDate()).isEqualTo(LocalDateTime.of(2026, 3, 4, 0, 0));
+        assertThat(saved.getTotalPrice()).isEqualTo(240.0);
+        verify(bookingLocks).lockUntilCompletion(Booking.BookingType.ACCOMMODATION, 77L);
+    }
+
+    @Test
+    void saveBooking_accommodationNightsTaken_throwsConflict() {
+        ownerTrip.setStartDate(LocalDateTime.of(2026, 3, 1, 15, 0));
+        ownerTrip.setEndDate(LocalDateTime.of(2026, 3, 4, 10, 0));
+
+        BookingDTO dto = new BookingDTO();
+        dto.setTripId(ownerTrip.getId());
+        dto.setBookingType("ACCOMMODATION");
+        dto.setStatus("CONFIRMED");
+        dto.setAccommodationId(77L);
+
+        when(tripRepository.findById(ownerTrip.getId())).thenReturn(Optional.of(ownerTrip));
+        when(availabilityIndex.isAccommodationBooked(77L, LocalDate.of(2026, 3, 1), LocalDate.of(2026, 3, 4), null))
                 .thenReturn(true);
 
-        assertThatThrownBy(() -> bookingService.updateBooking(999L, dto, owner.getEmail(), false))
-                .isInstanceOf(RuntimeException.class)
-                .hasMessage("This transport is already booked in another active booking");
+        assertThatThrownBy(() -> bookingService.saveBooking(dto, owner.getEmail(), false))
+                .isInstanceOf(BookingConflictException.class)
+                .hasMessage("This accommodation is already booked for these dates");
 
         verify(bookingRepository, never()).save(any());
     }
 
+    @Test
+    void saveItinerary_existingTrip_savesAllLegsInOneBatch_andTakesSeats() {
+        ownerTrip.setStartDate(LocalDateTime.of(2026, 3, 1, 15, 0));
+        ownerTrip.setEndDate(LocalDateTime.of(2026, 3, 3, 10, 0));
+
+        Transport transport = new Transport();
+        transport.setId(55L);
+        transport.setDepartureTime(LocalDateTime.of(2026, 3, 1, 8, 0));
+        transport.setArrivalTime(LocalDateTime.of(2026, 3, 1, 11, 0));
+        Accommodation accommodation = new Accommodation();
+        accommodation.setId(77L);
+        accommodation.setPricePerNight(80.0);
+
+        TripDTO tripDTO = new TripDTO();
+        tripDTO.setId(ownerTrip.getId());
+
+        BookingDTO leg = new BookingDTO();
+        leg.setBookingType("TRANSPORT");
+        leg.setTransportId(55L);
+        leg.setSeatNumber(3);
+
+        BookingDTO stay = new BookingDTO();
+        stay.setBookingType("ACCOMMODATION");
+        stay.setAccommodationId(77L);
+
+        when(tripRepository.findWithUserById(ownerTrip.getId())).thenReturn(Optional.of(ownerTrip));
+        when(catalogCache.transport(55L)).thenReturn(CatalogCache.TransportFacts.of(transport));
+        when(catalogCache.accommodation(77L)).thenReturn(CatalogCache.AccommodationFacts.of(accommodation));
+        when(transportRepository.getReferenceById(55L)).thenReturn(transport);
+        when(accommodationRepository.getReferenceById(77L)).thenReturn(accommodation);
+
+        BookingService.ItineraryResult result =
+                bookingService.saveItinerary(tripDTO, List.of(leg, stay), owner.getEmail(), false);
+
+        assertThat(result.tripId()).isEqualTo(ownerTrip.getId());
+        assertThat(result.bookingIds()).hasSize(2);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Booking>> listCaptor = ArgumentCaptor.forClass(List.class);
+        verify(bookingRepository).saveAll(listCaptor.capture());
+        assertThat(listCaptor.getValue()).extracting(Booking::getStatus)
+                .containsOnly(Booking.BookingStatus.CONFIRMED);
+        assertThat(listCaptor.getValue().get(1).getTotalPrice()).isEqualTo(160.0);
+        verify(bookingRepository, never()).save(any());
+        verify(catalogCache).transports(Set.of(55L));
+        verify(catalogCache).accommodations(Set.of(77L));
+        verify(seatInventory).take(55L, 3);
+        verify(availabilityIndex, times(2)).onSaved(any());
+    }
+
+    @Test
+    void saveItinerary_movedTripDates_goThroughTripService_andRefusalSavesNothing() {
+        ownerTrip.setStartDate(LocalDateTime.of(2026, 3, 1, 15, 0));
+        ownerTrip.setEndDate(LocalDateTime.of(2026, 3, 3, 10, 0));
+
+        TripDTO tripDTO = new TripDTO();
+        tripDTO.setId(ownerTrip.getId());
+        tripDTO.setStartDate(LocalDateTime.of(2026, 3, 5, 15, 0));
+        tripDTO.setEndDate(LocalDateTime.of(2026, 3, 7, 10, 0));
+
+        BookingDTO stay = new BookingDTO();
+        stay.setBookingType("ACCOMMODATION");
+        stay.setAccommodationId(77L);
+
+        when(tripRepository.findWithUserById(ownerTrip.getId())).thenReturn(Optional.of(ownerTrip));
+        doThrow(new RuntimeException("Cannot change trip dates: it has accommodation bookings. Cancel or delete them first."))
+                .when(tripService).changeDates(ownerTrip, LocalDateTime.of(2026, 3, 5, 15, 0), LocalDateTime.of(2026, 3, 7, 10, 0));
+
+        assertThatThrownBy(() -> bookingService.saveItinerary(tripDTO, List.of(stay), owner.getEmail(), false))
+                .hasMessage("Cannot change trip dates: it has accommodation bookings. Cancel or delete them first.");
+
+        verify(bookingRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void saveItinerary_sameAccommodationTwice_throwsConflict_beforeSaving() {
+        ownerTrip.setStartDate(LocalDateTime.of(2026, 3, 1, 15, 0));
+        ownerTrip.setEndDate(LocalDateTime.of(2026, 3, 3, 10, 0));
+
+        Accommodation accommodation = new Accommodation();
+        accommodation.setId(77L);
+
+        TripDTO tripDTO = new TripDTO();
+        tripDTO.setId(ownerTrip.getId());
+
+        BookingDTO stay = new BookingDTO();
+        stay.setBookingType("ACCOMMODATION");
+        stay.setAccommodationId(77L);
+
+        when(tripRepository.findWithUserById(ownerTrip.getId())).thenReturn(Optional.of(ownerTrip));
+        when(catalogCache.accommodation(77L)).thenReturn(CatalogCache.AccommodationFacts.of(accommodation));
+        when(accommodationRepository.getReferenceById(77L)).thenReturn(accommodation);
+
+        assertThatThrownBy(() -> bookingService.saveItinerary(tripDTO, List.of(stay, stay), owner.getEmail(), false))
+                .isInstanceOf(BookingConflictException.class)
+                .hasMessage("This accommodation is already booked for these dates");
+
+        verify(bookingRepository, never()).saveAll(any());
+        verify(seatInventory, never()).take(any(), any());
+    }
+
     @Test
     void bulkDeleteBookings_userMustOwnAllBookings_orAccessDenied() {
         Booking b1 = new Booking();
@@ -0,0 +1,118 @@
+package project.planora_travelandbooking_system.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import project.planora_travelandbooking_system.model.Accommodation;
+import project.planora_travelandbooking_system.model.Transport;
+import project.planora_travelandbooking_system.repository.AccommodationRepository;
+import project.planora_travelandbooking_system.repository.TransportRepository;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogCacheTest {
+
+    @Mock private TransportRepository transportRepository;
+    @Mock private AccommodationRepository accommodationRepository;
+
+    @InjectMocks private CatalogCache catalogCache;
+
+    @Test
+    void transport_secondReadIsServedFromMemory() {
+        Transport transport = new Transport();
+        transport.setId(55L);
+        transport.setPrice(20.0);
+        transport.setSeat(40);
+        when(transportRepository.findById(55L)).thenReturn(Optional.of(transport));
+
+        assertThat(catalogCache.transport(55L).price()).isEqualTo(20.0);
+        assertThat(catalogCache.transport(55L).capacity()).isEqualTo(40);
+
+        verify(transportRepository, times(1)).findById(55L);
+        assertThat(catalogCache.getHits()).isEqualTo(1);
+        assertThat(catalogCache.getMisses()).isEqualTo(1);
+        assertThat(catalogCache.getHitRatio()).isEqualTo(0.5);
+    }
+
+    @Test
+    void evictAccommodation_nextReadGoesToTheDatabase() {
+        Accommodation accommodation = new Accommodation();
+        accommodation.setId(77L);
+        accommodation.setPricePerNight(80.0);
+        when(accommodationRepository.findById(77L)).thenReturn(Optional.of(accommodation));
+
+        catalogCache.accommodation(77L);
+        accommodation.setPricePerNight(95.0);
+        catalogCache.evictAccommodation(77L);
+
+        assertThat(catalogCache.accommodation(77L).pricePerNight()).isEqualTo(95.0);
+        verify(accommodationRepository, times(2)).findById(77L);
+        assertThat(catalogCache.getEvictions()).isEqualTo(1);
+    }
+
+    @Test
+    void evictDuringLoad_staleRowIsServedOnce_butNotCached() {
+        Transport stale = new Transport();
+        stale.setId(55L);
+        stale.setPrice(20.0);
+        Transport fresh = new Transport();
+        fresh.setId(55L);
+        fresh.setPrice(25.0);
+        // the first read loads the old row, then the price change commits before that read caches it
+        when(transportRepository.findById(55L))
+                .thenAnswer(invocation -> {
+                    catalogCache.evictTransport(55L);
+                    return Optional.of(stale);
+                })
+                .thenReturn(Optional.of(fresh));
+
+        assertThat(catalogCache.transport(55L).price()).isEqualTo(20.0);
+        assertThat(catalogCache.transport(55L).price()).isEqualTo(25.0);
+        assertThat(catalogCache.transport(55L).price()).isEqualTo(25.0);
+
+        verify(transportRepository, times(2)).findById(55L);
+    }
+
+    @Test
+    void full_evictsAnEntryNotReadAgain_andKeepsCachingNewOnes() {
+        ReflectionTestUtils.setField(catalogCache, "maxSize", 2);
+        for (long id = 1; id <= 3; id++) {
+            Transport transport = new Transport();
+            transport.setId(id);
+            when(transportRepository.findById(id)).thenReturn(Optional.of(transport));
+        }
+
+        catalogCache.transport(1L);
+        catalogCache.transport(2L);
+        catalogCache.transport(1L);
+        catalogCache.transport(3L);
+
+        // 1 was read again, 2 was not
+        catalogCache.transport(1L);
+        catalogCache.transport(3L);
+        catalogCache.transport(2L);
+
+        assertThat(catalogCache.getSize()).isEqualTo(2);
+        verify(transportRepository, times(1)).findById(1L);
+        verify(transportRepository, times(2)).findById(2L);
+        verify(transportRepository, times(1)).findById(3L);
+    }
+
+    @Test
+    void missingRow_throws_andIsNotCached() {
+        when(transportRepository.findById(9L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> catalogCache.transport(9L))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("Transport not found: 9");
+        assertThat(catalogCache.getSize()).isZero();
+    }
+}
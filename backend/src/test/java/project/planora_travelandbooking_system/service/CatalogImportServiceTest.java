@@ -0,0 +1,166 @@
+package project.planora_travelandbooking_system.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import project.planora_travelandbooking_system.dto.AccommodationDTO;
+import project.planora_travelandbooking_system.dto.ImportJobDTO;
+import project.planora_travelandbooking_system.dto.TransportDTO;
+import project.planora_travelandbooking_system.model.Accommodation;
+import project.planora_travelandbooking_system.model.Transport;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogImportServiceTest {
+
+    @Mock private TransportService transportService;
+    @Mock private AccommodationService accommodationService;
+
+    @Captor private ArgumentCaptor<List<Transport>> transportsCaptor;
+    @Captor private ArgumentCaptor<List<Accommodation>> accommodationsCaptor;
+
+    private CatalogImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        importService = new CatalogImportService(transportService, accommodationService, JsonMapper.builder().build());
+        ReflectionTestUtils.setField(importService, "threads", 2);
+        ReflectionTestUtils.setField(importService, "chunkSize", 2);
+        importService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        importService.shutdown();
+    }
+
+    @Test
+    void csvImport_insertsValidRows_andReportsInvalidOnesByLine() throws Exception {
+        String csv = """
+                transportType,company,originAddress,destinationAddress,departureTime,arrivalTime,price,seat,status
+                BUS,"Lux, Express",Riga,Tallinn,2026-05-01T08:00,2026-05-01T12:30,25.5,40,AVAILABLE
+                TRAIN,Late Rail,Riga,Vilnius,2026-05-01T10:00,2026-05-01T09:00,20,100,AVAILABLE
+
+                FLIGHT,"Air ""Baltic""",Riga,Oslo,2026-05-02T07:00,2026-05-02T09:00,99,180,AVAILABLE
+                """;
+        when(transportService.toValidatedEntity(any())).thenAnswer(inv -> {
+            TransportDTO dto = inv.getArgument(0);
+            if (dto.getArrivalTime().isBefore(dto.getDepartureTime())) {
+                throw new IllegalArgumentException("arrivalTime cannot be before departureTime");
+            }
+            Transport transport = new Transport();
+            transport.setCompany(dto.getCompany());
+            transport.setPrice(dto.getPrice());
+            return transport;
+        });
+
+        ImportJobDTO job = awaitFinished(importService.submit(
+                CatalogImportService.Catalog.TRANSPORTS, ExportService.Format.CSV, "schedule.csv", body(csv)));
+
+        assertThat(job.getStatus()).isEqualTo("DONE");
+        assertThat(job.getPercent()).isEqualTo(100);
+        assertThat(job.getRowsRead()).isEqualTo(3);
+        assertThat(job.getImported()).isEqualTo(2);
+        assertThat(job.getFailed()).isEqualTo(1);
+        assertThat(job.getErrors()).singleElement().satisfies(error -> {
+            assertThat(error.getLine()).isEqualTo(3);
+            assertThat(error.getMessage()).isEqualTo("arrivalTime cannot be before departureTime");
+        });
+
+        verify(transportService, times(2)).insertAll(transportsCaptor.capture());
+        assertThat(transportsCaptor.getAllValues()).flatMap(list -> list)
+                .extracting(Transport::getCompany)
+                .containsExactly("Lux, Express", "Air \"Baltic\"");
+        assertThat(transportsCaptor.getAllValues().getFirst().getFirst().getPrice()).isEqualTo(25.5);
+    }
+
+    @Test
+    void ndjsonImport_ignoresIds_keepsFileOrder_andSkipsMalformedLines() throws Exception {
+        String ndjson = """
+                {"id":99,"name":"A","city":"Riga","accommodationType":"HOTEL","status":"AVAILABLE"}
+                {"name":"B","city":"Riga","accommodationType":"HOSTEL","status":"AVAILABLE"}
+                {"name":"C",
+                {"name":"D","city":"Oslo","accommodationType":"HOTEL","status":"AVAILABLE"}
+                {"name":"E","city":"Oslo","accommodationType":"AIRBNB","status":"AVAILABLE"}
+                """;
+        when(accommodationService.toValidatedEntity(any())).thenAnswer(inv -> {
+            AccommodationDTO dto = inv.getArgument(0);
+            assertThat(dto.getId()).isNull();
+            Accommodation accommodation = new Accommodation();
+            accommodation.setName(dto.getName());
+            return accommodation;
+        });
+
+        ImportJobDTO job = awaitFinished(importService.submit(
+                CatalogImportService.Catalog.ACCOMMODATIONS, ExportService.Format.NDJSON, null, body(ndjson)));
+
+        assertThat(job.getStatus()).isEqualTo("DONE");
+        assertThat(job.getImported()).isEqualTo(4);
+        assertThat(job.getFailed()).isEqualTo(1);
+        assertThat(job.getErrors()).extracting(ImportJobDTO.RowError::getLine).containsExactly(3L);
+
+        // chunks of two, inserted in the order they appear in the file
+        verify(accommodationService, times(3)).insertAll(accommodationsCaptor.capture());
+        assertThat(accommodationsCaptor.getAllValues()).flatMap(list -> list)
+                .extracting(Accommodation::getName)
+                .containsExactly("A", "B", "D", "E");
+    }
+
+    @Test
+    void failedInsert_marksTheWholeChunkFailed_andTheJobCarriesOn() throws Exception {
+        String csv = """
+                transportType,company,departureTime,arrivalTime,status
+                BUS,One,2026-05-01T08:00,2026-05-01T09:00,AVAILABLE
+                BUS,Two,2026-05-01T08:00,2026-05-01T09:00,AVAILABLE
+                BUS,Three,2026-05-01T08:00,2026-05-01T09:00,AVAILABLE
+                """;
+        when(transportService.toValidatedEntity(any())).thenAnswer(inv -> new Transport());
+        doThrow(new RuntimeException("duplicate key")).doNothing().when(transportService).insertAll(any());
+
+        ImportJobDTO job = awaitFinished(importService.submit(
+                CatalogImportService.Catalog.TRANSPORTS, ExportService.Format.CSV, "schedule.csv", body(csv)));
+
+        assertThat(job.getStatus()).isEqualTo("DONE");
+        assertThat(job.getImported()).isEqualTo(1);
+        assertThat(job.getFailed()).isEqualTo(2);
+        assertThat(job.getErrors()).singleElement()
+                .extracting(ImportJobDTO.RowError::getMessage)
+                .isEqualTo("rows on lines 2-3 not inserted: duplicate key");
+    }
+
+    @Test
+    void splitCsv_handlesQuotedCommasAndQuotes() {
+        assertThat(CatalogImportService.splitCsv("a, \"b, c\" ,\"say \"\"hi\"\"\",,"))
+                .containsExactly("a", "b, c", "say \"hi\"", "", "");
+    }
+
+    private ImportJobDTO awaitFinished(ImportJobDTO submitted) throws InterruptedException {
+        for (int i = 0; i < 500; i++) {
+            ImportJobDTO job = importService.getJob(submitted.getId());
+            if (job.getStatus().equals("DONE") || job.getStatus().equals("FAILED")) {
+                return job;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("import did not finish");
+    }
+
+    private static InputStream body(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
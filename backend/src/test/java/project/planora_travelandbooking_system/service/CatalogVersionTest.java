@@ -0,0 +1,58 @@
+package project.planora_travelandbooking_system.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CatalogVersionTest {
+
+    private final CatalogVersion catalogVersion = new CatalogVersion();
+
+    @Test
+    void notModified_sameVersion_isTrue_untilTheCatalogChanges() {
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        assertThat(catalogVersion.notModified(get(null, first), CatalogVersion.Catalog.TRANSPORTS)).isFalse();
+        String etag = first.getHeader("ETag");
+        assertThat(etag).startsWith("W/\"");
+        assertThat(first.getHeader("Last-Modified")).isNotNull();
+        assertThat(first.getHeader("Cache-Control")).isEqualTo("private, no-cache");
+
+        MockHttpServletResponse second = new MockHttpServletResponse();
+        assertThat(catalogVersion.notModified(get(etag, second), CatalogVersion.Catalog.TRANSPORTS)).isTrue();
+        assertThat(second.getStatus()).isEqualTo(304);
+
+        // no transaction here, so the bump happens right away
+        catalogVersion.changed(CatalogVersion.Catalog.TRANSPORTS);
+
+        MockHttpServletResponse third = new MockHttpServletResponse();
+        assertThat(catalogVersion.notModified(get(etag, third), CatalogVersion.Catalog.TRANSPORTS)).isFalse();
+        assertThat(third.getHeader("ETag")).isNotEqualTo(etag);
+
+        assertThat(catalogVersion.getNotModified()).isEqualTo(1);
+        assertThat(catalogVersion.getServed()).isEqualTo(2);
+    }
+
+    @Test
+    void changed_onlyMovesTheTagsThatIncludeThatCatalog() {
+        MockHttpServletResponse transports = new MockHttpServletResponse();
+        catalogVersion.notModified(get(null, transports), CatalogVersion.Catalog.TRANSPORTS);
+
+        catalogVersion.changed(CatalogVersion.Catalog.STAYS);
+
+        assertThat(catalogVersion.notModified(get(transports.getHeader("ETag"), new MockHttpServletResponse()),
+                CatalogVersion.Catalog.TRANSPORTS)).isTrue();
+        assertThat(catalogVersion.getVersion(CatalogVersion.Catalog.STAYS)).isEqualTo(1);
+        assertThat(catalogVersion.getVersion(CatalogVersion.Catalog.TRANSPORTS)).isZero();
+    }
+
+    private static ServletWebRequest get(String ifNoneMatch, MockHttpServletResponse response) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/transports");
+        if (ifNoneMatch != null) {
+            request.addHeader("If-None-Match", ifNoneMatch);
+        }
+        return new ServletWebRequest(request, response);
+    }
+}
@@ -0,0 +1,85 @@
+package project.planora_travelandbooking_system.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClockCacheTest {
+
+    @Test
+    void put_overMaxSize_evictsAnEntryNotReadSinceInsert() {
+        ClockCache<String, Integer> cache = new ClockCache<>(() -> 2);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.get("a");
+
+        cache.put("c", 3);
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get("a")).isEqualTo(1);
+        assertThat(cache.get("b")).isNull();
+        assertThat(cache.get("c")).isEqualTo(3);
+        assertThat(cache.getEvictions()).isEqualTo(1);
+    }
+
+    @Test
+    void put_everyOlderEntryRead_evictsTheUnreadNewcomer() {
+        // new entries start without a second chance, so a burst of one-off keys cannot flush hot ones
+        ClockCache<String, Integer> cache = new ClockCache<>(() -> 2);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.get("a");
+        cache.get("b");
+
+        cache.put("c", 3);
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get("a")).isEqualTo(1);
+        assertThat(cache.get("b")).isEqualTo(2);
+        assertThat(cache.get("c")).isNull();
+    }
+
+    @Test
+    void replaceAndRemove_compareTheValueByIdentity() {
+        ClockCache<Long, String> cache = new ClockCache<>(() -> 10);
+        String loading = new String("loading");
+        cache.put(1L, loading);
+
+        assertThat(cache.replace(1L, new String("loading"), "other")).isFalse();
+        assertThat(cache.replace(1L, loading, "loaded")).isTrue();
+        assertThat(cache.get(1L)).isEqualTo("loaded");
+
+        assertThat(cache.remove(1L, loading)).isFalse();
+        assertThat(cache.remove(1L)).isEqualTo("loaded");
+        assertThat(cache.replace(1L, "loaded", "again")).isFalse();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void removedEntries_areSweptFromTheRing_withoutEvictingLiveOnes() {
+        ClockCache<Integer, Integer> cache = new ClockCache<>(() -> 100);
+        cache.put(-1, -1);
+        for (int i = 0; i < 10_000; i++) {
+            cache.put(i, i);
+            cache.remove(i);
+        }
+
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.get(-1)).isEqualTo(-1);
+        assertThat(cache.getEvictions()).isZero();
+    }
+
+    @Test
+    void removeIf_dropsMatchingValues() {
+        ClockCache<Integer, Integer> cache = new ClockCache<>(() -> 10);
+        for (int i = 0; i < 5; i++) {
+            cache.put(i, i);
+        }
+
+        cache.removeIf(v -> v % 2 == 0);
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get(1)).isEqualTo(1);
+        assertThat(cache.get(2)).isNull();
+    }
+}
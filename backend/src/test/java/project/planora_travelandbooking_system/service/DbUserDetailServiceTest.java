@@ -5,6 +5,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.util.ReflectionTestUtils;
 import project.planora_travelandbooking_system.model.User;
 import project.planora_travelandbooking_system.repository.UserRepository;
 
@@ -84,4 +85,58 @@ class DbUserDetailServiceTest {
                 .anyMatch(a -> "ROLE_SUPER_ADMIN".equals(a.getAuthority())))
                 .isTrue();
     }
+
+    @Test
+    void loadUserByUsername_cached_secondCallSkipsRepository() {
+        enableCache();
+        when(userRepository.findByEmail("u@test.com")).thenReturn(Optional.of(activeUser("u@test.com")));
+
+        dbUserDetailService.loadUserByUsername("u@test.com");
+        var details = dbUserDetailService.loadUserByUsername(" U@TEST.COM ");
+
+        verify(userRepository, times(1)).findByEmail("u@test.com");
+        assertThat(details.getPassword()).isEqualTo("ENC");
+        assertThat(dbUserDetailService.getCacheHits()).isEqualTo(1);
+    }
+
+    @Test
+    void loadUserByUsername_returnsFreshInstance_soErasedCredentialsDoNotLeak() {
+        enableCache();
+        when(userRepository.findByEmail("u@test.com")).thenReturn(Optional.of(activeUser("u@test.com")));
+
+        var first = dbUserDetailService.loadUserByUsername("u@test.com");
+        ((org.springframework.security.core.CredentialsContainer) first).eraseCredentials();
+
+        var second = dbUserDetailService.loadUserByUsername("u@test.com");
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getPassword()).isEqualTo("ENC");
+    }
+
+    @Test
+    void evict_forcesReloadFromRepository() {
+        enableCache();
+        when(userRepository.findByEmail("u@test.com")).thenReturn(Optional.of(activeUser("u@test.com")));
+
+        dbUserDetailService.loadUserByUsername("u@test.com");
+        dbUserDetailService.evict("U@test.com");
+        dbUserDetailService.loadUserByUsername("u@test.com");
+
+        verify(userRepository, times(2)).findByEmail("u@test.com");
+    }
+
+    private void enableCache() {
+        ReflectionTestUtils.setField(dbUserDetailService, "cacheTtlSeconds", 60L);
+        ReflectionTestUtils.setField(dbUserDetailService, "cacheMaxSize", 100);
+    }
+
+    private User activeUser(String email) {
+        User u = new User();
+        u.setEmail(email);
+        u.setPassword("ENC");
+        u.setRole(User.Role.USER);
+        u.setDeleted(false);
+        u.setSuperAdmin(false);
+        return u;
+    }
 }
\ No newline at end of file
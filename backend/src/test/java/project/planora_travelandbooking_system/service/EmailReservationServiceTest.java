@@ -0,0 +1,81 @@
+package project.planora_travelandbooking_system.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.*;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import project.planora_travelandbooking_system.exception.UserAlreadyExistsException;
+import project.planora_travelandbooking_system.repository.EmailReservationRepository;
+
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EmailReservationServiceTest {
+
+    @Mock private EmailReservationRepository repo;
+    @InjectMocks private EmailReservationService emailReservations;
+
+    @BeforeEach
+    void setup() {
+        ReflectionTestUtils.setField(emailReservations, "minCapacity", 1000L);
+        ReflectionTestUtils.setField(emailReservations, "falsePositiveRate", 0.01);
+    }
+
+    private void warmUpWith(String... emails) {
+        when(repo.count()).thenReturn((long) emails.length);
+        when(repo.streamAllEmails()).thenReturn(Stream.of(emails));
+        emailReservations.warmUp();
+    }
+
+    @Test
+    void isAvailable_beforeWarmUp_probesDatabase() {
+        when(repo.existsByEmail("a@test.com")).thenReturn(false);
+
+        assertThat(emailReservations.isAvailable(" A@test.com ")).isTrue();
+        verify(repo).existsByEmail("a@test.com");
+    }
+
+    @Test
+    void isAvailable_definitelyFree_skipsDatabase() {
+        warmUpWith("taken@test.com");
+
+        assertThat(emailReservations.isAvailable("free@test.com")).isTrue();
+
+        verify(repo, never()).existsByEmail(anyString());
+        assertThat(emailReservations.getFilterHits()).isEqualTo(1);
+    }
+
+    @Test
+    void isAvailable_reservedEmail_confirmedByDatabase() {
+        warmUpWith("taken@test.com");
+        when(repo.existsByEmail("taken@test.com")).thenReturn(true);
+
+        assertThat(emailReservations.isAvailable("Taken@Test.com")).isFalse();
+    }
+
+    @Test
+    void reserve_addsToFilter_soNextCheckProbes() {
+        warmUpWith();
+        when(repo.reserve(eq("new@test.com"), eq(5L), any(LocalDateTime.class))).thenReturn(1);
+        when(repo.existsByEmail("new@test.com")).thenReturn(true);
+
+        emailReservations.reserve("New@test.com", 5L);
+
+        assertThat(emailReservations.isAvailable("new@test.com")).isFalse();
+    }
+
+    @Test
+    void reserve_alreadyTaken_throws() {
+        when(repo.reserve(eq("taken@test.com"), eq(5L), any(LocalDateTime.class))).thenReturn(0);
+
+        assertThatThrownBy(() -> emailReservations.reserve("taken@test.com", 5L))
+                .isInstanceOf(UserAlreadyExistsException.class);
+    }
+}
@@ -0,0 +1,91 @@
+package project.planora_travelandbooking_system.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import project.planora_travelandbooking_system.model.User;
+import project.planora_travelandbooking_system.repository.BookingRepository;
+import project.planora_travelandbooking_system.repository.TripRepository;
+import project.planora_travelandbooking_system.repository.UserRepository;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExportServiceTest {
+
+    @Mock private BookingRepository bookingRepository;
+    @Mock private TripRepository tripRepository;
+    @Mock private UserRepository userRepository;
+
+    @InjectMocks private ExportService exportService;
+
+    @Test
+    void exportTrips_csv_quotesAndNeutralisesUserText() throws Exception {
+        TripRepository.TripListView trip = mock(TripRepository.TripListView.class);
+        when(trip.getId()).thenReturn(5L);
+        when(trip.getTitle()).thenReturn("=HYPERLINK(\"x\")");
+        when(trip.getDescription()).thenReturn("two\nlines, one trip");
+        when(trip.getUserId()).thenReturn(10L);
+        LocalDateTime from = LocalDateTime.of(2026, 9, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2026, 10, 1, 0, 0);
+        Stream<TripRepository.TripListView> rows = Stream.of(trip);
+        when(tripRepository.streamListViews(from, to)).thenReturn(rows);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long count = exportService.exportTrips(out, ExportService.Format.CSV, from, to);
+
+        assertThat(count).isEqualTo(1);
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(
+                "id,title,description,startDate,endDate,userId,createdAt\r\n"
+                        + "5,\"'=HYPERLINK(\"\"x\"\")\",\"two\nlines, one trip\",,,10,\r\n");
+    }
+
+    @Test
+    void exportUsers_ndjson_writesOneObjectPerLine_withoutPasswords() throws Exception {
+        UserRepository.UserExportView user = mock(UserRepository.UserExportView.class);
+        when(user.getId()).thenReturn(1L);
+        when(user.getEmail()).thenReturn("a\"b@test.com");
+        when(user.getRole()).thenReturn(User.Role.ADMIN);
+        when(user.isSuperAdmin()).thenReturn(true);
+        when(user.getCreatedAt()).thenReturn(LocalDateTime.of(2026, 1, 2, 3, 4));
+        when(userRepository.streamExportViews()).thenReturn(Stream.of(user, user));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long count = exportService.exportUsers(out, ExportService.Format.NDJSON);
+
+        String line = "{\"id\":1,\"email\":\"a\\\"b@test.com\",\"role\":\"ADMIN\",\"superAdmin\":true,"
+                + "\"createdAt\":\"2026-01-02T03:04\",\"deleted\":false,\"deletionDate\":null}\n";
+        assertThat(count).isEqualTo(2);
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(line + line);
+        assertThat(exportService.getRowsExported()).isEqualTo(2);
+    }
+
+    @Test
+    void exportBookings_withoutRange_coversEveryRow_andClosesTheCursor() throws Exception {
+        Stream<BookingRepository.BookingListView> rows = Stream.<BookingRepository.BookingListView>empty();
+        Runnable onClose = mock(Runnable.class);
+        when(bookingRepository.streamListViews(ExportService.EARLIEST, ExportService.LATEST))
+                .thenReturn(rows.onClose(onClose));
+
+        exportService.exportBookings(new ByteArrayOutputStream(), ExportService.Format.NDJSON, null, null);
+
+        verify(onClose).run();
+    }
+
+    @Test
+    void parse_unknownFormat_throws() {
+        assertThat(ExportService.Format.parse(" NdJson ")).isEqualTo(ExportService.Format.NDJSON);
+        assertThatThrownBy(() -> ExportService.Format.parse("xml"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("format must be csv or ndjson");
+    }
+}
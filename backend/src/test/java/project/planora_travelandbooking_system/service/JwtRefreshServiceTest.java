@@ -1,30 +1,40 @@
 package project.planora_travelandbooking_system.service;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 import project.planora_travelandbooking_system.model.JwtRefresher;
 import project.planora_travelandbooking_system.model.User;
 import project.planora_travelandbooking_system.repository.JwtRefresherRepository;
+import project.planora_travelandbooking_system.security.RefreshTokenBloomFilter;
 import project.planora_travelandbooking_system.security.TokenHashUtil;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class JwtRefreshServiceTest {
 
-    @Mock private UserService userService;
     @Mock private JwtRefresherRepository repo;
+    @Mock private RefreshTokenBloomFilter tokenFilter;
 
     @InjectMocks private JwtRefreshService jwtRefreshService;
 
     @Captor ArgumentCaptor<JwtRefresher> refresherCaptor;
 
+    @BeforeEach
+    void setup() {
+        lenient().when(tokenFilter.mightContain(anyString())).thenReturn(true);
+    }
+
     @Test
     void createToken_savesHashedToken_andReturnsPlainToken() {
         User u = new User();
@@ -42,6 +52,30 @@ class JwtRefreshServiceTest {
         assertThat(saved.getTokenHash()).isEqualTo(TokenHashUtil.sha256(plain));
         assertThat(saved.isRevoked()).isFalse();
         assertThat(saved.getExpiresAt()).isAfter(LocalDateTime.now().minusMinutes(1));
+        verify(tokenFilter).add(TokenHashUtil.sha256(plain));
+    }
+
+    @Test
+    void validateToken_definitelyUnknown_rejectedWithoutDbLookup() {
+        String token = "abc";
+        when(tokenFilter.mightContain(TokenHashUtil.sha256(token))).thenReturn(false);
+
+        assertThatThrownBy(() -> jwtRefreshService.validateToken(token))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("Invalid refresh token");
+
+        verifyNoInteractions(repo);
+    }
+
+    @Test
+    void rotateToken_definitelyUnknown_rejectedWithoutDbLookup() {
+        when(tokenFilter.mightContain(anyString())).thenReturn(false);
+
+        assertThatThrownBy(() -> jwtRefreshService.rotateToken("abc", 14))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("Invalid refresh token");
+
+        verifyNoInteractions(repo);
     }
 
     @Test
@@ -56,7 +90,7 @@ class JwtRefreshServiceTest {
     }
 
     @Test
-    void validateToken_expired_revokesAndThrows() {
+    void validateToken_expired_throws_withoutWriting() {
         String token = "abc";
         JwtRefresher stored = new JwtRefresher();
         stored.setTokenHash(TokenHashUtil.sha256(token));
@@ -70,14 +104,16 @@ class JwtRefreshServiceTest {
                 .isInstanceOf(RuntimeException.class)
                 .hasMessage("Refresh token expired");
 
-        assertThat(stored.isRevoked()).isTrue();
-        verify(repo, atLeastOnce()).save(stored);
+        verify(repo, never()).save(any());
     }
 
     @Test
-    void validateToken_valid_setsLastUsedAt_andSaves() {
+    void validateToken_valid_buffersLastUsedAt_andFlushWritesIt() {
+        ReflectionTestUtils.setField(jwtRefreshService, "lastUsedBatchSize", 500);
+
         String token = "abc";
         JwtRefresher stored = new JwtRefresher();
+        stored.setId(9L);
         stored.setTokenHash(TokenHashUtil.sha256(token));
         stored.setRevoked(false);
         stored.setExpiresAt(LocalDateTime.now().plusDays(1));
@@ -88,8 +124,62 @@ class JwtRefreshServiceTest {
         JwtRefresher result = jwtRefreshService.validateToken(token);
 
         assertThat(result).isSameAs(stored);
-        assertThat(stored.getLastUsedAt()).isNotNull();
-        verify(repo, atLeastOnce()).save(stored);
+        verify(repo, never()).save(any());
+        assertThat(jwtRefreshService.getPendingLastUsed()).isEqualTo(1);
+
+        when(repo.touchLastUsed(eq(List.of(9L)), any(LocalDateTime.class))).thenReturn(1);
+
+        jwtRefreshService.flushLastUsed();
+
+        verify(repo).touchLastUsed(eq(List.of(9L)), any(LocalDateTime.class));
+        assertThat(jwtRefreshService.getPendingLastUsed()).isZero();
+        assertThat(jwtRefreshService.getLastUsedFlushed()).isEqualTo(1);
+    }
+
+    @Test
+    void rotateToken_valid_returnsOwnerAndNewToken() {
+        String token = "abc";
+        JwtRefresherRepository.TokenOwnerView owner = mock(JwtRefresherRepository.TokenOwnerView.class);
+        when(owner.getId()).thenReturn(5L);
+        when(owner.getEmail()).thenReturn("admin@test.com");
+        when(owner.getRole()).thenReturn("ADMIN");
+        when(owner.getSecurityVersion()).thenReturn(3L);
+
+        when(repo.revokeActiveToken(eq(TokenHashUtil.sha256(token)), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(owner));
+
+        JwtRefreshService.RotatedToken rotated = jwtRefreshService.rotateToken(token, 14);
+
+        User user = rotated.user();
+        assertThat(user.getId()).isEqualTo(5L);
+        assertThat(user.getEmail()).isEqualTo("admin@test.com");
+        assertThat(user.getRole()).isEqualTo(User.Role.ADMIN);
+        assertThat(user.isSuperAdmin()).isFalse();
+        assertThat(user.getSecurityVersion()).isEqualTo(3L);
+        assertThat(rotated.refreshToken()).isNotBlank().isNotEqualTo(token);
+
+        // two statements: the revoke, which returns the owner, and the insert of the replacement
+        verify(repo).revokeActiveToken(eq(TokenHashUtil.sha256(token)), any(LocalDateTime.class));
+        verify(repo).save(refresherCaptor.capture());
+        verifyNoMoreInteractions(repo);
+
+        JwtRefresher saved = refresherCaptor.getValue();
+        assertThat(saved.getUser()).isSameAs(user);
+        assertThat(saved.getTokenHash()).isEqualTo(TokenHashUtil.sha256(rotated.refreshToken()));
+        assertThat(saved.isRevoked()).isFalse();
+        verify(tokenFilter).add(saved.getTokenHash());
+    }
+
+    @Test
+    void rotateToken_invalidOrAlreadyRotated_throws() {
+        when(repo.revokeActiveToken(anyString(), any(LocalDateTime.class)))
+                .thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> jwtRefreshService.rotateToken("abc", 14))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("Invalid refresh token");
+
+        verify(repo, never()).save(any());
     }
 
     @Test
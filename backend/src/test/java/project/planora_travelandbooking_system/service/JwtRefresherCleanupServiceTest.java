@@ -0,0 +1,115 @@
+package project.planora_travelandbooking_system.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.*;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import project.planora_travelandbooking_system.repository.JwtRefresherRepository;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JwtRefresherCleanupServiceTest {
+
+    @Mock private JwtRefresherRepository repo;
+    @InjectMocks private JwtRefresherCleanupService cleanupService;
+
+    @BeforeEach
+    void setup() {
+        ReflectionTestUtils.setField(cleanupService, "retentionDays", 7);
+        ReflectionTestUtils.setField(cleanupService, "batchSize", 2);
+        ReflectionTestUtils.setField(cleanupService, "maxBatches", 10);
+    }
+
+    @Test
+    void purgeExpiredTokens_deletesExpiredThenRevoked_eachUntilShortBatch() {
+        when(repo.purgeExpiredBatch(any(LocalDateTime.class), eq(2))).thenReturn(2, 2, 1);
+        when(repo.purgeRevokedBatch(any(LocalDateTime.class), eq(2))).thenReturn(2, 0);
+
+        purgeUntilDone();
+
+        var inOrder = inOrder(repo);
+        inOrder.verify(repo, times(3)).purgeExpiredBatch(any(LocalDateTime.class), eq(2));
+        inOrder.verify(repo, times(2)).purgeRevokedBatch(any(LocalDateTime.class), eq(2));
+        assertThat(cleanupService.getLastRunDeleted()).isEqualTo(7);
+        assertThat(cleanupService.getTotalDeleted()).isEqualTo(7);
+        assertThat(cleanupService.getRuns()).isEqualTo(1);
+    }
+
+    @Test
+    void purgeExpiredTokens_stopsAtMaxBatches_acrossBothDeletes() {
+        ReflectionTestUtils.setField(cleanupService, "maxBatches", 3);
+        when(repo.purgeExpiredBatch(any(LocalDateTime.class), eq(2))).thenReturn(2, 1);
+        when(repo.purgeRevokedBatch(any(LocalDateTime.class), eq(2))).thenReturn(2);
+
+        purgeUntilDone();
+
+        verify(repo, times(2)).purgeExpiredBatch(any(LocalDateTime.class), eq(2));
+        verify(repo, times(1)).purgeRevokedBatch(any(LocalDateTime.class), eq(2));
+        assertThat(cleanupService.getLastRunDeleted()).isEqualTo(5);
+    }
+
+    @Test
+    void purgeExpiredTokens_usesRetentionCutoff() {
+        when(repo.purgeExpiredBatch(any(LocalDateTime.class), anyInt())).thenReturn(0);
+        when(repo.purgeRevokedBatch(any(LocalDateTime.class), anyInt())).thenReturn(0);
+
+        purgeUntilDone();
+
+        ArgumentCaptor<LocalDateTime> cutoff = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(repo).purgeExpiredBatch(cutoff.capture(), eq(2));
+        verify(repo).purgeRevokedBatch(eq(cutoff.getValue()), eq(2));
+        assertThat(cutoff.getValue())
+                .isBefore(LocalDateTime.now().minusDays(7).plusMinutes(1))
+                .isAfter(LocalDateTime.now().minusDays(7).minusMinutes(1));
+    }
+
+    @Test
+    void purgeExpiredTokens_deletesOneChunkPerTick() {
+        when(repo.purgeExpiredBatch(any(LocalDateTime.class), eq(2))).thenReturn(2, 1);
+        when(repo.purgeRevokedBatch(any(LocalDateTime.class), eq(2))).thenReturn(0);
+
+        cleanupService.purgeExpiredTokens();
+        verify(repo, times(1)).purgeExpiredBatch(any(LocalDateTime.class), eq(2));
+        assertThat(cleanupService.isRunning()).isTrue();
+
+        // a trigger during a run does not start over
+        cleanupService.purgeExpiredTokens();
+        cleanupService.purgeNextBatch();
+        verify(repo, times(2)).purgeExpiredBatch(any(LocalDateTime.class), eq(2));
+        verify(repo, never()).purgeRevokedBatch(any(LocalDateTime.class), anyInt());
+        assertThat(cleanupService.isRunning()).isTrue();
+
+        cleanupService.purgeNextBatch();
+        verify(repo, times(1)).purgeRevokedBatch(any(LocalDateTime.class), eq(2));
+        assertThat(cleanupService.isRunning()).isFalse();
+        assertThat(cleanupService.getRuns()).isEqualTo(1);
+
+        // idle ticks do nothing
+        cleanupService.purgeNextBatch();
+        verifyNoMoreInteractions(repo);
+    }
+
+    @Test
+    void purgeNextBatch_failure_endsTheRun() {
+        when(repo.purgeExpiredBatch(any(LocalDateTime.class), eq(2))).thenReturn(2).thenThrow(new RuntimeException("db down"));
+
+        cleanupService.purgeExpiredTokens();
+
+        assertThatThrownBy(() -> cleanupService.purgeNextBatch()).hasMessage("db down");
+        assertThat(cleanupService.isRunning()).isFalse();
+        assertThat(cleanupService.getLastRunDeleted()).isEqualTo(2);
+    }
+
+    private void purgeUntilDone() {
+        cleanupService.purgeExpiredTokens();
+        while (cleanupService.isRunning()) {
+            cleanupService.purgeNextBatch();
+        }
+    }
+}
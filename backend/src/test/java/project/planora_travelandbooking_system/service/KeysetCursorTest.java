@@ -0,0 +1,77 @@
+package project.planora_travelandbooking_system.service;
+
+import org.junit.jupiter.api.Test;
+import project.planora_travelandbooking_system.dto.CursorSlice;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetCursorTest {
+
+    @Test
+    void encodeDecode_roundTrips() {
+        KeysetCursor cursor = new KeysetCursor(LocalDateTime.of(2026, 1, 10, 12, 30, 15, 123_456_000), 42L);
+
+        assertThat(KeysetCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void decode_missingToken_startsFromTheTop() {
+        assertThat(KeysetCursor.decode(null)).isEqualTo(KeysetCursor.START);
+        assertThat(KeysetCursor.decode("")).isEqualTo(KeysetCursor.START);
+    }
+
+    @Test
+    void decode_garbage_throwsIllegalArgument() {
+        assertThatThrownBy(() -> KeysetCursor.decode("not-a-cursor"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor");
+    }
+
+    @Test
+    void slice_extraRow_meansNextPage_fromLastReturnedRow() {
+        LocalDateTime t = LocalDateTime.of(2026, 1, 10, 12, 0);
+        List<KeysetCursor> rows = List.of(new KeysetCursor(t, 3L), new KeysetCursor(t, 2L), new KeysetCursor(t, 1L));
+
+        CursorSlice<Long> slice = KeysetCursor.slice(rows, 2, r -> r, KeysetCursor::id);
+
+        assertThat(slice.getContent()).containsExactly(3L, 2L);
+        assertThat(slice.isHasNext()).isTrue();
+        assertThat(KeysetCursor.decode(slice.getNextCursor())).isEqualTo(new KeysetCursor(t, 2L));
+    }
+
+    @Test
+    void slice_lastPage_hasNoCursor() {
+        LocalDateTime t = LocalDateTime.of(2026, 1, 10, 12, 0);
+
+        CursorSlice<Long> slice = KeysetCursor.slice(List.of(new KeysetCursor(t, 1L)), 2, r -> r, KeysetCursor::id);
+
+        assertThat(slice.getContent()).containsExactly(1L);
+        assertThat(slice.isHasNext()).isFalse();
+        assertThat(slice.getNextCursor()).isNull();
+    }
+
+    @Test
+    void limitAndSlice_zeroOrNegativeSize_returnOneRow() {
+        LocalDateTime t = LocalDateTime.of(2026, 1, 10, 12, 0);
+        List<KeysetCursor> rows = List.of(new KeysetCursor(t, 2L), new KeysetCursor(t, 1L));
+
+        for (int size : new int[]{0, -5}) {
+            assertThat(KeysetCursor.limit(size).getPageSize()).isEqualTo(2);
+
+            CursorSlice<Long> slice = KeysetCursor.slice(rows, size, r -> r, KeysetCursor::id);
+
+            assertThat(slice.getContent()).containsExactly(2L);
+            assertThat(slice.isHasNext()).isTrue();
+            assertThat(KeysetCursor.decode(slice.getNextCursor())).isEqualTo(new KeysetCursor(t, 2L));
+        }
+    }
+
+    @Test
+    void limit_hugeSize_isCapped() {
+        assertThat(KeysetCursor.limit(Integer.MAX_VALUE).getPageSize()).isEqualTo(KeysetCursor.MAX_SIZE + 1);
+    }
+}
@@ -0,0 +1,105 @@
+package project.planora_travelandbooking_system.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.*;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import project.planora_travelandbooking_system.exception.PasswordHashingBusyException;
+import project.planora_travelandbooking_system.model.User;
+import project.planora_travelandbooking_system.repository.UserRepository;
+import project.planora_travelandbooking_system.security.PasswordHashingExecutor;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PasswordUpgradeServiceTest {
+
+    @Mock private PasswordEncoder passwordEncoder;
+    @Mock private UserRepository userRepository;
+    @Mock private DbUserDetailService userDetailService;
+    @Mock private PasswordHashingExecutor hashingExecutor;
+
+    @InjectMocks private PasswordUpgradeService passwordUpgradeService;
+
+    private User user(String hash) {
+        User u = new User();
+        u.setId(3L);
+        u.setEmail("u@test.com");
+        u.setPassword(hash);
+        return u;
+    }
+
+    @AfterEach
+    void tearDown() {
+        passwordUpgradeService.shutdown();
+    }
+
+    private void hashInline() {
+        when(hashingExecutor.submitBackground(any())).thenAnswer(inv ->
+                CompletableFuture.completedFuture(inv.<Supplier<?>>getArgument(0).get()));
+    }
+
+    @Test
+    void upgradeIfNeeded_currentProfile_doesNothing() {
+        when(passwordEncoder.upgradeEncoding("{bcrypt}new")).thenReturn(false);
+
+        passwordUpgradeService.upgradeIfNeeded(user("{bcrypt}new"), "secret");
+
+        verifyNoInteractions(hashingExecutor, userRepository);
+    }
+
+    @Test
+    void upgradeIfNeeded_outdatedHash_rehashesConditionally_andEvicts() {
+        hashInline();
+        when(passwordEncoder.upgradeEncoding("$2a$10$old")).thenReturn(true);
+        when(passwordEncoder.encode("secret")).thenReturn("{bcrypt}new");
+        Thread caller = Thread.currentThread();
+        AtomicReference<Thread> writer = new AtomicReference<>();
+        when(userRepository.updatePasswordIfUnchanged(3L, "$2a$10$old", "{bcrypt}new")).thenAnswer(inv -> {
+            writer.set(Thread.currentThread());
+            return 1;
+        });
+
+        passwordUpgradeService.upgradeIfNeeded(user("$2a$10$old"), "secret");
+
+        verify(userDetailService, timeout(5_000)).evict("u@test.com");
+        assertThat(passwordUpgradeService.getUpgraded()).isEqualTo(1);
+        // the update runs on the upgrade writer, not on the thread that produced the hash
+        assertThat(writer.get()).isNotSameAs(caller);
+        assertThat(writer.get().getName()).isEqualTo("password-upgrade");
+    }
+
+    @Test
+    void upgradeIfNeeded_passwordChangedConcurrently_doesNotEvict() {
+        hashInline();
+        when(passwordEncoder.upgradeEncoding("$2a$10$old")).thenReturn(true);
+        when(passwordEncoder.encode("secret")).thenReturn("{bcrypt}new");
+        when(userRepository.updatePasswordIfUnchanged(3L, "$2a$10$old", "{bcrypt}new")).thenReturn(0);
+
+        passwordUpgradeService.upgradeIfNeeded(user("$2a$10$old"), "secret");
+        verify(userRepository, timeout(5_000)).updatePasswordIfUnchanged(3L, "$2a$10$old", "{bcrypt}new");
+
+        verifyNoInteractions(userDetailService);
+        assertThat(passwordUpgradeService.getUpgraded()).isZero();
+    }
+
+    @Test
+    void upgradeIfNeeded_poolBusy_isSkipped() {
+        when(passwordEncoder.upgradeEncoding("$2a$10$old")).thenReturn(true);
+        when(hashingExecutor.submitBackground(any()))
+                .thenReturn(CompletableFuture.failedFuture(new PasswordHashingBusyException("busy")));
+
+        passwordUpgradeService.upgradeIfNeeded(user("$2a$10$old"), "secret");
+
+        verifyNoInteractions(userRepository);
+        assertThat(passwordUpgradeService.getSkipped()).isEqualTo(1);
+    }
+}
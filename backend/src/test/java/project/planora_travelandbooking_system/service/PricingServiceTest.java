@@ -0,0 +1,73 @@
+package project.planora_travelandbooking_system.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PricingServiceTest {
+
+    @Test
+    void quoteStay_withoutRules_isNightsTimesRate_andSameQuoteIsCached() {
+        PricingService pricing = new PricingService(List.of());
+
+        assertThat(pricing.quoteStay(77L, 80.0, LocalDate.of(2026, 3, 1), LocalDate.of(2026, 3, 4))).isEqualTo(240.0);
+        assertThat(pricing.quoteStay(77L, 80.0, LocalDate.of(2026, 3, 1), LocalDate.of(2026, 3, 4))).isEqualTo(240.0);
+
+        assertThat(pricing.getMisses()).isEqualTo(1);
+        assertThat(pricing.getHits()).isEqualTo(1);
+    }
+
+    @Test
+    void quoteStay_sameDayStay_costsOneNight() {
+        PricingService pricing = new PricingService(List.of());
+
+        assertThat(pricing.quoteStay(77L, 80.0, LocalDate.of(2026, 3, 1), LocalDate.of(2026, 3, 1))).isEqualTo(80.0);
+    }
+
+    @Test
+    void quoteStay_peakNightsMarkedUp_thenLongStayDiscounted() {
+        SeasonalPricingRule seasonal = new SeasonalPricingRule();
+        ReflectionTestUtils.setField(seasonal, "markupPercent", 50.0);
+        LengthOfStayPricingRule lengthOfStay = new LengthOfStayPricingRule();
+        ReflectionTestUtils.setField(lengthOfStay, "discountPercent", 10.0);
+        PricingService pricing = new PricingService(List.of(seasonal, lengthOfStay));
+
+        // May 29 .. June 5: 3 nights in May, 4 peak nights in June
+        double total = pricing.quoteStay(77L, 100.0, LocalDate.of(2026, 5, 29), LocalDate.of(2026, 6, 5));
+
+        assertThat(total).isEqualTo(810.0);
+    }
+
+    @Test
+    void quoteSeat_nearlyFull_isMarkedUp_onlyWhenOccupancyRuleIsOn() {
+        OccupancyPricingRule occupancy = new OccupancyPricingRule();
+        PricingService off = new PricingService(List.of(occupancy));
+        assertThat(off.usesOccupancy()).isFalse();
+
+        ReflectionTestUtils.setField(occupancy, "markupPercent", 25.0);
+        PricingService on = new PricingService(List.of(occupancy));
+        LocalDateTime departure = LocalDateTime.of(2026, 3, 1, 8, 0);
+
+        assertThat(on.usesOccupancy()).isTrue();
+        assertThat(on.quoteSeat(55L, 40.0, departure, departure.plusHours(3), 10, 5)).isEqualTo(40.0);
+        assertThat(on.quoteSeat(55L, 40.0, departure, departure.plusHours(3), 10, 1)).isEqualTo(50.0);
+    }
+
+    @Test
+    void quoteSeat_noDeparture_throws_andCachesNothing() {
+        PricingService pricing = new PricingService(List.of());
+
+        assertThatThrownBy(() -> pricing.quoteSeat(55L, 40.0, null, null, 10, null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Transport has no departure time");
+
+        assertThat(pricing.getMisses()).isZero();
+        assertThat(pricing.getSize()).isZero();
+    }
+}
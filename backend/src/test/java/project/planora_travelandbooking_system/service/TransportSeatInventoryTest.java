@@ -0,0 +1,67 @@
+package project.planora_travelandbooking_system.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import project.planora_travelandbooking_system.exception.BookingConflictException;
+import project.planora_travelandbooking_system.repository.TransportRepository;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransportSeatInventoryTest {
+
+    @Mock private TransportRepository transportRepository;
+    @Mock private CatalogVersion catalogVersion;
+
+    @InjectMocks private TransportSeatInventory inventory;
+
+    @Test
+    void take_selectedSeat_usesZeroBasedBit() {
+        when(transportRepository.takeSeat(55L, 2)).thenReturn(1);
+
+        inventory.take(55L, 3);
+
+        assertThat(inventory.getTaken()).isEqualTo(1);
+    }
+
+    @Test
+    void take_noSeatsLeft_throwsConflict() {
+        when(transportRepository.takeAnySeat(55L)).thenReturn(0);
+
+        assertThatThrownBy(() -> inventory.take(55L, null))
+                .isInstanceOf(BookingConflictException.class)
+                .hasMessage("No seats left on this transport");
+        assertThat(inventory.getSoldOut()).isEqualTo(1);
+    }
+
+    @Test
+    void take_seatAlreadyTaken_throwsConflict() {
+        when(transportRepository.takeSeat(55L, 0)).thenReturn(0);
+
+        assertThatThrownBy(() -> inventory.take(55L, 1))
+                .isInstanceOf(BookingConflictException.class)
+                .hasMessage("Seat 1 is already taken");
+    }
+
+    @Test
+    void validateSeat_outsideCapacity_throws() {
+        assertThatCode(() -> inventory.validateSeat(10, 10)).doesNotThrowAnyException();
+        assertThatThrownBy(() -> inventory.validateSeat(10, 11))
+                .hasMessage("Seat must be between 1 and 10");
+        assertThatThrownBy(() -> inventory.validateSeat(10, 0))
+                .hasMessage("Seat must be between 1 and 10");
+    }
+
+    @Test
+    void release_selectedSeat_clearsBit_otherwiseOnlyCounter() {
+        inventory.release(55L, 3);
+        inventory.release(55L, null);
+
+        verify(transportRepository).releaseSeat(55L, 2);
+        verify(transportRepository).releaseAnySeat(55L);
+    }
+}
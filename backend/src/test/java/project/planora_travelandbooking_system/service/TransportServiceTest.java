@@ -4,11 +4,18 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import project.planora_travelandbooking_system.dto.TransportDTO;
+import project.planora_travelandbooking_system.dto.TransportSearchCriteria;
 import project.planora_travelandbooking_system.model.Transport;
 import project.planora_travelandbooking_system.repository.TransportRepository;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.*;
@@ -18,6 +25,9 @@ import static org.mockito.Mockito.*;
 class TransportServiceTest {
 
     @Mock private TransportRepository transportRepository;
+    @Mock private CatalogCache catalogCache;
+    @Mock private CatalogVersion catalogVersion;
+    @Mock private PricingService pricingService;
     @InjectMocks private TransportService transportService;
 
     @Captor ArgumentCaptor<Transport> transportCaptor;
@@ -64,9 +74,59 @@ class TransportServiceTest {
         assertThat(saved.getCreatedAt()).isNotNull();
         assertThat(saved.getTransportType()).isEqualTo(Transport.TransportType.FLIGHT);
         assertThat(saved.getStatus()).isEqualTo(Transport.Status.AVAILABLE);
+        assertThat(saved.getSeatsAvailable()).isEqualTo(1);
+        assertThat(saved.getSeatMap()).hasSize(1);
         assertThat(result.getId()).isEqualTo(50L);
     }
 
+    @Test
+    void updateTransport_capacityBelowBookedSeats_throws() {
+        Transport existing = new Transport();
+        existing.setId(1L);
+        existing.setSeat(100);
+        existing.setSeatsAvailable(5);
+
+        TransportDTO dto = new TransportDTO();
+        dto.setDepartureTime(LocalDateTime.of(2026, 1, 10, 10, 0));
+        dto.setArrivalTime(LocalDateTime.of(2026, 1, 10, 12, 0));
+        dto.setTransportType("FLIGHT");
+        dto.setStatus("AVAILABLE");
+        dto.setSeat(50);
+
+        when(transportRepository.findById(1L)).thenReturn(Optional.of(existing));
+        when(transportRepository.resizeCapacity(1L, 50)).thenReturn(0);
+
+        assertThatThrownBy(() -> transportService.updateTransport(1L, dto))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("Capacity cannot be lower than the seats already booked or the highest booked seat number");
+
+        verify(transportRepository, never()).save(any());
+    }
+
+    @Test
+    void updateTransport_capacityIncrease_resizesInventory() {
+        Transport existing = new Transport();
+        existing.setId(1L);
+        existing.setSeat(100);
+        existing.setSeatsAvailable(5);
+
+        TransportDTO dto = new TransportDTO();
+        dto.setDepartureTime(LocalDateTime.of(2026, 1, 10, 10, 0));
+        dto.setArrivalTime(LocalDateTime.of(2026, 1, 10, 12, 0));
+        dto.setTransportType("FLIGHT");
+        dto.setStatus("AVAILABLE");
+        dto.setSeat(120);
+
+        when(transportRepository.findById(1L)).thenReturn(Optional.of(existing));
+        when(transportRepository.resizeCapacity(1L, 120)).thenReturn(1);
+        when(transportRepository.save(existing)).thenReturn(existing);
+
+        TransportDTO result = transportService.updateTransport(1L, dto);
+
+        assertThat(result.getSeat()).isEqualTo(120);
+        assertThat(result.getSeatsAvailable()).isEqualTo(25);
+    }
+
     @Test
     void deleteTransport_notFound_throws() {
         when(transportRepository.existsById(10L)).thenReturn(false);
@@ -92,4 +152,51 @@ class TransportServiceTest {
                 .isInstanceOf(RuntimeException.class)
                 .hasMessage("Transport not found with ID: 1");
     }
-}
\ No newline at end of file
+
+    @Test
+    void searchTransports_sortByPrice_ordersByPriceThenId_andRecordsLatency() {
+        Transport transport = new Transport();
+        transport.setId(1L);
+        transport.setTransportType(Transport.TransportType.TRAIN);
+        transport.setStatus(Transport.Status.AVAILABLE);
+        ArgumentCaptor<Pageable> pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
+        when(transportRepository.findSlice(any(Specification.class), pageableCaptor.capture()))
+                .thenReturn(new SliceImpl<>(List.of(transport)));
+
+        TransportSearchCriteria criteria = new TransportSearchCriteria();
+        criteria.setOrigin("Riga");
+        criteria.setDestination("Tallinn");
+        criteria.setSort("price");
+
+        Slice<TransportDTO> result = transportService.searchTransports(criteria, 0, 10);
+
+        assertThat(result.getContent()).extracting(TransportDTO::getId).containsExactly(1L);
+        assertThat(pageableCaptor.getValue().getSort()).isEqualTo(Sort.by("price", "id"));
+        assertThat(transportService.getSearches()).isEqualTo(1);
+    }
+
+    @Test
+    void searchTransports_unknownSort_throws() {
+        TransportSearchCriteria criteria = new TransportSearchCriteria();
+        criteria.setSort("rating");
+
+        assertThatThrownBy(() -> transportService.searchTransports(criteria, 0, 10))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("sort must be");
+
+        verifyNoInteractions(transportRepository);
+    }
+
+    @Test
+    void searchTransports_windowEndsBeforeItStarts_throws() {
+        TransportSearchCriteria criteria = new TransportSearchCriteria();
+        criteria.setDepartFrom(LocalDateTime.of(2026, 1, 10, 0, 0));
+        criteria.setDepartTo(LocalDateTime.of(2026, 1, 9, 0, 0));
+
+        assertThatThrownBy(() -> transportService.searchTransports(criteria, 0, 10))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("departTo cannot be before departFrom");
+
+        verifyNoInteractions(transportRepository);
+    }
+}
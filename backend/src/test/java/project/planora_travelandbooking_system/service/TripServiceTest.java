@@ -8,7 +8,10 @@ import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import project.planora_travelandbooking_system.dto.TripDTO;
+import project.planora_travelandbooking_system.model.Booking;
 import project.planora_travelandbooking_system.model.Trip;
 import project.planora_travelandbooking_system.model.User;
 import project.planora_travelandbooking_system.repository.BookingRepository;
@@ -132,6 +135,53 @@ class TripServiceTest {
         verify(tripRepository, never()).save(any());
     }
 
+    @Test
+    void updateTrip_movingNightsWithActiveAccommodationBooking_throws() {
+        Trip existing = new Trip();
+        existing.setId(200L);
+        existing.setUser(owner);
+        existing.setStartDate(LocalDateTime.of(2026, 1, 10, 10, 0));
+        existing.setEndDate(LocalDateTime.of(2026, 1, 12, 10, 0));
+
+        TripDTO dto = new TripDTO();
+        dto.setTitle("Later");
+        dto.setStartDate(LocalDateTime.of(2026, 1, 11, 10, 0));
+        dto.setEndDate(LocalDateTime.of(2026, 1, 13, 10, 0));
+
+        when(tripRepository.findById(200L)).thenReturn(Optional.of(existing));
+        when(bookingRepository.existsByTripIdAndAccommodationIsNotNullAndStatusNot(200L, Booking.BookingStatus.CANCELLED))
+                .thenReturn(true);
+
+        assertThatThrownBy(() -> tripService.updateTrip(200L, dto, owner))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("Cannot change trip dates: it has accommodation bookings. Cancel or delete them first.");
+
+        verify(tripRepository, never()).save(any());
+        assertThat(existing.getStartDate()).isEqualTo(LocalDateTime.of(2026, 1, 10, 10, 0));
+    }
+
+    @Test
+    void updateTrip_sameNightsNewTimes_skipsBookingCheck() {
+        Trip existing = new Trip();
+        existing.setId(200L);
+        existing.setUser(owner);
+        existing.setStartDate(LocalDateTime.of(2026, 1, 10, 10, 0));
+        existing.setEndDate(LocalDateTime.of(2026, 1, 12, 10, 0));
+
+        TripDTO dto = new TripDTO();
+        dto.setTitle("Same nights");
+        dto.setStartDate(LocalDateTime.of(2026, 1, 10, 14, 0));
+        dto.setEndDate(LocalDateTime.of(2026, 1, 12, 9, 0));
+
+        when(tripRepository.findById(200L)).thenReturn(Optional.of(existing));
+        when(tripRepository.save(existing)).thenReturn(existing);
+
+        tripService.updateTrip(200L, dto, owner);
+
+        assertThat(existing.getStartDate()).isEqualTo(LocalDateTime.of(2026, 1, 10, 14, 0));
+        verify(bookingRepository, never()).existsByTripIdAndAccommodationIsNotNullAndStatusNot(any(), any());
+    }
+
     @Test
     void deleteTripAuthorized_whenBookingsExist_throws() {
         Trip trip = new Trip();
@@ -184,4 +234,25 @@ class TripServiceTest {
 
         verify(tripRepository, never()).deleteAllByIdInBatch(any());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getTripsForUser_mapsProjectionRows_withoutLoadingUser() {
+        TripRepository.TripListView view = mock(TripRepository.TripListView.class);
+        when(view.getId()).thenReturn(5L);
+        when(view.getTitle()).thenReturn("Riga");
+        when(view.getStartDate()).thenReturn(LocalDateTime.of(2026, 1, 10, 10, 0));
+        when(view.getEndDate()).thenReturn(LocalDateTime.of(2026, 1, 12, 10, 0));
+        when(view.getUserId()).thenReturn(owner.getId());
+        when(tripRepository.findListViewsByUserEmail("user@test.com", PageRequest.of(0, 10)))
+                .thenReturn(new PageImpl<>(List.of(view)));
+
+        List<TripDTO> trips = tripService.getTripsForUser("user@test.com", 0, 10).getContent();
+
+        assertThat(trips).singleElement().satisfies(dto -> {
+            assertThat(dto.getId()).isEqualTo(5L);
+            assertThat(dto.getTitle()).isEqualTo("Riga");
+            assertThat(dto.getUserId()).isEqualTo(10L);
+        });
+        verifyNoInteractions(userService);
+    }
+}
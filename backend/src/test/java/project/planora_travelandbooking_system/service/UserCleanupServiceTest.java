@@ -6,6 +6,7 @@ import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
 import project.planora_travelandbooking_system.model.User;
 import project.planora_travelandbooking_system.repository.UserRepository;
+import project.planora_travelandbooking_system.security.SecurityVersionRegistry;
 
 import java.util.List;
 
@@ -15,6 +16,8 @@ import static org.mockito.Mockito.*;
 class UserCleanupServiceTest {
 
     @Mock private UserRepository userRepository;
+    @Mock private EmailReservationService emailReservations;
+    @Mock private SecurityVersionRegistry securityVersions;
     @InjectMocks private UserCleanupService userCleanupService;
 
     @Test
@@ -26,5 +29,21 @@ class UserCleanupServiceTest {
 
         verify(userRepository).findAllByDeletedTrueAndDeletionDateBefore(any());
         verify(userRepository).deleteAll(anyList());
+        verify(emailReservations).releaseAllForUsers(anyList());
+    }
+
+    @Test
+    void permanentlyDeleteOldUsers_revokesTheirTokens() {
+        User first = new User();
+        first.setId(4L);
+        User second = new User();
+        second.setId(5L);
+        when(userRepository.findAllByDeletedTrueAndDeletionDateBefore(any()))
+                .thenReturn(List.of(first, second));
+
+        userCleanupService.permanentlyDeleteOldUsers();
+
+        verify(securityVersions).revokeAll(4L);
+        verify(securityVersions).revokeAll(5L);
     }
 }
\ No newline at end of file
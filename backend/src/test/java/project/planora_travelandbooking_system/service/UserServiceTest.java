@@ -16,10 +16,12 @@ import project.planora_travelandbooking_system.dto.UserDTO;
 import project.planora_travelandbooking_system.dto.UserProfileUpdateRequest;
 import project.planora_travelandbooking_system.exception.InvalidPasswordException;
 import project.planora_travelandbooking_system.exception.UserNotFoundException;
+import project.planora_travelandbooking_system.exception.UserAlreadyExistsException;
 import project.planora_travelandbooking_system.model.User;
 import project.planora_travelandbooking_system.model.UserEmailHistory;
 import project.planora_travelandbooking_system.repository.UserEmailHistoryRepository;
 import project.planora_travelandbooking_system.repository.UserRepository;
+import project.planora_travelandbooking_system.security.SecurityVersionRegistry;
 
 
 import java.time.LocalDateTime;
@@ -35,6 +37,9 @@ class UserServiceTest {
     @Mock private UserRepository userRepository;
     @Mock private PasswordEncoder passwordEncoder;
     @Mock private UserEmailHistoryRepository userEmailHistoryRepository;
+    @Mock private DbUserDetailService userDetailService;
+    @Mock private SecurityVersionRegistry securityVersions;
+    @Mock private EmailReservationService emailReservations;
 
     @InjectMocks private UserService userService;
 
@@ -98,8 +103,7 @@ class UserServiceTest {
         dto.setPassword("plain");
 
         when(passwordEncoder.encode("plain")).thenReturn("ENC");
-        when(userRepository.findByEmail("new@test.com")).thenReturn(Optional.empty());
-        when(userEmailHistoryRepository.existsByEmail("new@test.com")).thenReturn(false);
+        when(emailReservations.isAvailable("new@test.com")).thenReturn(true);
 
         userService.saveUser(dto);
 
@@ -111,6 +115,7 @@ class UserServiceTest {
         assertThat(saved.getPassword()).isEqualTo("ENC");
         assertThat(saved.isSuperAdmin()).isFalse();
         assertThat(saved.getCreatedAt()).isNotNull();
+        verify(emailReservations).reserve("new@test.com", null);
     }
 
     @Test
@@ -118,7 +123,7 @@ class UserServiceTest {
         UserDTO dto = new UserDTO();
         dto.setEmail("taken@test.com");
 
-        when(userRepository.findByEmail("taken@test.com")).thenReturn(Optional.of(new User()));
+        when(emailReservations.isAvailable("taken@test.com")).thenReturn(false);
 
         assertThatThrownBy(() -> userService.saveUser(dto))
                 .isInstanceOf(IllegalArgumentException.class)
@@ -217,7 +222,7 @@ class UserServiceTest {
         when(userRepository.findById(10L)).thenReturn(Optional.of(existing));
         setAuth("me@test.com", "USER");
 
-        when(userRepository.existsByEmail("taken@test.com")).thenReturn(true);
+        when(emailReservations.isAvailable("taken@test.com")).thenReturn(false);
 
         UserProfileUpdateRequest req = new UserProfileUpdateRequest();
         req.setEmail("taken@test.com");
@@ -238,8 +243,7 @@ class UserServiceTest {
         when(userRepository.findById(10L)).thenReturn(Optional.of(existing));
         setAuth("old@test.com", "USER");
 
-        when(userRepository.existsByEmail("new@test.com")).thenReturn(false);
-        when(userEmailHistoryRepository.existsByEmail("new@test.com")).thenReturn(false);
+        when(emailReservations.isAvailable("new@test.com")).thenReturn(true);
 
         UserProfileUpdateRequest req = new UserProfileUpdateRequest();
         req.setEmail("new@test.com");
@@ -249,6 +253,9 @@ class UserServiceTest {
         verify(userEmailHistoryRepository).save(any(UserEmailHistory.class));
         verify(userRepository).save(existing);
         assertThat(existing.getEmail()).isEqualTo("new@test.com");
+        verify(userDetailService).evict("old@test.com");
+        verify(userDetailService).evict("new@test.com");
+        verify(emailReservations).reserve("new@test.com", 10L);
     }
 
     @Test
@@ -270,6 +277,7 @@ class UserServiceTest {
 
         verify(userRepository).save(existing);
         assertThat(existing.getRole()).isEqualTo(User.Role.ADMIN);
+        verify(securityVersions).bump(existing);
     }
 
     @Test
@@ -293,6 +301,7 @@ class UserServiceTest {
         userService.deleteUser(7L);
 
         verify(userRepository).save(target);
+        verify(securityVersions).bump(target);
         assertThat(target.isDeleted()).isTrue();
         assertThat(target.getDeletionDate()).isNotNull();
         verify(userRepository, never()).delete(any(User.class));
@@ -342,6 +351,7 @@ class UserServiceTest {
         verify(userEmailHistoryRepository).deleteAll(ArgumentMatchers.<UserEmailHistory>anyList());
         verify(userRepository).delete(target);
         verify(userRepository, never()).save(target);
+        verify(emailReservations).releaseAllForUsers(List.of(8L));
     }
 
     @Test
@@ -372,6 +382,7 @@ class UserServiceTest {
         verify(userRepository).save(u);
         assertThat(u.isDeleted()).isFalse();
         assertThat(dto.isDeleted()).isFalse();
+        verify(userDetailService).evict("a@test.com");
     }
 
     @Test
@@ -382,4 +393,31 @@ class UserServiceTest {
                 .isInstanceOf(UserNotFoundException.class)
                 .hasMessage("User not found");
     }
-}
\ No newline at end of file
+
+    @Test
+    void registerUser_savesUser_andReservesEmail() {
+        User u = new User();
+        u.setEmail("new@test.com");
+        when(userRepository.save(u)).thenAnswer(inv -> {
+            u.setId(42L);
+            return u;
+        });
+
+        User saved = userService.registerUser(u);
+
+        assertThat(saved.getId()).isEqualTo(42L);
+        verify(emailReservations).reserve("new@test.com", 42L);
+    }
+
+    @Test
+    void registerUser_emailReservedConcurrently_throws() {
+        User u = new User();
+        u.setEmail("new@test.com");
+        when(userRepository.save(u)).thenReturn(u);
+        doThrow(new UserAlreadyExistsException("Email is already registered or in history"))
+                .when(emailReservations).reserve("new@test.com", null);
+
+        assertThatThrownBy(() -> userService.registerUser(u))
+                .isInstanceOf(UserAlreadyExistsException.class);
+    }
+}
@@ -2,6 +2,8 @@ import React, { useEffect, useMemo, useState } from "react";
 import { apiFetch } from "../api/http";
 import Pagination from "../components/Pagination.jsx";
 
+const LOOKUP_LIMIT = 50;
+
 const BookingPage = () => {
     const [bookings, setBookings] = useState([]);
     const [trips, setTrips] = useState([]);
@@ -21,6 +23,7 @@ const BookingPage = () => {
         startDate: "",
         endDate: "",
         transportId: "",
+        seatNumber: "",
         accommodationId: "",
     });
 
@@ -28,15 +31,29 @@ const BookingPage = () => {
 
     const [selectedIds, setSelectedIds] = useState(new Set());
 
+    // pickers are bounded prefix searches, not whole tables
+    const [tripQuery, setTripQuery] = useState("");
+    const [transportQuery, setTransportQuery] = useState("");
+    const [accommodationQuery, setAccommodationQuery] = useState("");
+
     useEffect(() => {
         fetchBookings();
     }, [currentPage]);
 
     useEffect(() => {
-        fetchTrips();
-        fetchTransports();
-        fetchAccommodations();
-    }, []);
+        const t = setTimeout(() => fetchTrips(tripQuery), 250);
+        return () => clearTimeout(t);
+    }, [tripQuery]);
+
+    useEffect(() => {
+        const t = setTimeout(() => fetchTransports(transportQuery), 250);
+        return () => clearTimeout(t);
+    }, [transportQuery]);
+
+    useEffect(() => {
+        const t = setTimeout(() => fetchAccommodations(accommodationQuery), 250);
+        return () => clearTimeout(t);
+    }, [accommodationQuery]);
 
     const toLocalInput = (v) => {
         if (!v) return "";
@@ -82,6 +99,7 @@ const BookingPage = () => {
                     startDate: toLocalInput(b.startDate),
                     endDate: toLocalInput(b.endDate),
                     transportId: b.transportId ?? "",
+                    seatNumber: b.seatNumber ?? "",
                     accommodationId: b.accommodationId ?? "",
                 };
             });
@@ -93,27 +111,27 @@ const BookingPage = () => {
         }
     };
 
-    const fetchTrips = async () => {
+    const fetchTrips = async (q = "") => {
         try {
-            const res = await apiFetch("/api/bookings/trips");
+            const res = await apiFetch(`/api/bookings/trips?limit=${LOOKUP_LIMIT}&q=${encodeURIComponent(q)}`);
             if (!res.ok) return;
             const data = await res.json();
             setTrips(Array.isArray(data) ? data : []);
         } catch {}
     };
 
-    const fetchTransports = async () => {
+    const fetchTransports = async (q = "") => {
         try {
-            const res = await apiFetch("/api/bookings/transports");
+            const res = await apiFetch(`/api/bookings/transports?limit=${LOOKUP_LIMIT}&q=${encodeURIComponent(q)}`);
             if (!res.ok) return;
             const data = await res.json();
             setTransports(Array.isArray(data) ? data : []);
         } catch {}
     };
 
-    const fetchAccommodations = async () => {
+    const fetchAccommodations = async (q = "") => {
         try {
-            const res = await apiFetch("/api/bookings/accommodations");
+            const res = await apiFetch(`/api/bookings/accommodations?limit=${LOOKUP_LIMIT}&q=${encodeURIComponent(q)}`);
             if (!res.ok) return;
             const data = await res.json();
             setAccommodations(Array.isArray(data) ? data : []);
@@ -128,6 +146,7 @@ const BookingPage = () => {
             next.accommodationId = "";
         } else if (type === "ACCOMMODATION") {
             next.transportId = "";
+            next.seatNumber = "";
         }
 
         return next;
@@ -167,6 +186,7 @@ const BookingPage = () => {
                 startDate: fromLocalInput(dto0.startDate),
                 endDate: fromLocalInput(dto0.endDate),
                 transportId: dto0.transportId ? Number(dto0.transportId) : null,
+                seatNumber: dto0.seatNumber ? Number(dto0.seatNumber) : null,
                 accommodationId: dto0.accommodationId ? Number(dto0.accommodationId) : null,
             };
 
@@ -185,6 +205,7 @@ const BookingPage = () => {
                     startDate: "",
                     endDate: "",
                     transportId: "",
+                    seatNumber: "",
                     accommodationId: "",
                 });
                 setOpenCreate(false);
@@ -242,6 +263,7 @@ const BookingPage = () => {
                 startDate: fromLocalInput(row.startDate),
                 endDate: fromLocalInput(row.endDate),
                 transportId: row.transportId ? Number(row.transportId) : null,
+                seatNumber: row.seatNumber ? Number(row.seatNumber) : null,
                 accommodationId: row.accommodationId ? Number(row.accommodationId) : null,
             };
 
@@ -394,6 +416,13 @@ const BookingPage = () => {
                             <form onSubmit={handleCreateBooking} className="row g-2 g-md-3">
                                 <div className="col-12 col-md-4">
                                     <label className="form-label p-hint mb-1">Trip</label>
+                                    <input
+                                        className="form-control form-control-sm mb-1"
+                                        type="search"
+                                        value={tripQuery}
+                                        onChange={(e) => setTripQuery(e.target.value)}
+                                        placeholder="Search..."
+                                    />
                                     <select
                                         className="form-select"
                                         value={createDto.tripId}
@@ -478,6 +507,13 @@ const BookingPage = () => {
                                 {createDto.bookingType === "TRANSPORT" && (
                                     <div className="col-12 col-md-4">
                                         <label className="form-label p-hint mb-1">Transport</label>
+                                        <input
+                                            className="form-control form-control-sm mb-1"
+                                            type="search"
+                                            value={transportQuery}
+                                            onChange={(e) => setTransportQuery(e.target.value)}
+                                            placeholder="Search..."
+                                        />
                                         <select
                                             className="form-select"
                                             value={createDto.transportId}
@@ -491,13 +527,27 @@ const BookingPage = () => {
                                             <option value="">{createRules.transportDisabled ? "--" : "-- Select --"}</option>
                                             {transports.map((tr) => (
                                                 <option key={tr.id} value={tr.id}>
-                                                    {tr.company} ({tr.originAddress} → {tr.destinationAddress}) price={tr.price}
+                                                    {tr.company} ({tr.originAddress} → {tr.destinationAddress}) price={tr.price} seats left={tr.seatsAvailable ?? "-"}
                                                 </option>
                                             ))}
                                         </select>
                                     </div>
                                 )}
 
+                                {createDto.bookingType === "TRANSPORT" && (
+                                    <div className="col-12 col-md-2">
+                                        <label className="form-label p-hint mb-1">Seat (optional)</label>
+                                        <input
+                                            className="form-control"
+                                            type="number"
+                                            min="1"
+                                            value={createDto.seatNumber}
+                                            onChange={(e) => setCreateDto({ ...createDto, seatNumber: e.target.value })}
+                                            placeholder="Any"
+                                        />
+                                    </div>
+                                )}
+
                                 {createDto.bookingType === "ACCOMMODATION" && (
                                     <>
                                         <div className="col-12 col-md-4">
@@ -525,6 +575,13 @@ const BookingPage = () => {
                                 {createDto.bookingType === "ACCOMMODATION" && (
                                     <div className="col-12 col-md-4">
                                         <label className="form-label p-hint mb-1">Accommodation</label>
+                                        <input
+                                            className="form-control form-control-sm mb-1"
+                                            type="search"
+                                            value={accommodationQuery}
+                                            onChange={(e) => setAccommodationQuery(e.target.value)}
+                                            placeholder="Search..."
+                                        />
                                         <select
                                             className="form-select"
                                             value={createDto.accommodationId}
@@ -633,6 +690,9 @@ const BookingPage = () => {
                                                             required
                                                         >
                                                             <option value="">-- Select --</option>
+                                                            {row.tripId && !trips.some((t) => String(t.id) === String(row.tripId)) && (
+                                                                <option value={row.tripId}>Trip #{row.tripId}</option>
+                                                            )}
                                                             {trips.map((t) => (
                                                                 <option key={t.id} value={t.id}>
                                                                     {t.title} (id={t.id})
@@ -680,6 +740,9 @@ const BookingPage = () => {
                                                             disabled={rules.transportDisabled}
                                                         >
                                                             <option value="">--</option>
+                                                            {row.transportId && !transports.some((tr) => String(tr.id) === String(row.transportId)) && (
+                                                                <option value={row.transportId}>Transport #{row.transportId}</option>
+                                                            )}
                                                             {transports.map((tr) => (
                                                                 <option key={tr.id} value={tr.id}>
                                                                     {tr.company} ({tr.originAddress} → {tr.destinationAddress}) price={tr.price}
@@ -699,6 +762,9 @@ const BookingPage = () => {
                                                             disabled={rules.accommodationDisabled}
                                                         >
                                                             <option value="">--</option>
+                                                            {row.accommodationId && !accommodations.some((a) => String(a.id) === String(row.accommodationId)) && (
+                                                                <option value={row.accommodationId}>Accommodation #{row.accommodationId}</option>
+                                                            )}
                                                             {accommodations.map((a) => (
                                                                 <option key={a.id} value={a.id}>
                                                                     {a.name} ({a.address}) price/night={a.pricePerNight}